@@ -0,0 +1,69 @@
+package stock.core.history;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import stock.models.Buyer;
+import stock.models.Seller;
+import stock.models.TickSize;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a history event the way the stock markets do it
+ * With the logger off an event is only recorded, with the logger on it is also rendered to text,
+ * the text goes to the benchmark instead of the console so the terminal does not dominate the numbers
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabledLogger;
+
+    private HistoryJournal history;
+    private Seller seller;
+    private Buyer buyer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.history = new HistoryJournal(HistoryJournal.DEFAULT_CAPACITY, TickSize.DEFAULT);
+        this.seller = new Seller("BenchmarkSeller", null);
+        this.buyer = new Buyer("BenchmarkBuyer", null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String updateHistory() {
+        return this.update();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String updateHistoryContended() {
+        return this.update();
+    }
+
+    private String update() {
+        long sequence = this.history.record(HistoryEventType.MATCHED, buyer, seller, 100, 1);
+        return enabledLogger ? this.history.render(sequence) : null;
+    }
+}
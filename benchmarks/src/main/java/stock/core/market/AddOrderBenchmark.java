@@ -0,0 +1,81 @@
+package stock.core.market;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import stock.exceptions.StockMarketException;
+import stock.models.Buyer;
+import stock.models.Demand;
+import stock.models.Seller;
+import stock.models.Supply;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link StockMarket#addSupply(Supply)} and {@link StockMarket#addDemand(Demand)}
+ * Every operation adds one supply and one demand of the same price and count, so the book does not grow
+ * when the matching keeps up
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddOrderBenchmark {
+
+    @Param({"basic", "ring", "sharded"})
+    public String market;
+
+    @Param({"basic", "work_stealing", "virtual"})
+    public String pool;
+
+    @Param({"price_level", "array"})
+    public String book;
+
+    private StockMarket stockMarket;
+    private Seller seller;
+    private Buyer buyer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws StockMarketException {
+        this.stockMarket = BenchmarkMarkets.create(market, pool, book);
+        this.stockMarket.run();
+        this.seller = new Seller("BenchmarkSeller", stockMarket);
+        this.buyer = new Buyer("BenchmarkBuyer", stockMarket);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws StockMarketException {
+        this.stockMarket.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addSupplyAndDemand() {
+        this.stockMarket.addSupply(new Supply(1, 1, seller));
+        this.stockMarket.addDemand(new Demand(1, 1, buyer));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addSupplyAndDemandContended() {
+        this.stockMarket.addSupply(new Supply(1, 1, seller));
+        this.stockMarket.addDemand(new Demand(1, 1, buyer));
+    }
+}
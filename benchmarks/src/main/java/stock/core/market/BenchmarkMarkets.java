@@ -0,0 +1,49 @@
+package stock.core.market;
+
+import stock.core.book.OrderBookType;
+import stock.core.pool.ThreadPoolType;
+
+/**
+ * Builds the stock markets that are benchmarked, with the logger off
+ * The benchmarks live in the package of the markets because the builders are package private
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+final class BenchmarkMarkets {
+
+    static final int THREADS = 4;
+
+    private BenchmarkMarkets() {
+    }
+
+    /**
+     * @param market "basic", "ring" or "sharded"
+     * @param pool   one of the {@link ThreadPoolType} names, ignored by the ring market
+     * @param book   one of the {@link OrderBookType} names
+     * @return a stock market that is not running yet
+     */
+    static StockMarket create(String market, String pool, String book) {
+        OrderBookType orderBookType = OrderBookType.fromName(book);
+
+        if ("ring".equals(market)) {
+            return new RingBufferStockMarketBuilder()
+                    .setEnabledLogger(false)
+                    .setOrderBook(orderBookType.create())
+                    .build();
+        }
+        if ("sharded".equals(market)) {
+            return new ShardedStockMarketBuilder()
+                    .setEnabledLogger(false)
+                    .setThreadPool(ThreadPoolType.fromName(pool), THREADS)
+                    .setOrderBookType(orderBookType)
+                    .build();
+        }
+        return new BasicStockMarketBuilder()
+                .setEnabledLogger(false)
+                .setThreadPool(ThreadPoolType.fromName(pool), THREADS)
+                .setOrderBook(orderBookType.create())
+                .build();
+    }
+}
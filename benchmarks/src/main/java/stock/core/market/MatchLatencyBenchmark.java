@@ -0,0 +1,84 @@
+package stock.core.market;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import stock.exceptions.StockMarketException;
+import stock.models.Buyer;
+import stock.models.Demand;
+import stock.models.Seller;
+import stock.models.Supply;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency from submitting a demand to its fill, with a book that already holds resting orders
+ * The resting orders are at other prices, so they are never consumed but make the lookups walk a deeper book
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchLatencyBenchmark {
+
+    @Param({"basic", "ring", "sharded"})
+    public String market;
+
+    @Param({"basic", "work_stealing", "virtual"})
+    public String pool;
+
+    @Param({"list", "price_level", "array"})
+    public String book;
+
+    @Param({"0", "1000", "100000"})
+    public int depth;
+
+    private StockMarket stockMarket;
+    private Seller seller;
+    private Buyer buyer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws StockMarketException, ExecutionException, InterruptedException {
+        this.stockMarket = BenchmarkMarkets.create(market, pool, book);
+        this.stockMarket.run();
+        this.seller = new Seller("BenchmarkSeller", stockMarket);
+        this.buyer = new Buyer("BenchmarkBuyer", stockMarket);
+
+        OrderTicket last = null;
+        for (int i = 0; i < depth; i++) {
+            // prices from 2 to 101, the measured orders trade at 1
+            last = this.stockMarket.submitSupply(new Supply(2 + i % 100, 1, seller));
+        }
+        if (last != null) {
+            last.acknowledged().get();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws StockMarketException {
+        this.stockMarket.stop();
+    }
+
+    @Benchmark
+    public OrderTicket submitAndFill() throws ExecutionException, InterruptedException {
+        this.stockMarket.submitSupply(new Supply(1, 1, seller));
+        return this.stockMarket.submitDemand(new Demand(1, 1, buyer)).filled().get();
+    }
+}
@@ -0,0 +1,85 @@
+package stock.core.pool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing a task over to a {@link ThreadPool}
+ * The round trip waits for a single task to run, the batch measures how fast tasks can be executed back to back
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadPoolBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"basic", "work_stealing", "virtual"})
+    public String pool;
+
+    @Param({"4"})
+    public int threads;
+
+    private ThreadPool threadPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.threadPool = ThreadPoolType.fromName(pool).create(threads);
+        this.threadPool.restart();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.threadPool.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void executeRoundTrip() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        this.threadPool.execute(new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        });
+        done.await();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void executeBatch() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(BATCH);
+        Runnable task = new Runnable() {
+            public void run() {
+                done.countDown();
+            }
+        };
+        for (int i = 0; i < BATCH; i++) {
+            this.threadPool.execute(task);
+        }
+        done.await();
+    }
+}
@@ -71,8 +71,8 @@ public final class App {
 
     /**
      * This method will bootstrap the entire app with a parameter configuration
-     * For every seller that creates and supply, a new Thread will be started in their class
-     * For Every buyer that adds a demand, a new Thread will be started in their class
+     * Sellers and buyers submit their supplies and demands to the StockMarket without blocking,
+     * the StockMarket handles them on its own executor
      *
      * @param sellersNumber int
      * @param buyersNumber  int
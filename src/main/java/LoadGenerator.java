@@ -0,0 +1,264 @@
+import stock.core.market.OrderTicket;
+import stock.core.market.StockMarket;
+import stock.core.market.StockMarketSingleton;
+import stock.core.metrics.LatencyHistogram;
+import stock.exceptions.StockMarketException;
+import stock.models.Buyer;
+import stock.models.Demand;
+import stock.models.Seller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Workload generator for the stock market, grown from {@link App#bootstrapApp}
+ * Arguments are "key=value" pairs, every key has a default:
+ * <br>- mode=open : "open" sends orders at a fixed rate whatever the market does, "closed" runs clients
+ * that wait for the acknowledgement of an order before sending the next one
+ * <br>- rate=10000 : orders per second of the open mode
+ * <br>- clients=8 : client threads of the closed mode
+ * <br>- duration=10 : seconds of sending
+ * <br>- participants=1000 : number of sellers and of buyers
+ * <br>- buyRatio=0.5 : share of the orders that are demands
+ * <br>- prices=uniform:1:2 : price distribution, "uniform:min:max" or "normal:mean:stddev"
+ * <br>- sizes=uniform:1:4 : count distribution, "uniform:min:max" or "geometric:mean"
+ * <br>- seed=42 : seed of the orders of the open mode
+ * <br>The market is the {@link StockMarketSingleton}, run with -Dstock.logger=false to measure the engine
+ * and not the console. At the end the throughput and the order to acknowledgement and order to fill
+ * latency percentiles are printed. The latency of the open mode is measured from the time an order
+ * was meant to be sent, so a market that falls behind is not hidden by a sender that slows down with it
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class LoadGenerator {
+
+    /**
+     * Time given to the market to fill the last orders before the report
+     */
+    private static final long DRAIN_MILLIS = 1000;
+
+    private final StockMarket stockMarket;
+
+    private final boolean isOpenLoop;
+    private final int rate;
+    private final int clients;
+    private final long durationNanos;
+    private final double buyRatio;
+    private final Distribution prices;
+    private final Distribution sizes;
+
+    private final List<Seller> sellers = new ArrayList<Seller>();
+    private final List<Buyer> buyers = new ArrayList<Buyer>();
+
+    private final LatencyHistogram acknowledgeLatency = new LatencyHistogram();
+    private final LatencyHistogram fillLatency = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private LoadGenerator(StockMarket stockMarket, Map<String, String> options) {
+        this.stockMarket = stockMarket;
+        this.isOpenLoop = !"closed".equals(option(options, "mode", "open"));
+        this.rate = Integer.parseInt(option(options, "rate", "10000"));
+        this.clients = Integer.parseInt(option(options, "clients", "8"));
+        this.durationNanos = Long.parseLong(option(options, "duration", "10")) * 1000000000L;
+        this.buyRatio = Double.parseDouble(option(options, "buyRatio", "0.5"));
+        this.prices = Distribution.parse(option(options, "prices", "uniform:1:2"));
+        this.sizes = Distribution.parse(option(options, "sizes", "uniform:1:4"));
+
+        int participants = Integer.parseInt(option(options, "participants", "1000"));
+        for (int i = 0; i < participants; i++) {
+            this.sellers.add(new Seller("Seller" + i, stockMarket));
+            this.buyers.add(new Buyer("Buyer" + i, stockMarket));
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                System.out.println("Ignoring the argument " + arg + ", expected key=value");
+                continue;
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        StockMarket stockMarket = StockMarketSingleton.getInstance();
+        LoadGenerator generator = new LoadGenerator(stockMarket, options);
+        try {
+            stockMarket.run();
+            long elapsed = generator.isOpenLoop ? generator.runOpenLoop(Long.parseLong(option(options, "seed", "42")))
+                    : generator.runClosedLoop();
+
+            Thread.sleep(DRAIN_MILLIS);
+            stockMarket.stop();
+            generator.report(elapsed);
+        } catch (StockMarketException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Sends orders at the configured rate from a single thread
+     *
+     * @param seed of the random orders
+     * @return nanoseconds spent sending
+     */
+    private long runOpenLoop(long seed) {
+        Random random = new Random(seed);
+        long interval = 1000000000L / Math.max(1, rate);
+        long start = System.nanoTime();
+        long intended = start;
+
+        while (intended - start < durationNanos) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            this.send(random, intended);
+            intended += interval;
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the clients, every client waits for the acknowledgement of its order before sending the next one
+     *
+     * @return nanoseconds spent sending
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    private long runClosedLoop() throws InterruptedException {
+        final long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int i = 0; i < clients; i++) {
+            Thread client = new Thread(new Runnable() {
+                public void run() {
+                    Random random = ThreadLocalRandom.current();
+                    while (System.nanoTime() - start < durationNanos) {
+                        OrderTicket ticket = send(random, System.nanoTime());
+                        try {
+                            ticket.acknowledged().get();
+                        } catch (InterruptedException e) {
+                            return;
+                        } catch (ExecutionException e) {
+                            // already counted by the ticket callback
+                        }
+                    }
+                }
+            }, "LoadGenerator client #" + i);
+            threads.add(client);
+            client.start();
+        }
+        for (Thread client : threads) {
+            client.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * @param random source of the order
+     * @param start  time the order was meant to be sent at
+     * @return ticket of the order
+     */
+    private OrderTicket send(Random random, final long start) {
+        double price = Math.max(1, prices.next(random));
+        int count = (int) Math.max(1, sizes.next(random));
+
+        OrderTicket ticket;
+        if (random.nextDouble() < buyRatio) {
+            Buyer buyer = buyers.get(random.nextInt(buyers.size()));
+            ticket = buyer.addDemand(new Demand(price, count, buyer));
+        } else {
+            ticket = sellers.get(random.nextInt(sellers.size())).createSupply(price, count);
+        }
+        sent.incrementAndGet();
+
+        ticket.acknowledged().whenComplete(new BiConsumer<OrderTicket, Throwable>() {
+            public void accept(OrderTicket acknowledged, Throwable error) {
+                if (error != null) {
+                    failed.incrementAndGet();
+                } else {
+                    acknowledgeLatency.record(System.nanoTime() - start);
+                }
+            }
+        });
+        ticket.filled().thenAccept(new Consumer<OrderTicket>() {
+            public void accept(OrderTicket filled) {
+                fillLatency.record(System.nanoTime() - start);
+            }
+        });
+        return ticket;
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.println("==== LoadGenerator " + (isOpenLoop ? "open loop at " + rate + " orders/s" : "closed loop with " + clients + " clients"));
+        System.out.println(String.format("sent=%d in %.2fs, throughput=%.0f orders/s, failed=%d",
+                sent.get(), seconds, sent.get() / seconds, failed.get()));
+        System.out.println(String.format("acknowledged=%d filled=%d resting=%d",
+                acknowledgeLatency.count(), fillLatency.count(), acknowledgeLatency.count() - fillLatency.count()));
+        System.out.println("order to acknowledgement: " + acknowledgeLatency.summary());
+        System.out.println("order to fill: " + fillLatency.summary());
+    }
+
+    private static String option(Map<String, String> options, String key, String defaultValue) {
+        String value = options.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Random whole numbers, the prices are drawn in whole units of the price
+     */
+    private abstract static class Distribution {
+
+        abstract long next(Random random);
+
+        /**
+         * @param spec "uniform:min:max", "normal:mean:stddev" or "geometric:mean"
+         * @return the distribution
+         */
+        static Distribution parse(String spec) {
+            String[] parts = spec.split(":");
+            final double first = parts.length > 1 ? Double.parseDouble(parts[1]) : 1;
+            final double second = parts.length > 2 ? Double.parseDouble(parts[2]) : first;
+
+            if ("uniform".equals(parts[0])) {
+                return new Distribution() {
+                    long next(Random random) {
+                        return (long) first + (long) (random.nextDouble() * ((long) second - (long) first + 1));
+                    }
+                };
+            }
+            if ("normal".equals(parts[0])) {
+                return new Distribution() {
+                    long next(Random random) {
+                        return Math.round(first + random.nextGaussian() * second);
+                    }
+                };
+            }
+            if ("geometric".equals(parts[0])) {
+                return new Distribution() {
+                    long next(Random random) {
+                        // number of trials until the first success, with a success probability of 1 / mean
+                        return 1 + (long) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / Math.max(1.0001, first)));
+                    }
+                };
+            }
+            throw new IllegalArgumentException("Unknown distribution " + spec);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package stock.core.book;
+
+import stock.models.Buyer;
+import stock.models.Demand;
+import stock.models.OrderStorage;
+import stock.models.Seller;
+import stock.models.StockObject;
+import stock.models.StockPerson;
+import stock.models.Supply;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * {@link OrderBook} that keeps the resting orders in primitive arrays
+ * Every order gets a slot with its price in ticks, its count, its id, the id of its owner and a sequence.
+ * The orders of a price level are linked by slot index in arrival order, so looking for a match only walks
+ * int and long arrays. The best price of every side is cached by a {@link PriceLadder}, a match is taken
+ * from the best level that crosses the limit of the order, oldest order first. Every level keeps the count
+ * that is left of its orders.
+ * The book does not keep the {@link Supply} or {@link Demand} an order was added with, only its columns.
+ * A lookup materializes a view of the slot, which reads and writes the count of the slot while the order rests.
+ * Slots of removed orders are reused with a new sequence, so a view of a former order reads a count of 0
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class ArrayOrderBook implements OrderBook {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final OrderArrays<Supply> supplies = new SupplyArrays();
+    private final OrderArrays<Demand> demands = new DemandArrays();
+
+    public void addSupply(Supply supply) {
+        this.supplies.add(supply);
+    }
+
+    public void addDemand(Demand demand) {
+        this.demands.add(demand);
+    }
+
+    public boolean removeSupply(Supply supply) {
+        return this.supplies.remove(supply);
+    }
+
+    public boolean removeDemand(Demand demand) {
+        return this.demands.remove(demand);
+    }
+
+    public Supply supply(long orderId) {
+        return this.supplies.find(orderId);
+    }
+
+    public Demand demand(long orderId) {
+        return this.demands.find(orderId);
+    }
+
+    public Supply matchingSupply(Demand demand) {
+        return this.supplies.best(demand.getPriceTicks());
+    }
+
+    public Demand matchingDemand(Supply supply) {
+        return this.demands.best(supply.getPriceTicks());
+    }
+
+    public void supplyCountChanged(Supply supply, int delta) {
+        this.supplies.countChanged(supply, delta);
+    }
+
+    public void demandCountChanged(Demand demand, int delta) {
+        this.demands.countChanged(demand, delta);
+    }
+
+    public long bestSupplyPrice() {
+        return this.supplies.ladder.isEmpty() ? Long.MAX_VALUE : this.supplies.ladder.best();
+    }
+
+    public long bestDemandPrice() {
+        return this.demands.ladder.isEmpty() ? Long.MIN_VALUE : this.demands.ladder.best();
+    }
+
+    public long supplyQuantity(long price) {
+        return this.supplies.quantity(price);
+    }
+
+    public long demandQuantity(long price) {
+        return this.demands.quantity(price);
+    }
+
+    public void supplyLevels(LevelVisitor visitor) {
+        this.supplies.visit(visitor);
+    }
+
+    public void demandLevels(LevelVisitor visitor) {
+        this.demands.visit(visitor);
+    }
+
+    public int supplyCount() {
+        return this.supplies.size;
+    }
+
+    public int demandCount() {
+        return this.demands.size;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayOrderBook [" + supplies.size + " supplies, " + demands.size + " demands]";
+    }
+
+    /**
+     * First and last slot of a price level and the count that is left of its orders
+     */
+    private static final class Level {
+        int head = -1;
+        int tail = -1;
+        long quantity;
+    }
+
+    /**
+     * One side of the book, the columns are indexed by slot
+     *
+     * @param <T> Supply or Demand
+     */
+    private abstract static class OrderArrays<T extends StockObject> implements OrderStorage {
+
+        long[] prices = new long[INITIAL_CAPACITY];
+        int[] counts = new int[INITIAL_CAPACITY];
+        long[] ids = new long[INITIAL_CAPACITY];
+        long[] owners = new long[INITIAL_CAPACITY];
+        String[] symbols = new String[INITIAL_CAPACITY];
+
+        /**
+         * Sequence of the order in every slot, 0 for a free slot
+         */
+        long[] sequences = new long[INITIAL_CAPACITY];
+        private long sequence;
+
+        private int[] next = new int[INITIAL_CAPACITY];
+        private int[] previous = new int[INITIAL_CAPACITY];
+
+        /**
+         * Slot of every resting order by id, so an order is found in O(1) when it is cancelled or amended
+         */
+        private final LongIndexMap slots = new LongIndexMap();
+
+        /**
+         * Owners of the orders by id, one entry for every participant that ever had an order on this side
+         * The owners belong to the registry of one market, so their ids are unique
+         */
+        private final LongLevelMap<StockPerson> participants = new LongLevelMap<StockPerson>();
+
+        /**
+         * Stack of the slots that were freed
+         */
+        private int[] free = new int[INITIAL_CAPACITY];
+        private int freeCount;
+
+        /**
+         * Slots above this one were never used
+         */
+        private int used;
+
+        private final LongLevelMap<Level> levels = new LongLevelMap<Level>();
+
+        final PriceLadder ladder;
+
+        private int size;
+
+        OrderArrays(boolean isDescending) {
+            this.ladder = new PriceLadder(isDescending);
+        }
+
+        public int count(int index, long sequence) {
+            return sequences[index] == sequence ? counts[index] : 0;
+        }
+
+        public void count(int index, long sequence, int count) {
+            if (sequences[index] == sequence) {
+                counts[index] = count;
+            }
+        }
+
+        /**
+         * @param index    slot of the order
+         * @param sequence of the slot when the order was stored in it
+         * @param owner    of the order
+         * @return a view of the order in the slot
+         */
+        abstract T view(int index, long sequence, StockPerson owner);
+
+        void add(T order) {
+            if (order.getStorage() == this) {
+                if (sequences[order.getStorageIndex()] == order.getStorageSequence()) {
+                    return;
+                }
+                order.unbind();
+            }
+            StockPerson owner = order.getOwner();
+            StockPerson known = participants.get(owner.getId());
+            if (known == null) {
+                participants.put(owner.getId(), owner);
+            } else if (known != owner) {
+                throw new IllegalArgumentException("The id " + owner.getId() + " already belongs to " + known.getName());
+            }
+
+            int index = allocate();
+            prices[index] = order.getPriceTicks();
+            ids[index] = order.getId();
+            owners[index] = owner.getId();
+            symbols[index] = order.getSymbol();
+            sequences[index] = ++sequence;
+            slots.put(ids[index], index);
+            order.bind(this, index, sequences[index]);
+
+            Level level = levels.get(prices[index]);
+            if (level == null) {
+                level = new Level();
+                levels.put(prices[index], level);
+                ladder.added(prices[index]);
+            }
+            next[index] = -1;
+            previous[index] = level.tail;
+            if (level.tail == -1) {
+                level.head = index;
+            } else {
+                next[level.tail] = index;
+            }
+            level.tail = index;
+            level.quantity += counts[index];
+            size++;
+        }
+
+        boolean remove(T order) {
+            if (order.getStorage() != this) {
+                return false;
+            }
+            int index = order.getStorageIndex();
+            if (sequences[index] != order.getStorageSequence()) {
+                return false;
+            }
+            Level level = levels.get(prices[index]);
+            level.quantity -= counts[index];
+
+            if (previous[index] == -1) {
+                level.head = next[index];
+            } else {
+                next[previous[index]] = next[index];
+            }
+            if (next[index] == -1) {
+                level.tail = previous[index];
+            } else {
+                previous[next[index]] = previous[index];
+            }
+            if (level.head == -1) {
+                levels.remove(prices[index]);
+                ladder.removed(prices[index]);
+            }
+
+            order.unbind();
+            slots.remove(ids[index]);
+            sequences[index] = 0;
+            symbols[index] = null;
+            free[freeCount++] = index;
+            size--;
+            return true;
+        }
+
+        /**
+         * @param limit price in ticks of the order of the other side
+         * @return the oldest order of the best level that crosses the limit and still has a count
+         */
+        T best(long limit) {
+            if (!ladder.crosses(limit)) {
+                return null;
+            }
+            T order = first(levels.get(ladder.best()));
+            if (order != null) {
+                return order;
+            }
+
+            // the orders of the best level are consumed and wait for their removal
+            for (Iterator<Long> levelPrices = ladder.iterator(); levelPrices.hasNext(); ) {
+                long price = levelPrices.next();
+                if (!ladder.crosses(price, limit)) {
+                    return null;
+                }
+                order = first(levels.get(price));
+                if (order != null) {
+                    return order;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param order resting on this side, a view of a slot that was reused since changes nothing
+         * @param delta new count minus the previous one
+         */
+        void countChanged(T order, int delta) {
+            if (order.getStorage() == this && sequences[order.getStorageIndex()] == order.getStorageSequence()) {
+                levels.get(prices[order.getStorageIndex()]).quantity += delta;
+            }
+        }
+
+        /**
+         * @param price in ticks
+         * @return count that is left of the orders of the level
+         */
+        long quantity(long price) {
+            Level level = levels.get(price);
+            return level != null ? level.quantity : 0;
+        }
+
+        void visit(LevelVisitor visitor) {
+            for (Iterator<Long> levelPrices = ladder.iterator(); levelPrices.hasNext(); ) {
+                long price = levelPrices.next();
+                long quantity = quantity(price);
+                if (quantity > 0 && !visitor.level(price, quantity)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @param orderId id the market gave to the order
+         * @return a view of the resting order with this id or null if it is not in the book
+         */
+        T find(long orderId) {
+            int index = slots.get(orderId);
+            return index != -1 ? view(index) : null;
+        }
+
+        /**
+         * @param level of a price
+         * @return the oldest order of the level that still has a count
+         */
+        private T first(Level level) {
+            for (int index = level.head; index != -1; index = next[index]) {
+                if (counts[index] > 0) {
+                    return view(index);
+                }
+            }
+            return null;
+        }
+
+        private T view(int index) {
+            return view(index, sequences[index], participants.get(owners[index]));
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return free[--freeCount];
+            }
+            if (used == prices.length) {
+                grow();
+            }
+            return used++;
+        }
+
+        private void grow() {
+            int capacity = prices.length << 1;
+            prices = Arrays.copyOf(prices, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            free = Arrays.copyOf(free, capacity);
+        }
+    }
+
+    /**
+     * Supply side of the book, lowest price first
+     */
+    private static final class SupplyArrays extends OrderArrays<Supply> {
+
+        SupplyArrays() {
+            super(false);
+        }
+
+        Supply view(int index, long sequence, StockPerson owner) {
+            return Supply.view(this, index, sequence, ids[index], symbols[index], prices[index], (Seller) owner);
+        }
+    }
+
+    /**
+     * Demand side of the book, highest price first
+     */
+    private static final class DemandArrays extends OrderArrays<Demand> {
+
+        DemandArrays() {
+            super(true);
+        }
+
+        Demand view(int index, long sequence, StockPerson owner) {
+            return Demand.view(this, index, sequence, ids[index], symbols[index], prices[index], (Buyer) owner);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package stock.core.book;
+
+/**
+ * Receives the price levels of one side of an {@link OrderBook}, from the best price to the worst one
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface LevelVisitor {
+
+    /**
+     * @param price    of the level in ticks
+     * @param quantity count that is left of the orders resting at this price, never 0
+     * @return false to stop at this level
+     */
+    boolean level(long price, long quantity);
+
+}
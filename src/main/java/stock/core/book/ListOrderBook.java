@@ -0,0 +1,187 @@
+package stock.core.book;
+
+import stock.models.Demand;
+import stock.models.StockObject;
+import stock.models.Supply;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link OrderBook} that keeps the orders in plain lists
+ * Every lookup and every removal walks the whole list, it is kept as a reference
+ * implementation to compare the other books against
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class ListOrderBook implements OrderBook {
+
+    private final List<Supply> supplies = new ArrayList<Supply>();
+    private final List<Demand> demands = new ArrayList<Demand>();
+
+    /**
+     * Resting orders by id, so an order is found in O(1) when it is cancelled or amended
+     */
+    private final LongLevelMap<Supply> supplyIds = new LongLevelMap<Supply>();
+    private final LongLevelMap<Demand> demandIds = new LongLevelMap<Demand>();
+
+    /**
+     * Count that is left of the orders of every price, an entry stays once its price was used
+     */
+    private final LongLevelMap<long[]> supplyQuantities = new LongLevelMap<long[]>();
+    private final LongLevelMap<long[]> demandQuantities = new LongLevelMap<long[]>();
+
+    public void addSupply(Supply supply) {
+        this.supplies.add(supply);
+        this.supplyIds.put(supply.getId(), supply);
+        change(this.supplyQuantities, supply.getPriceTicks(), supply.getCount());
+    }
+
+    public void addDemand(Demand demand) {
+        this.demands.add(demand);
+        this.demandIds.put(demand.getId(), demand);
+        change(this.demandQuantities, demand.getPriceTicks(), demand.getCount());
+    }
+
+    public boolean removeSupply(Supply supply) {
+        if (!this.supplies.remove(supply)) {
+            return false;
+        }
+        this.supplyIds.remove(supply.getId());
+        change(this.supplyQuantities, supply.getPriceTicks(), -supply.getCount());
+        return true;
+    }
+
+    public boolean removeDemand(Demand demand) {
+        if (!this.demands.remove(demand)) {
+            return false;
+        }
+        this.demandIds.remove(demand.getId());
+        change(this.demandQuantities, demand.getPriceTicks(), -demand.getCount());
+        return true;
+    }
+
+    public Supply supply(long orderId) {
+        return this.supplyIds.get(orderId);
+    }
+
+    public Demand demand(long orderId) {
+        return this.demandIds.get(orderId);
+    }
+
+    public Supply matchingSupply(Demand demand) {
+        Supply best = null;
+        for (int i = 0; i < this.supplies.size(); i++) {
+            Supply supply = this.supplies.get(i);
+            // the first supply of a price is the oldest one, a later one only wins with a lower price
+            if (supply.getPriceTicks() <= demand.getPriceTicks() && supply.getCount() > 0
+                    && (best == null || supply.getPriceTicks() < best.getPriceTicks())) {
+                best = supply;
+            }
+        }
+        return best;
+    }
+
+    public Demand matchingDemand(Supply supply) {
+        Demand best = null;
+        for (int i = 0; i < this.demands.size(); i++) {
+            Demand demand = this.demands.get(i);
+            // the first demand of a price is the oldest one, a later one only wins with a higher price
+            if (demand.getPriceTicks() >= supply.getPriceTicks() && demand.getCount() > 0
+                    && (best == null || demand.getPriceTicks() > best.getPriceTicks())) {
+                best = demand;
+            }
+        }
+        return best;
+    }
+
+    public void supplyCountChanged(Supply supply, int delta) {
+        change(this.supplyQuantities, supply.getPriceTicks(), delta);
+    }
+
+    public void demandCountChanged(Demand demand, int delta) {
+        change(this.demandQuantities, demand.getPriceTicks(), delta);
+    }
+
+    public long bestSupplyPrice() {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < this.supplies.size(); i++) {
+            best = Math.min(best, this.supplies.get(i).getPriceTicks());
+        }
+        return best;
+    }
+
+    public long bestDemandPrice() {
+        long best = Long.MIN_VALUE;
+        for (int i = 0; i < this.demands.size(); i++) {
+            best = Math.max(best, this.demands.get(i).getPriceTicks());
+        }
+        return best;
+    }
+
+    public long supplyQuantity(long price) {
+        long[] quantity = this.supplyQuantities.get(price);
+        return quantity != null ? quantity[0] : 0;
+    }
+
+    public long demandQuantity(long price) {
+        long[] quantity = this.demandQuantities.get(price);
+        return quantity != null ? quantity[0] : 0;
+    }
+
+    public void supplyLevels(LevelVisitor visitor) {
+        visit(this.supplies, this.supplyQuantities, false, visitor);
+    }
+
+    public void demandLevels(LevelVisitor visitor) {
+        visit(this.demands, this.demandQuantities, true, visitor);
+    }
+
+    public int supplyCount() {
+        return this.supplies.size();
+    }
+
+    public int demandCount() {
+        return this.demands.size();
+    }
+
+    private static void change(LongLevelMap<long[]> quantities, long price, long delta) {
+        long[] quantity = quantities.get(price);
+        if (quantity == null) {
+            quantity = new long[1];
+            quantities.put(price, quantity);
+        }
+        quantity[0] += delta;
+    }
+
+    /**
+     * Sorts the distinct prices of the orders, then hands out the quantity of every one of them
+     */
+    private static void visit(List<? extends StockObject> orders, LongLevelMap<long[]> quantities,
+                              boolean isDescending, LevelVisitor visitor) {
+        long[] prices = new long[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            prices[i] = orders.get(i).getPriceTicks();
+        }
+        Arrays.sort(prices);
+
+        for (int i = 0; i < prices.length; i++) {
+            long price = prices[isDescending ? prices.length - 1 - i : i];
+            if (i > 0 && price == prices[isDescending ? prices.length - i : i - 1]) {
+                continue;
+            }
+            long quantity = quantities.get(price)[0];
+            if (quantity > 0 && !visitor.level(price, quantity)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ListOrderBook [" + supplies.size() + " supplies, " + demands.size() + " demands]";
+    }
+}
@@ -0,0 +1,117 @@
+package stock.core.book;
+
+/**
+ * Open addressing hash map from an order id to the slot of the order in the columns of a book
+ * Keys and values are primitives, so neither a lookup nor a put boxes anything. A key of 0 marks
+ * an empty entry, the stock market never gives an order the id 0.
+ * Collisions are resolved by linear probing, a removal shifts the following entries back
+ * instead of leaving tombstones
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class LongIndexMap {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIndexMap() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * @param key order id, not 0
+     * @return the slot or -1 if there is none
+     */
+    int get(long key) {
+        for (int index = slot(key); keys[index] != 0; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param key   order id, not 0
+     * @param value the slot
+     */
+    void put(long key, int value) {
+        int index = slot(key);
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > (mask + 1) >> 1) {
+            resize();
+        }
+    }
+
+    /**
+     * @param key order id
+     */
+    void remove(long key) {
+        int index = slot(key);
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (keys[index] == 0) {
+            return;
+        }
+
+        // moves back every following entry that would not be found anymore with the hole in its probe sequence
+        int hole = index;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // spreads consecutive ids over the table
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[oldKeys.length << 1];
+        values = new int[oldValues.length << 1];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = slot(oldKeys[i]);
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package stock.core.book;
+
+/**
+ * Open addressing hash map from a price in ticks to its level, or from an order id to its order
+ * Keys are primitive longs, so a lookup neither boxes the key nor follows a chain of entries.
+ * Collisions are resolved by linear probing, a removal shifts the following entries back
+ * instead of leaving tombstones
+ *
+ * @param <V> the price level or the order
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class LongLevelMap<V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    LongLevelMap() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * @param key price in ticks or order id
+     * @return the level or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        for (int index = slot(key); values[index] != null; index = (index + 1) & mask) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param key   price in ticks or order id
+     * @param value the level, not null
+     */
+    void put(long key, V value) {
+        int index = slot(key);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > (mask + 1) >> 1) {
+            resize();
+        }
+    }
+
+    /**
+     * @param key price in ticks or order id
+     */
+    void remove(long key) {
+        int index = slot(key);
+        while (values[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (values[index] == null) {
+            return;
+        }
+
+        // moves back every following entry that would not be found anymore with the hole in its probe sequence
+        int hole = index;
+        for (int next = (hole + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = null;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // spreads consecutive prices over the table
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int index = slot(oldKeys[i]);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package stock.core.book;
+
+import stock.models.Demand;
+import stock.models.Supply;
+
+/**
+ * Storage of the resting supplies and demands of a {@link stock.core.market.StockMarket}
+ * Implementations are not thread safe, the stock market guards the supply side
+ * and the demand side of the book with its own locks.
+ * The book keeps the quantity of every price level, the count that is left of its orders. An order that is
+ * added or removed changes it by itself, the market reports every count that changes while the order rests
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface OrderBook {
+
+    /**
+     * @param supply to be added to the book
+     */
+    void addSupply(Supply supply);
+
+    /**
+     * @param demand to be added to the book
+     */
+    void addDemand(Demand demand);
+
+    /**
+     * @param supply to be removed from the book
+     * @return true if the supply was in the book
+     */
+    boolean removeSupply(Supply supply);
+
+    /**
+     * @param demand to be removed from the book
+     * @return true if the demand was in the book
+     */
+    boolean removeDemand(Demand demand);
+
+    /**
+     * @param orderId id the market gave to the supply
+     * @return the resting supply with this id or null if it is not in the book
+     */
+    Supply supply(long orderId);
+
+    /**
+     * @param orderId id the market gave to the demand
+     * @return the resting demand with this id or null if it is not in the book
+     */
+    Demand demand(long orderId);
+
+    /**
+     * @param demand that looks for a supply
+     * @return the oldest supply of the lowest price that is not above the price of the demand, null if there is none
+     */
+    Supply matchingSupply(Demand demand);
+
+    /**
+     * @param supply that looks for a demand
+     * @return the oldest demand of the highest price that is not below the price of the supply, null if there is none
+     */
+    Demand matchingDemand(Supply supply);
+
+    /**
+     * @param supply resting in the book whose count changed by a fill or by an amendment that kept its place
+     * @param delta  new count minus the previous one
+     */
+    void supplyCountChanged(Supply supply, int delta);
+
+    /**
+     * @param demand resting in the book whose count changed by a fill or by an amendment that kept its place
+     * @param delta  new count minus the previous one
+     */
+    void demandCountChanged(Demand demand, int delta);
+
+    /**
+     * @return the lowest price of the resting supplies in ticks, {@link Long#MAX_VALUE} if there is none
+     */
+    long bestSupplyPrice();
+
+    /**
+     * @return the highest price of the resting demands in ticks, {@link Long#MIN_VALUE} if there is none
+     */
+    long bestDemandPrice();
+
+    /**
+     * @param price in ticks
+     * @return count that is left of the supplies resting at this price
+     */
+    long supplyQuantity(long price);
+
+    /**
+     * @param price in ticks
+     * @return count that is left of the demands resting at this price
+     */
+    long demandQuantity(long price);
+
+    /**
+     * @param visitor receives the levels of the supplies that have a count left, lowest price first
+     */
+    void supplyLevels(LevelVisitor visitor);
+
+    /**
+     * @param visitor receives the levels of the demands that have a count left, highest price first
+     */
+    void demandLevels(LevelVisitor visitor);
+
+    /**
+     * @return number of supplies in the book
+     */
+    int supplyCount();
+
+    /**
+     * @return number of demands in the book
+     */
+    int demandCount();
+
+}
@@ -0,0 +1,51 @@
+package stock.core.book;
+
+/**
+ * The {@link OrderBook} implementations that can be picked by name, e.g from a system property
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public enum OrderBookType {
+
+    /**
+     * {@link ListOrderBook}, plain lists that are scanned
+     */
+    LIST,
+
+    /**
+     * {@link PriceLevelOrderBook}, a FIFO set of orders for every price
+     */
+    PRICE_LEVEL,
+
+    /**
+     * {@link ArrayOrderBook}, primitive arrays indexed by slot
+     */
+    ARRAY;
+
+    /**
+     * @return a new empty order book of this type
+     */
+    public OrderBook create() {
+        switch (this) {
+            case LIST:
+                return new ListOrderBook();
+            case ARRAY:
+                return new ArrayOrderBook();
+            default:
+                return new PriceLevelOrderBook();
+        }
+    }
+
+    /**
+     * @param name case insensitive name of the type, e.g "array"
+     * @return the type with that name or {@link #PRICE_LEVEL} if the name is null
+     */
+    public static OrderBookType fromName(String name) {
+        if (name == null) {
+            return PRICE_LEVEL;
+        }
+        return OrderBookType.valueOf(name.trim().toUpperCase());
+    }
+}
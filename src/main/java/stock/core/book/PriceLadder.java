@@ -0,0 +1,97 @@
+package stock.core.book;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Sorted prices of the non empty levels of one side of a book, best price first
+ * The best price is cached in a primitive field, so checking whether an order crosses the side is O(1).
+ * The sorted set is only touched when a level is created or emptied, never while an order is looked up
+ * in a level that already exists
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class PriceLadder {
+
+    /**
+     * true for the demands, the highest price is the best one, false for the supplies
+     */
+    private final boolean isDescending;
+
+    private final TreeSet<Long> prices;
+
+    private long best;
+
+    /**
+     * @param isDescending true for the side of the demands, false for the side of the supplies
+     */
+    PriceLadder(boolean isDescending) {
+        this.isDescending = isDescending;
+        this.prices = isDescending ? new TreeSet<Long>(Collections.<Long>reverseOrder()) : new TreeSet<Long>();
+    }
+
+    /**
+     * @param price of a level that was just created
+     */
+    void added(long price) {
+        if (this.prices.isEmpty() || this.isBetter(price, this.best)) {
+            this.best = price;
+        }
+        this.prices.add(price);
+    }
+
+    /**
+     * @param price of a level that was just emptied
+     */
+    void removed(long price) {
+        this.prices.remove(price);
+        if (price == this.best && !this.prices.isEmpty()) {
+            this.best = this.prices.first();
+        }
+    }
+
+    boolean isEmpty() {
+        return this.prices.isEmpty();
+    }
+
+    /**
+     * @return the best price, only meaningful if the ladder is not empty
+     */
+    long best() {
+        return this.best;
+    }
+
+    /**
+     * @param price a price of the ladder
+     * @param limit limit price of an order of the other side
+     * @return true if an order of the other side with this limit can trade at this price
+     */
+    boolean crosses(long price, long limit) {
+        return this.isDescending ? price >= limit : price <= limit;
+    }
+
+    /**
+     * @param limit limit price of an order of the other side
+     * @return true if the best level can trade with the order
+     */
+    boolean crosses(long limit) {
+        return !this.prices.isEmpty() && this.crosses(this.best, limit);
+    }
+
+    /**
+     * Walks the levels after the best one, only needed when the best level has no count left,
+     * e.g while its consumed orders wait to be removed
+     *
+     * @return the prices from the best one to the worst one
+     */
+    Iterator<Long> iterator() {
+        return this.prices.iterator();
+    }
+
+    private boolean isBetter(long price, long than) {
+        return this.isDescending ? price > than : price < than;
+    }
+}
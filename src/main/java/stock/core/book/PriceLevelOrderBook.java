@@ -0,0 +1,237 @@
+package stock.core.book;
+
+import stock.models.Demand;
+import stock.models.StockObject;
+import stock.models.Supply;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * {@link OrderBook} that groups the orders by price level
+ * Every level keeps its orders in arrival order. A demand goes straight to the best level of the supplies,
+ * the lowest price, and takes the oldest supply from it as long as that price is not above the limit
+ * of the demand, and the other way around. The levels are keyed by the price in ticks, without boxing,
+ * and the best price of every side is cached by a {@link PriceLadder}. Every level keeps the count that is left
+ * of its orders. Adding and removing an order are O(1), except when a level is created or emptied
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class PriceLevelOrderBook implements OrderBook {
+
+    private final PriceLevels<Supply> supplies = new PriceLevels<Supply>(false);
+    private final PriceLevels<Demand> demands = new PriceLevels<Demand>(true);
+
+    /**
+     * Resting orders by id, so an order is found in O(1) when it is cancelled or amended
+     */
+    private final LongLevelMap<Supply> supplyIds = new LongLevelMap<Supply>();
+    private final LongLevelMap<Demand> demandIds = new LongLevelMap<Demand>();
+
+    public void addSupply(Supply supply) {
+        this.supplies.add(supply);
+        this.supplyIds.put(supply.getId(), supply);
+    }
+
+    public void addDemand(Demand demand) {
+        this.demands.add(demand);
+        this.demandIds.put(demand.getId(), demand);
+    }
+
+    public boolean removeSupply(Supply supply) {
+        if (!this.supplies.remove(supply)) {
+            return false;
+        }
+        this.supplyIds.remove(supply.getId());
+        return true;
+    }
+
+    public boolean removeDemand(Demand demand) {
+        if (!this.demands.remove(demand)) {
+            return false;
+        }
+        this.demandIds.remove(demand.getId());
+        return true;
+    }
+
+    public Supply supply(long orderId) {
+        return this.supplyIds.get(orderId);
+    }
+
+    public Demand demand(long orderId) {
+        return this.demandIds.get(orderId);
+    }
+
+    public Supply matchingSupply(Demand demand) {
+        return this.supplies.best(demand.getPriceTicks());
+    }
+
+    public Demand matchingDemand(Supply supply) {
+        return this.demands.best(supply.getPriceTicks());
+    }
+
+    public void supplyCountChanged(Supply supply, int delta) {
+        this.supplies.countChanged(supply, delta);
+    }
+
+    public void demandCountChanged(Demand demand, int delta) {
+        this.demands.countChanged(demand, delta);
+    }
+
+    public long bestSupplyPrice() {
+        return this.supplies.ladder.isEmpty() ? Long.MAX_VALUE : this.supplies.ladder.best();
+    }
+
+    public long bestDemandPrice() {
+        return this.demands.ladder.isEmpty() ? Long.MIN_VALUE : this.demands.ladder.best();
+    }
+
+    public long supplyQuantity(long price) {
+        return this.supplies.quantity(price);
+    }
+
+    public long demandQuantity(long price) {
+        return this.demands.quantity(price);
+    }
+
+    public void supplyLevels(LevelVisitor visitor) {
+        this.supplies.visit(visitor);
+    }
+
+    public void demandLevels(LevelVisitor visitor) {
+        this.demands.visit(visitor);
+    }
+
+    public int supplyCount() {
+        return this.supplies.size;
+    }
+
+    public int demandCount() {
+        return this.demands.size;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceLevelOrderBook [" + supplies.size + " supplies, " + demands.size + " demands]";
+    }
+
+    /**
+     * One side of the book, a FIFO queue of orders for every price
+     *
+     * @param <T> Supply or Demand
+     */
+    private static class PriceLevels<T extends StockObject> {
+
+        private final LongLevelMap<Level<T>> levels = new LongLevelMap<Level<T>>();
+
+        final PriceLadder ladder;
+
+        private int size;
+
+        PriceLevels(boolean isDescending) {
+            this.ladder = new PriceLadder(isDescending);
+        }
+
+        void add(T order) {
+            Level<T> level = levels.get(order.getPriceTicks());
+            if (level == null) {
+                level = new Level<T>();
+                levels.put(order.getPriceTicks(), level);
+                ladder.added(order.getPriceTicks());
+            }
+            if (level.orders.add(order)) {
+                level.quantity += order.getCount();
+                size++;
+            }
+        }
+
+        boolean remove(T order) {
+            Level<T> level = levels.get(order.getPriceTicks());
+            if (level == null || !level.orders.remove(order)) {
+                return false;
+            }
+            level.quantity -= order.getCount();
+            if (level.orders.isEmpty()) {
+                levels.remove(order.getPriceTicks());
+                ladder.removed(order.getPriceTicks());
+            }
+            size--;
+            return true;
+        }
+
+        void countChanged(T order, int delta) {
+            Level<T> level = levels.get(order.getPriceTicks());
+            if (level != null) {
+                level.quantity += delta;
+            }
+        }
+
+        /**
+         * @param limit price in ticks of the order of the other side
+         * @return the oldest order of the best level that crosses the limit and still has a count
+         */
+        T best(long limit) {
+            if (!ladder.crosses(limit)) {
+                return null;
+            }
+            T order = first(levels.get(ladder.best()));
+            if (order != null) {
+                return order;
+            }
+
+            // the orders of the best level are consumed and wait for their removal
+            for (Iterator<Long> prices = ladder.iterator(); prices.hasNext(); ) {
+                long price = prices.next();
+                if (!ladder.crosses(price, limit)) {
+                    return null;
+                }
+                order = first(levels.get(price));
+                if (order != null) {
+                    return order;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param price in ticks
+         * @return count that is left of the orders of the level
+         */
+        long quantity(long price) {
+            Level<T> level = levels.get(price);
+            return level != null ? level.quantity : 0;
+        }
+
+        void visit(LevelVisitor visitor) {
+            for (Iterator<Long> prices = ladder.iterator(); prices.hasNext(); ) {
+                long price = prices.next();
+                long quantity = quantity(price);
+                if (quantity > 0 && !visitor.level(price, quantity)) {
+                    return;
+                }
+            }
+        }
+
+        private T first(Level<T> level) {
+            for (Iterator<T> iterator = level.orders.iterator(); iterator.hasNext(); ) {
+                T order = iterator.next();
+                if (order.getCount() > 0) {
+                    return order;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Orders of a price in arrival order and the count that is left of them
+     *
+     * @param <T> Supply or Demand
+     */
+    private static final class Level<T extends StockObject> {
+        final LinkedHashSet<T> orders = new LinkedHashSet<T>();
+        long quantity;
+    }
+}
@@ -0,0 +1,56 @@
+package stock.core.feed;
+
+/**
+ * Total resting quantity of one price of one side of the book
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class DepthLevel {
+
+    private final String symbol;
+    private final boolean isBid;
+    private final long priceTicks;
+    private final double price;
+    private final long quantity;
+
+    DepthLevel(String symbol, boolean isBid, long priceTicks, double price, long quantity) {
+        this.symbol = symbol;
+        this.isBid = isBid;
+        this.priceTicks = priceTicks;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return true for a level of the demands, false for a level of the supplies
+     */
+    public boolean isBid() {
+        return isBid;
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @return resting count of the level, 0 once the level is empty
+     */
+    public long getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "{\"symbol\": " + symbol + ", \"side\": " + (isBid ? "bid" : "ask") + ", \"price\": " + price + ", \"quantity\": " + quantity + "}";
+    }
+}
@@ -0,0 +1,226 @@
+package stock.core.feed;
+
+import stock.core.book.LevelVisitor;
+import stock.core.book.OrderBook;
+import stock.models.StockPerson;
+import stock.models.TickSize;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Incremental market data of the book of a stock market
+ * The market reports every price level of the book that changed and every trade, while it holds the locks
+ * of the book, so the feed sees the events in the order the book changed. The quantities of the levels are
+ * read from the {@link OrderBook}, the feed does not keep its own copy of them. It hands the changed levels,
+ * the trades and the new top of book to its {@link MarketDataSubscription}s, which conflate them for their listeners.
+ * While there is no subscription a report returns before it takes the lock of the feed or reads the book
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class MarketDataFeed {
+
+    private final String symbol;
+
+    private volatile TickSize tickSize = TickSize.DEFAULT;
+
+    /**
+     * Best level of every side, read from the book by the thread that holds the lock of that side, guarded by this
+     */
+    private final BestLevel bid = new BestLevel();
+    private final BestLevel ask = new BestLevel();
+
+    /**
+     * Last top of book handed to the subscriptions, guarded by this
+     */
+    private TopOfBook top;
+
+    private final List<MarketDataSubscription> subscriptions = new CopyOnWriteArrayList<MarketDataSubscription>();
+
+    /**
+     * @param symbol instrument of the book
+     */
+    public MarketDataFeed(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @param tickSize converts the ticks of the book to the prices of the market data
+     */
+    public void setTickSize(TickSize tickSize) {
+        this.tickSize = tickSize;
+    }
+
+    /**
+     * @return true while a subscription is attached, the market does not report anything otherwise
+     */
+    public boolean isActive() {
+        return !this.subscriptions.isEmpty();
+    }
+
+    /**
+     * Attaches a subscription, it first gets every current level and the current top of book
+     * The caller holds both sides of the book, so no level changes while they are read
+     *
+     * @param subscription receives the market data of this feed
+     * @param book         the book of the market
+     */
+    public synchronized void attach(final MarketDataSubscription subscription, OrderBook book) {
+        if (!subscription.isActive()) {
+            return;
+        }
+        this.subscriptions.add(subscription);
+        subscription.attached(this);
+
+        book.demandLevels(new LevelVisitor() {
+            public boolean level(long price, long quantity) {
+                subscription.depth(MarketDataFeed.this.level(true, price, quantity));
+                return true;
+            }
+        });
+        book.supplyLevels(new LevelVisitor() {
+            public boolean level(long price, long quantity) {
+                subscription.depth(MarketDataFeed.this.level(false, price, quantity));
+                return true;
+            }
+        });
+        this.bid.read(book, true);
+        this.ask.read(book, false);
+        this.top = this.computeTop();
+        subscription.topOfBook(this.top);
+    }
+
+    void detach(MarketDataSubscription subscription) {
+        this.subscriptions.remove(subscription);
+    }
+
+    /**
+     * Reports a level that an order entered, left or changed its count in
+     * The caller holds the side of the book the level belongs to
+     *
+     * @param book     the book of the market
+     * @param isDemand true for a level of the demands, false for one of the supplies
+     * @param price    price of the level in ticks
+     */
+    public void levelChanged(OrderBook book, boolean isDemand, long price) {
+        if (this.subscriptions.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            this.depth(book, isDemand, price);
+            (isDemand ? this.bid : this.ask).read(book, isDemand);
+            this.publishTop();
+        }
+    }
+
+    /**
+     * Reports a trade, the caller holds both sides of the book
+     *
+     * @param book        the book of the market
+     * @param demandPrice price of the demand in ticks
+     * @param supplyPrice price of the supply in ticks
+     * @param price       price of the trade in ticks, the price of the order that was resting in the book
+     * @param quantity    exchanged count
+     * @param buyer       owner of the demand
+     * @param seller      owner of the supply
+     */
+    public void traded(OrderBook book, long demandPrice, long supplyPrice, long price, int quantity, StockPerson buyer, StockPerson seller) {
+        if (this.subscriptions.isEmpty()) {
+            return;
+        }
+        Trade trade = new Trade(this.symbol, System.currentTimeMillis(), price, this.tickSize.toPrice(price),
+                quantity, buyer.getId(), seller.getId());
+        synchronized (this) {
+            this.depth(book, true, demandPrice);
+            this.depth(book, false, supplyPrice);
+            for (MarketDataSubscription subscription : this.subscriptions) {
+                subscription.trade(trade);
+            }
+            this.bid.read(book, true);
+            this.ask.read(book, false);
+            this.publishTop();
+        }
+    }
+
+    /**
+     * @return the last top of book handed to the subscriptions, null if there never was a subscription
+     */
+    public synchronized TopOfBook topOfBook() {
+        return this.top;
+    }
+
+    private void depth(OrderBook book, boolean isDemand, long price) {
+        long quantity = isDemand ? book.demandQuantity(price) : book.supplyQuantity(price);
+        DepthLevel level = this.level(isDemand, price, quantity);
+        for (MarketDataSubscription subscription : this.subscriptions) {
+            subscription.depth(level);
+        }
+    }
+
+    private DepthLevel level(boolean isBid, long price, long quantity) {
+        return new DepthLevel(this.symbol, isBid, price, this.tickSize.toPrice(price), quantity);
+    }
+
+    private TopOfBook computeTop() {
+        TickSize ticks = this.tickSize;
+        return new TopOfBook(this.symbol,
+                this.bid.quantity > 0 ? ticks.toPrice(this.bid.price) : 0, this.bid.quantity,
+                this.ask.quantity > 0 ? ticks.toPrice(this.ask.price) : 0, this.ask.quantity);
+    }
+
+    /**
+     * Computes the top of book and hands it to the subscriptions if it changed
+     */
+    private void publishTop() {
+        TopOfBook latest = this.computeTop();
+        if (latest.sameAs(this.top)) {
+            return;
+        }
+        this.top = latest;
+        for (MarketDataSubscription subscription : this.subscriptions) {
+            subscription.topOfBook(latest);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MarketDataFeed " + symbol + " [" + subscriptions.size() + " subscriptions]";
+    }
+
+    /**
+     * Price and quantity of the best level of one side, 0 quantity while the side is empty
+     */
+    private static final class BestLevel implements LevelVisitor {
+
+        private long price;
+        private long quantity;
+
+        /**
+         * The levels are only walked when the best price has no count left, e.g while its consumed orders wait to be removed
+         */
+        private void read(OrderBook book, boolean isDemand) {
+            this.price = isDemand ? book.bestDemandPrice() : book.bestSupplyPrice();
+            if (this.price == (isDemand ? Long.MIN_VALUE : Long.MAX_VALUE)) {
+                this.quantity = 0;
+                return;
+            }
+            this.quantity = isDemand ? book.demandQuantity(this.price) : book.supplyQuantity(this.price);
+            if (this.quantity > 0) {
+                return;
+            }
+            if (isDemand) {
+                book.demandLevels(this);
+            } else {
+                book.supplyLevels(this);
+            }
+        }
+
+        public boolean level(long price, long quantity) {
+            this.price = price;
+            this.quantity = quantity;
+            return false;
+        }
+    }
+}
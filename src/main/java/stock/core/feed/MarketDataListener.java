@@ -0,0 +1,28 @@
+package stock.core.feed;
+
+/**
+ * Receives the market data of a {@link MarketDataFeed} on the delivery thread of its subscription
+ * Every delivery gives the changed depth levels first, then the trades, then the latest top of book
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface MarketDataListener {
+
+    /**
+     * @param level latest state of a price level that changed, a quantity of 0 means the level is gone
+     */
+    void onDepth(DepthLevel level);
+
+    /**
+     * @param trade an exchange between a buyer and a seller
+     */
+    void onTrade(Trade trade);
+
+    /**
+     * @param top latest best bid and best ask
+     */
+    void onTopOfBook(TopOfBook top);
+
+}
@@ -0,0 +1,194 @@
+package stock.core.feed;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Conflating mailbox between the {@link MarketDataFeed}s and a {@link MarketDataListener}
+ * The feeds only overwrite the pending state of the subscription and never wait for the listener:
+ * a depth level or a top of book that changes again before it is delivered is only delivered once, with its
+ * latest value. Trades are not conflated, they are kept up to a capacity and the oldest ones are dropped
+ * and counted once a slow listener lets them pile up. The listener is called from the delivery thread
+ * of the subscription, so it never runs on a thread of the market
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class MarketDataSubscription {
+
+    public static final int DEFAULT_TRADE_CAPACITY = 4096;
+
+    private final MarketDataListener listener;
+    private final int tradeCapacity;
+
+    /**
+     * The feeds the subscription is attached to
+     */
+    private final List<MarketDataFeed> feeds = new CopyOnWriteArrayList<MarketDataFeed>();
+
+    /**
+     * Pending state, guarded by this
+     */
+    private Map<LevelKey, DepthLevel> levels = new LinkedHashMap<LevelKey, DepthLevel>();
+    private Map<String, TopOfBook> tops = new LinkedHashMap<String, TopOfBook>();
+    private ArrayDeque<Trade> trades = new ArrayDeque<Trade>();
+    private long missedTrades;
+
+    private volatile boolean isActive = true;
+    private final Thread deliverer;
+
+    /**
+     * @param listener receives the market data
+     */
+    public MarketDataSubscription(MarketDataListener listener) {
+        this(listener, DEFAULT_TRADE_CAPACITY);
+    }
+
+    /**
+     * @param listener      receives the market data
+     * @param tradeCapacity number of trades that are kept for a slow listener, the older ones are dropped
+     */
+    public MarketDataSubscription(MarketDataListener listener, int tradeCapacity) {
+        if (tradeCapacity < 1) {
+            throw new IllegalArgumentException("The trade capacity of a subscription must be positive");
+        }
+        this.listener = listener;
+        this.tradeCapacity = tradeCapacity;
+        this.deliverer = new Thread(new Runnable() {
+            public void run() {
+                deliver();
+            }
+        }, "MarketDataSubscription deliverer");
+        this.deliverer.setDaemon(true);
+        this.deliverer.start();
+    }
+
+    /**
+     * Detaches the subscription from its feeds and stops the delivery, the pending data is dropped
+     */
+    public void cancel() {
+        this.isActive = false;
+        for (MarketDataFeed feed : this.feeds) {
+            feed.detach(this);
+        }
+        this.feeds.clear();
+        synchronized (this) {
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * @return true until the subscription is cancelled
+     */
+    public boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * @return number of trades that were dropped because the listener was too slow
+     */
+    public synchronized long getMissedTrades() {
+        return missedTrades;
+    }
+
+    void attached(MarketDataFeed feed) {
+        this.feeds.add(feed);
+    }
+
+    synchronized void depth(DepthLevel level) {
+        this.levels.put(new LevelKey(level.getSymbol(), level.isBid(), level.getPriceTicks()), level);
+        this.notifyAll();
+    }
+
+    synchronized void trade(Trade trade) {
+        if (this.trades.size() == this.tradeCapacity) {
+            this.trades.pollFirst();
+            this.missedTrades++;
+        }
+        this.trades.addLast(trade);
+        this.notifyAll();
+    }
+
+    synchronized void topOfBook(TopOfBook top) {
+        this.tops.put(top.getSymbol(), top);
+        this.notifyAll();
+    }
+
+    /**
+     * Loop of the delivery thread, takes the whole pending state at once and hands it to the listener
+     */
+    private void deliver() {
+        while (this.isActive) {
+            List<DepthLevel> pendingLevels;
+            List<Trade> pendingTrades;
+            List<TopOfBook> pendingTops;
+
+            synchronized (this) {
+                while (this.isActive && this.levels.isEmpty() && this.trades.isEmpty() && this.tops.isEmpty()) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!this.isActive) {
+                    return;
+                }
+                pendingLevels = new ArrayList<DepthLevel>(this.levels.values());
+                pendingTrades = new ArrayList<Trade>(this.trades);
+                pendingTops = new ArrayList<TopOfBook>(this.tops.values());
+                this.levels.clear();
+                this.trades.clear();
+                this.tops.clear();
+            }
+
+            try {
+                for (DepthLevel level : pendingLevels) {
+                    this.listener.onDepth(level);
+                }
+                for (Trade trade : pendingTrades) {
+                    this.listener.onTrade(trade);
+                }
+                for (TopOfBook top : pendingTops) {
+                    this.listener.onTopOfBook(top);
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Market data listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Identifies a price level of a side of the book of a symbol
+     */
+    private static final class LevelKey {
+        private final String symbol;
+        private final boolean isBid;
+        private final long priceTicks;
+
+        LevelKey(String symbol, boolean isBid, long priceTicks) {
+            this.symbol = symbol;
+            this.isBid = isBid;
+            this.priceTicks = priceTicks;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LevelKey)) {
+                return false;
+            }
+            LevelKey other = (LevelKey) o;
+            return isBid == other.isBid && priceTicks == other.priceTicks && symbol.equals(other.symbol);
+        }
+
+        @Override
+        public int hashCode() {
+            return (symbol.hashCode() * 31 + (isBid ? 1 : 0)) * 31 + (int) (priceTicks ^ (priceTicks >>> 32));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package stock.core.feed;
+
+/**
+ * Best bid, the highest price of a resting demand, and best ask, the lowest price of a resting supply
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class TopOfBook {
+
+    private final String symbol;
+    private final double bidPrice;
+    private final long bidQuantity;
+    private final double askPrice;
+    private final long askQuantity;
+
+    TopOfBook(String symbol, double bidPrice, long bidQuantity, double askPrice, long askQuantity) {
+        this.symbol = symbol;
+        this.bidPrice = bidPrice;
+        this.bidQuantity = bidQuantity;
+        this.askPrice = askPrice;
+        this.askQuantity = askQuantity;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return true if there is a resting demand
+     */
+    public boolean hasBid() {
+        return bidQuantity > 0;
+    }
+
+    /**
+     * @return true if there is a resting supply
+     */
+    public boolean hasAsk() {
+        return askQuantity > 0;
+    }
+
+    /**
+     * @return the best bid, 0 if there is none
+     */
+    public double getBidPrice() {
+        return bidPrice;
+    }
+
+    public long getBidQuantity() {
+        return bidQuantity;
+    }
+
+    /**
+     * @return the best ask, 0 if there is none
+     */
+    public double getAskPrice() {
+        return askPrice;
+    }
+
+    public long getAskQuantity() {
+        return askQuantity;
+    }
+
+    boolean sameAs(TopOfBook other) {
+        return other != null && bidPrice == other.bidPrice && bidQuantity == other.bidQuantity
+                && askPrice == other.askPrice && askQuantity == other.askQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return "{\"symbol\": " + symbol + ", \"bid\": " + bidQuantity + " @ " + bidPrice + ", \"ask\": " + askQuantity + " @ " + askPrice + "}";
+    }
+}
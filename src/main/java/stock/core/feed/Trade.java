@@ -0,0 +1,69 @@
+package stock.core.feed;
+
+/**
+ * An exchange between a buyer and a seller
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class Trade {
+
+    private final String symbol;
+    private final long timestamp;
+    private final long priceTicks;
+    private final double price;
+    private final int quantity;
+    private final long buyerId;
+    private final long sellerId;
+
+    Trade(String symbol, long timestamp, long priceTicks, double price, int quantity, long buyerId, long sellerId) {
+        this.symbol = symbol;
+        this.timestamp = timestamp;
+        this.priceTicks = priceTicks;
+        this.price = price;
+        this.quantity = quantity;
+        this.buyerId = buyerId;
+        this.sellerId = sellerId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @return participant id of the buyer
+     */
+    public long getBuyerId() {
+        return buyerId;
+    }
+
+    /**
+     * @return participant id of the seller
+     */
+    public long getSellerId() {
+        return sellerId;
+    }
+
+    @Override
+    public String toString() {
+        return "{\"symbol\": " + symbol + ", \"price\": " + price + ", \"quantity\": " + quantity
+                + ", \"buyer\": " + buyerId + ", \"seller\": " + sellerId + "}";
+    }
+}
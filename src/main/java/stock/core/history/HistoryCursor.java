@@ -0,0 +1,86 @@
+package stock.core.history;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the events of a history query one at a time, so a query over the whole history never holds more
+ * than one event. A cursor only covers the records that existed when it was opened
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public abstract class HistoryCursor implements Iterator<HistoryEvent> {
+
+    private HistoryEvent next;
+
+    /**
+     * @return the next event that matches the query, null once there is none
+     */
+    protected abstract HistoryEvent advance();
+
+    /**
+     * @return number of records that were overwritten before the cursor reached them
+     */
+    public abstract long getMissed();
+
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    public HistoryEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        HistoryEvent event = next;
+        next = null;
+        return event;
+    }
+
+    /**
+     * @param size maximum number of events of the page
+     * @return the next events, an empty page once the cursor is exhausted
+     */
+    public List<HistoryEvent> nextPage(int size) {
+        List<HistoryEvent> page = new ArrayList<HistoryEvent>(Math.min(size, 1024));
+        while (page.size() < size && hasNext()) {
+            page.add(next());
+        }
+        return page;
+    }
+
+    /**
+     * @param cursors cursors that are read one after the other
+     * @return a cursor over the events of every cursor
+     */
+    public static HistoryCursor concat(final List<HistoryCursor> cursors) {
+        return new HistoryCursor() {
+            private int current = 0;
+
+            protected HistoryEvent advance() {
+                while (current < cursors.size()) {
+                    HistoryCursor cursor = cursors.get(current);
+                    if (cursor.hasNext()) {
+                        return cursor.next();
+                    }
+                    current++;
+                }
+                return null;
+            }
+
+            public long getMissed() {
+                long missed = 0;
+                for (HistoryCursor cursor : cursors) {
+                    missed += cursor.getMissed();
+                }
+                return missed;
+            }
+        };
+    }
+}
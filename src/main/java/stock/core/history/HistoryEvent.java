@@ -0,0 +1,171 @@
+package stock.core.history;
+
+import stock.models.ParticipantRegistry;
+import stock.models.StockPerson;
+
+/**
+ * A record of the {@link HistoryJournal}, copied out of the ring so it stays valid once the slot is overwritten
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class HistoryEvent {
+
+    private final long sequence;
+    private final HistoryEventType type;
+    private final long timestamp;
+    private final long threadId;
+    private final ParticipantRegistry participants;
+    private final long ownerId;
+    private final long counterpartyId;
+    private final long priceTicks;
+    private final double price;
+    private final int quantity;
+
+    HistoryEvent(long sequence, HistoryEventType type, long timestamp, long threadId, ParticipantRegistry participants,
+                 long ownerId, long counterpartyId, long priceTicks, double price, int quantity) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.threadId = threadId;
+        this.participants = participants;
+        this.ownerId = ownerId;
+        this.counterpartyId = counterpartyId;
+        this.priceTicks = priceTicks;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    /**
+     * @return position of the record in its journal, a query continues after it with {@link HistoryQuery#fromSequence(long)}
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public HistoryEventType getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return id of the thread that recorded the event
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * @return name of the thread that recorded the event, looked up when it is asked for
+     */
+    public String getThreadName() {
+        return HistoryJournal.threadName(threadId);
+    }
+
+    /**
+     * @return id of the buyer or the seller of the order, the buyer of a {@link HistoryEventType#MATCHED} event
+     */
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * @return id of the seller of a {@link HistoryEventType#MATCHED} event, 0 otherwise
+     */
+    public long getCounterpartyId() {
+        return counterpartyId;
+    }
+
+    /**
+     * @return the buyer or the seller of the order, resolved through the registry of the market
+     */
+    public StockPerson getOwner() {
+        return participants.get(ownerId);
+    }
+
+    /**
+     * @return the seller of a {@link HistoryEventType#MATCHED} event, null otherwise
+     */
+    public StockPerson getCounterparty() {
+        return participants.get(counterpartyId);
+    }
+
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @return count of the order, or the exchanged count of a match
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Appends the text of the event, the same way the history was printed before
+     *
+     * @param out where the text is appended
+     */
+    public void appendTo(StringBuilder out) {
+        out.append(timestamp).append(" : ");
+        switch (type) {
+            case SUPPLY_ADDED:
+                out.append(nameOf(ownerId)).append(" with id ").append(ownerId).append(" added a supply :");
+                appendOrder(out);
+                break;
+            case DEMAND_ADDED:
+                out.append(nameOf(ownerId)).append(" with id ").append(ownerId).append(" added a demand :");
+                appendOrder(out);
+                break;
+            case MATCHED:
+                out.append('[').append(getThreadName()).append("]:").append(nameOf(ownerId)).append(" bought ").append(quantity)
+                        .append(" at ").append(price).append(" from ").append(nameOf(counterpartyId));
+                break;
+            case SUPPLY_REMOVED:
+                out.append('[').append(getThreadName()).append("]:");
+                appendOrder(out);
+                out.append(" supply has ben removed");
+                break;
+            case DEMAND_CONSUMED:
+                out.append('[').append(getThreadName()).append("]:");
+                appendOrder(out);
+                out.append(" demand has ben consumed");
+                break;
+            case CANCELLED:
+                out.append('[').append(getThreadName()).append("]:");
+                appendOrder(out);
+                out.append(" order has been cancelled");
+                break;
+            case AMENDED:
+                out.append('[').append(getThreadName()).append("]:");
+                appendOrder(out);
+                out.append(" order has been amended");
+                break;
+        }
+    }
+
+    private void appendOrder(StringBuilder out) {
+        out.append("{\"price\": ").append(price).append(", \"count\": ").append(quantity)
+                .append("\"owner\": ").append(nameOf(ownerId)).append('}');
+    }
+
+    private String nameOf(long participantId) {
+        StockPerson participant = participants.get(participantId);
+        return participant != null ? participant.getName() : "participant " + participantId;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(128);
+        appendTo(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package stock.core.history;
+
+/**
+ * Kinds of events recorded in the {@link HistoryJournal}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public enum HistoryEventType {
+
+    /**
+     * A seller added a supply
+     */
+    SUPPLY_ADDED,
+
+    /**
+     * A buyer added a demand
+     */
+    DEMAND_ADDED,
+
+    /**
+     * A demand bought from a supply
+     */
+    MATCHED,
+
+    /**
+     * A consumed supply was removed from the book
+     */
+    SUPPLY_REMOVED,
+
+    /**
+     * A consumed demand was removed from the book
+     */
+    DEMAND_CONSUMED,
+
+    /**
+     * A resting supply or demand was cancelled, the quantity is what it had left
+     */
+    CANCELLED,
+
+    /**
+     * A resting supply or demand got a new price or count
+     */
+    AMENDED;
+
+    private static final HistoryEventType[] VALUES = values();
+
+    /**
+     * @param ordinal of the type
+     * @return the type with that ordinal, without allocating a new array like values()
+     */
+    static HistoryEventType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,302 @@
+package stock.core.history;
+
+import stock.models.ParticipantRegistry;
+import stock.models.TickSize;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pre-allocated ring of fixed size history records
+ * Every record is a row of primitive columns (event type, timestamp, thread id, owner id, counterparty id,
+ * quantity, price in ticks), so recording an event allocates nothing, takes no lock and keeps no participant
+ * reachable. The text of a record is only built when it is rendered, the participants are resolved through the
+ * {@link ParticipantRegistry} and the name of the thread is looked up then. Once the ring is full the oldest records are overwritten
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class HistoryJournal {
+
+    /**
+     * Records kept by a market, about 3 MB of columns
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Names of the threads that are looked up once the thread is gone, cleared when it holds too many
+     */
+    private static final int THREAD_NAMES_CAPACITY = 4096;
+
+    private static final ConcurrentMap<Long, String> THREAD_NAMES = new ConcurrentHashMap<Long, String>();
+
+    /**
+     * Marks a slot that is being written
+     */
+    private static final long WRITING = -2;
+
+    private final int capacity;
+    private final int mask;
+
+    /**
+     * Converts the recorded ticks back to prices when a record is rendered
+     */
+    private final TickSize tickSize;
+
+    /**
+     * Resolves the recorded ids back to the participants when a record is rendered
+     */
+    private final ParticipantRegistry participants;
+
+    /**
+     * Sequence of the record stored in every slot, -1 if the slot was never written
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * Columns of the records, a writer stores them with release semantics after it marked the slot as being written
+     * and a reader loads them before it checks the sequence of the slot again, so a record that was overwritten
+     * while it was read is always detected
+     */
+    private final AtomicIntegerArray types;
+    private final AtomicLongArray timestamps;
+    private final AtomicLongArray threads;
+    private final AtomicLongArray owners;
+    private final AtomicLongArray counterparties;
+    private final AtomicLongArray prices;
+    private final AtomicIntegerArray quantities;
+
+    /**
+     * Next sequence to be claimed by a writer
+     */
+    private final AtomicLong next = new AtomicLong();
+
+    public HistoryJournal() {
+        this(DEFAULT_CAPACITY, TickSize.DEFAULT, ParticipantRegistry.DEFAULT);
+    }
+
+    /**
+     * @param capacity     number of records that are kept, rounded up to a power of two
+     * @param tickSize     tick size of the recorded prices
+     * @param participants registry that gave the ids of the recorded owners and counterparties
+     */
+    public HistoryJournal(int capacity, TickSize tickSize, ParticipantRegistry participants) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the history must be positive");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.tickSize = tickSize;
+        this.participants = participants;
+        this.published = new AtomicLongArray(size);
+        this.types = new AtomicIntegerArray(size);
+        this.timestamps = new AtomicLongArray(size);
+        this.threads = new AtomicLongArray(size);
+        this.owners = new AtomicLongArray(size);
+        this.counterparties = new AtomicLongArray(size);
+        this.prices = new AtomicLongArray(size);
+        this.quantities = new AtomicIntegerArray(size);
+
+        for (int i = 0; i < size; i++) {
+            this.published.set(i, -1);
+        }
+    }
+
+    /**
+     * Records an event of the current thread
+     *
+     * @param type         of the event
+     * @param owner        id of the buyer or the seller of the order
+     * @param counterparty id of the seller of a {@link HistoryEventType#MATCHED} event, 0 otherwise
+     * @param price        price of the order in ticks
+     * @param quantity     count of the order, or the exchanged count of a match
+     * @return the sequence of the record
+     */
+    public long record(HistoryEventType type, long owner, long counterparty, long price, int quantity) {
+        long sequence = next.getAndIncrement();
+        this.record(sequence, type, owner, counterparty, price, quantity);
+        return sequence;
+    }
+
+    /**
+     * Claims the sequences of a batch of records with a single atomic increment
+     * Every claimed sequence must then be written with {@link #record(long, HistoryEventType, long, long, long, int)}
+     *
+     * @param count number of records of the batch
+     * @return the sequence of the first record of the batch
+     */
+    public long claim(int count) {
+        return next.getAndAdd(count);
+    }
+
+    /**
+     * Records an event of the current thread under a sequence that was claimed before
+     *
+     * @param sequence     claimed by {@link #claim(int)}
+     * @param type         of the event
+     * @param owner        id of the buyer or the seller of the order
+     * @param counterparty id of the seller of a {@link HistoryEventType#MATCHED} event, 0 otherwise
+     * @param price        price of the order in ticks
+     * @param quantity     count of the order, or the exchanged count of a match
+     */
+    public void record(long sequence, HistoryEventType type, long owner, long counterparty, long price, int quantity) {
+        int index = (int) sequence & mask;
+
+        published.set(index, WRITING);
+        // a release store is never seen before the stores that precede it, the mark is always seen first
+        types.lazySet(index, type.ordinal());
+        timestamps.lazySet(index, System.currentTimeMillis());
+        threads.lazySet(index, Thread.currentThread().getId());
+        owners.lazySet(index, owner);
+        counterparties.lazySet(index, counterparty);
+        prices.lazySet(index, price);
+        quantities.lazySet(index, quantity);
+        published.lazySet(index, sequence);
+    }
+
+    /**
+     * @return the sequence that the next record will get
+     */
+    public long head() {
+        return next.get();
+    }
+
+    /**
+     * @return the oldest sequence that can still be rendered
+     */
+    public long tail() {
+        return Math.max(0, next.get() - capacity);
+    }
+
+    /**
+     * @return number of records that are kept
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Appends the text of a record, the same way the history was printed before
+     *
+     * @param sequence of the record
+     * @param out      where the text is appended
+     * @return false if the record was overwritten or is still being written, nothing is appended then
+     */
+    public boolean render(long sequence, StringBuilder out) {
+        HistoryEvent event = read(sequence, null);
+        if (event == null) {
+            return false;
+        }
+        event.appendTo(out);
+        return true;
+    }
+
+    /**
+     * Copies a record out of the ring, the columns are checked against the filter before anything is allocated
+     *
+     * @param sequence of the record
+     * @param filter   the record must match, null for every record
+     * @return the record, null if it does not match the filter, was overwritten or is still being written
+     */
+    HistoryEvent read(long sequence, HistoryQuery filter) {
+        int index = (int) sequence & mask;
+        if (published.get(index) != sequence) {
+            return null;
+        }
+
+        HistoryEventType type = HistoryEventType.of(types.get(index));
+        long timestamp = timestamps.get(index);
+        long thread = threads.get(index);
+        long owner = owners.get(index);
+        long counterparty = counterparties.get(index);
+        long price = prices.get(index);
+        int quantity = quantities.get(index);
+
+        // a writer took the slot over while it was read
+        if (published.get(index) != sequence) {
+            return null;
+        }
+        if (filter != null && !filter.matches(type, timestamp, owner, counterparty)) {
+            return null;
+        }
+        return new HistoryEvent(sequence, type, timestamp, thread, participants, owner, counterparty, price, tickSize.toPrice(price), quantity);
+    }
+
+    /**
+     * Looks the thread up among the live threads the first time its name is rendered, a journal only keeps
+     * the id so it never holds a thread that ended
+     *
+     * @param threadId id of the thread that recorded an event
+     * @return the name of the thread, or its id once the thread is gone before its name was looked up
+     */
+    static String threadName(long threadId) {
+        String name = THREAD_NAMES.get(threadId);
+        if (name != null) {
+            return name;
+        }
+
+        if (THREAD_NAMES.size() >= THREAD_NAMES_CAPACITY) {
+            THREAD_NAMES.clear();
+        }
+        Thread current = Thread.currentThread();
+        if (current.getId() == threadId) {
+            name = current.getName();
+        } else {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getId() == threadId) {
+                    name = thread.getName();
+                    break;
+                }
+            }
+        }
+        if (name == null) {
+            return "thread " + threadId;
+        }
+        THREAD_NAMES.put(threadId, name);
+        return name;
+    }
+
+    /**
+     * Streams the records that match the query, from the oldest one that is still kept
+     * The cursor holds one record at a time and never blocks the writers, the records that are
+     * overwritten before the cursor reaches them are skipped and counted
+     *
+     * @param query filters of the records
+     * @return cursor over the records that were recorded before this call
+     */
+    public HistoryCursor query(HistoryQuery query) {
+        return new JournalCursor(this, query, Math.max(tail(), query.getFromSequence()), head());
+    }
+
+    /**
+     * @param sequence of the record
+     * @return the text of the record or null if it was overwritten
+     */
+    public String render(long sequence) {
+        StringBuilder out = new StringBuilder(128);
+        return render(sequence, out) ? out.toString() : null;
+    }
+
+    /**
+     * @return the text of every record that is still kept, one record per line
+     */
+    public String renderAll() {
+        StringBuilder out = new StringBuilder();
+        long head = head();
+
+        for (long sequence = Math.max(0, head - capacity); sequence < head; sequence++) {
+            if (render(sequence, out)) {
+                out.append('\n');
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package stock.core.history;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filters of a history query, every filter that is not set matches every record
+ * A page of a query is continued by querying again from the sequence after the last returned event
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class HistoryQuery {
+
+    private long fromMillis = Long.MIN_VALUE;
+    private long toMillis = Long.MAX_VALUE;
+    private long participantId = 0;
+    private Set<HistoryEventType> types = EnumSet.allOf(HistoryEventType.class);
+    private String symbol;
+    private long fromSequence = 0;
+
+    /**
+     * @param fromMillis first timestamp of the records, inclusive
+     * @param toMillis   last timestamp of the records, exclusive
+     * @return this instance
+     */
+    public HistoryQuery between(long fromMillis, long toMillis) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        return this;
+    }
+
+    /**
+     * @param participantId id of a buyer or a seller, the records where it is the owner or the counterparty match
+     * @return this instance
+     */
+    public HistoryQuery participant(long participantId) {
+        this.participantId = participantId;
+        return this;
+    }
+
+    /**
+     * @param first  a type of the records
+     * @param others the other types of the records
+     * @return this instance
+     */
+    public HistoryQuery types(HistoryEventType first, HistoryEventType... others) {
+        this.types = EnumSet.of(first, others);
+        return this;
+    }
+
+    /**
+     * Only used by the markets that keep a history per symbol
+     *
+     * @param symbol instrument of the records, null for every instrument
+     * @return this instance
+     */
+    public HistoryQuery symbol(String symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+
+    /**
+     * @param fromSequence first sequence of the records, e.g the sequence after the last event of the previous page
+     * @return this instance
+     */
+    public HistoryQuery fromSequence(long fromSequence) {
+        this.fromSequence = fromSequence;
+        return this;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getFromSequence() {
+        return fromSequence;
+    }
+
+    /**
+     * @param ownerId        id of the owner of the record
+     * @param counterpartyId id of the counterparty of the record, 0 if it has none
+     */
+    boolean matches(HistoryEventType type, long timestamp, long ownerId, long counterpartyId) {
+        if (!types.contains(type) || timestamp < fromMillis || timestamp >= toMillis) {
+            return false;
+        }
+        return participantId == 0 || ownerId == participantId || counterpartyId == participantId;
+    }
+}
@@ -0,0 +1,55 @@
+package stock.core.history;
+
+/**
+ * Cursor over a range of sequences of a {@link HistoryJournal}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class JournalCursor extends HistoryCursor {
+
+    private final HistoryJournal journal;
+    private final HistoryQuery query;
+
+    /**
+     * Next sequence to read and the sequence after the last one of the cursor
+     */
+    private long sequence;
+    private final long end;
+
+    private long missed;
+
+    JournalCursor(HistoryJournal journal, HistoryQuery query, long from, long end) {
+        this.journal = journal;
+        this.query = query;
+        this.sequence = from;
+        this.end = end;
+    }
+
+    protected HistoryEvent advance() {
+        while (sequence < end) {
+            // the writers may have lapped the cursor since the last event
+            long tail = journal.tail();
+            if (sequence < tail) {
+                missed += tail - sequence;
+                sequence = tail;
+                continue;
+            }
+
+            HistoryEvent event = journal.read(sequence, query);
+            sequence++;
+            if (event != null) {
+                return event;
+            }
+            if (sequence - 1 < journal.tail()) {
+                missed++;
+            }
+        }
+        return null;
+    }
+
+    public long getMissed() {
+        return missed;
+    }
+}
@@ -0,0 +1,632 @@
+package stock.core.journal;
+
+import stock.models.Demand;
+import stock.models.StockObject;
+import stock.models.StockPerson;
+import stock.models.Supply;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append only journal of the order events of a stock market
+ * Records are written into memory mapped segment files of a fixed size, so an append is a copy
+ * into the page cache without any system call. An append reserves the room of its record with a CAS
+ * on the reserved position and writes it without a lock, so the appends of the supply side and of the
+ * demand side of a book do not wait for each other. The length of a record is written after its payload,
+ * and the committed position only moves over a record once every record before it is written.
+ * A replay never reads past the committed position, a record with no length ends its segment.
+ * The {@link FlushPolicy} decides when the segments are forced to the disk.
+ * A position in the journal is the segment index times the segment size plus the offset in the segment
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class EventJournal implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+    /**
+     * Type of a record whose append failed after its room was reserved, a replay skips it
+     */
+    static final byte SKIPPED = 0;
+    static final byte SUPPLY = 1;
+    static final byte DEMAND = 2;
+    static final byte FILL = 3;
+    static final byte CANCEL = 4;
+    static final byte AMEND = 5;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final File directory;
+    private final int segmentSize;
+    private final FlushPolicy flushPolicy;
+
+    /**
+     * Segment of the reserved position, it keeps the one before for the appends that reserved their room there
+     */
+    private volatile Segment segment;
+
+    /**
+     * Position up to which the room was handed out to appends
+     */
+    private final AtomicLong reserved = new AtomicLong();
+
+    /**
+     * Position after the last record that is written together with every record before it
+     */
+    private final AtomicLong committed = new AtomicLong();
+
+    /**
+     * Read only mapping of the older segment the last replay read, so a replay that runs at every
+     * snapshot interval does not map the same segment again, guarded by REPLAY_LOCK
+     */
+    private MappedByteBuffer replayed;
+    private int replayedIndex = -1;
+    private final Object REPLAY_LOCK = new Object();
+
+    private Thread flusher;
+    private volatile boolean isOpen = true;
+
+    /**
+     * Opens the journal with 64 MB segments that are forced every 100 ms
+     *
+     * @param directory where the segment files are kept
+     * @throws IOException if the directory or the last segment can not be opened
+     */
+    public EventJournal(File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, FlushPolicy.PERIODIC, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens the journal and continues after the last committed record of the last segment
+     * The segment size of a journal that already has segments is kept
+     *
+     * @param directory           where the segment files are kept
+     * @param segmentSize         size in bytes of a segment file of a new journal
+     * @param flushPolicy         when the segments are forced to the disk
+     * @param flushIntervalMillis interval of {@link FlushPolicy#PERIODIC}
+     * @throws IOException if the directory or the last segment can not be opened
+     */
+    public EventJournal(File directory, int segmentSize, FlushPolicy flushPolicy, final long flushIntervalMillis) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create the journal directory " + directory);
+        }
+        this.directory = directory;
+        this.flushPolicy = flushPolicy;
+
+        int[] segments = segmentIndexes();
+        if (segments.length == 0) {
+            this.segmentSize = segmentSize;
+            this.segment = new Segment(0, map(segmentFile(0), FileChannel.MapMode.READ_WRITE), null);
+        } else {
+            this.segmentSize = (int) segmentFile(segments[0]).length();
+            int last = segments[segments.length - 1];
+            MappedByteBuffer buffer = map(segmentFile(last), FileChannel.MapMode.READ_WRITE);
+            int end = committedEnd(buffer);
+            clear(buffer, end);
+            this.segment = new Segment(last, buffer, null);
+            this.reserved.set((long) last * this.segmentSize + end);
+            this.committed.set(this.reserved.get());
+        }
+
+        if (flushPolicy == FlushPolicy.PERIODIC) {
+            this.flusher = new Thread(new Runnable() {
+                public void run() {
+                    while (isOpen) {
+                        try {
+                            Thread.sleep(flushIntervalMillis);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        flush();
+                    }
+                }
+            }, "EventJournal flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        }
+    }
+
+    /**
+     * @param supply that was accepted in the book, must already have an id
+     */
+    public void appendSupply(Supply supply) {
+        this.appendOrder(SUPPLY, supply);
+    }
+
+    /**
+     * @param demand that was accepted in the book, must already have an id
+     */
+    public void appendDemand(Demand demand) {
+        this.appendOrder(DEMAND, demand);
+    }
+
+    /**
+     * @param supplies that were accepted in the book, must already have ids
+     */
+    public void appendSupplies(Collection<? extends Supply> supplies) {
+        for (Supply supply : supplies) {
+            this.appendOrder(SUPPLY, supply);
+        }
+    }
+
+    /**
+     * @param demands that were accepted in the book, must already have ids
+     */
+    public void appendDemands(Collection<? extends Demand> demands) {
+        for (Demand demand : demands) {
+            this.appendOrder(DEMAND, demand);
+        }
+    }
+
+    /**
+     * @param demand   that bought
+     * @param supply   that was sold
+     * @param quantity exchanged count
+     */
+    public void appendFill(Demand demand, Supply supply, int quantity) {
+        int length = 1 + 8 + 8 + 8 + 4;
+        long start = this.reserve(length);
+        ByteBuffer record = null;
+        boolean isWritten = false;
+        try {
+            record = this.record(start, length);
+            record.put(FILL);
+            record.putLong(System.currentTimeMillis());
+            record.putLong(demand.getId());
+            record.putLong(supply.getId());
+            record.putInt(quantity);
+            isWritten = true;
+        } finally {
+            this.commit(start, length, record, isWritten);
+        }
+    }
+
+    /**
+     * @param orderId id of the supply or demand that was cancelled
+     */
+    public void appendCancel(long orderId) {
+        int length = 1 + 8 + 8;
+        long start = this.reserve(length);
+        ByteBuffer record = null;
+        boolean isWritten = false;
+        try {
+            record = this.record(start, length);
+            record.put(CANCEL);
+            record.putLong(System.currentTimeMillis());
+            record.putLong(orderId);
+            isWritten = true;
+        } finally {
+            this.commit(start, length, record, isWritten);
+        }
+    }
+
+    /**
+     * @param order the supply or demand with its new price and count
+     */
+    public void appendAmend(StockObject order) {
+        int length = 1 + 8 + 8 + 8 + 4;
+        long start = this.reserve(length);
+        ByteBuffer record = null;
+        boolean isWritten = false;
+        try {
+            record = this.record(start, length);
+            record.put(AMEND);
+            record.putLong(System.currentTimeMillis());
+            record.putLong(order.getId());
+            record.putLong(order.getPriceTicks());
+            record.putInt(order.getCount());
+            isWritten = true;
+        } finally {
+            this.commit(start, length, record, isWritten);
+        }
+    }
+
+    /**
+     * @return position after the last committed record
+     */
+    public long position() {
+        return this.committed.get();
+    }
+
+    /**
+     * @return size in bytes of a segment file
+     */
+    public int segmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return directory where the segment files are kept
+     */
+    public File directory() {
+        return directory;
+    }
+
+    /**
+     * Reads every committed record from a position, in the order they were appended
+     * The records that are committed while the replay runs are left to the next replay
+     *
+     * @param from     position of the first record, 0 for the whole journal
+     * @param listener receives the records
+     * @return position after the last replayed record
+     * @throws IOException if a segment can not be read
+     */
+    public long replay(long from, JournalListener listener) throws IOException {
+        long end = this.committed.get();
+        long position = from;
+        while (position < end) {
+            int index = (int) (position / this.segmentSize);
+            long segmentStart = (long) index * this.segmentSize;
+            int limit = (int) Math.min(end - segmentStart, this.segmentSize);
+
+            int offset = this.dispatchCommitted(this.readable(index), (int) (position - segmentStart), limit, listener);
+            // a record with no length before the limit is the rest of a segment that was left for the next one
+            position = offset < limit || limit == this.segmentSize ? segmentStart + this.segmentSize : segmentStart + offset;
+        }
+        return Math.max(from, end);
+    }
+
+    /**
+     * @param buffer   a segment
+     * @param offset   position of the first record to read
+     * @param limit    position in the segment up to which the records are committed
+     * @param listener receives the records
+     * @return position after the last record that was read
+     */
+    private int dispatchCommitted(ByteBuffer buffer, int offset, int limit, JournalListener listener) {
+        int position = offset;
+        while (limit - position >= 4) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > limit - position - 4) {
+                break;
+            }
+            buffer.position(position + 4);
+            this.dispatch(buffer, listener);
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    /**
+     * Forces the current segment, and the one before which appends may still have written to, to the disk
+     */
+    public void flush() {
+        Segment current = this.segment;
+        Segment previous = current.previous;
+        if (previous != null) {
+            previous.buffer.force();
+        }
+        current.buffer.force();
+    }
+
+    /**
+     * Forces the current segment and stops the flusher
+     */
+    public void close() {
+        this.isOpen = false;
+        if (this.flusher != null) {
+            this.flusher.interrupt();
+        }
+        this.flush();
+    }
+
+    private void appendOrder(byte type, StockObject order) {
+        StockPerson owner = order.getOwner();
+        String symbol = order.getSymbol();
+        String name = owner.getName();
+
+        int length = 1 + 8 + 8 + 4 + 2 * symbol.length() + 8 + 4 + 8 + 4 + 2 * name.length();
+        long start = this.reserve(length);
+        ByteBuffer record = null;
+        boolean isWritten = false;
+        try {
+            record = this.record(start, length);
+            record.put(type);
+            record.putLong(System.currentTimeMillis());
+            record.putLong(order.getId());
+            putString(record, symbol);
+            record.putLong(order.getPriceTicks());
+            record.putInt(order.getCount());
+            record.putLong(owner.getId());
+            putString(record, name);
+            isWritten = true;
+        } finally {
+            this.commit(start, length, record, isWritten);
+        }
+    }
+
+    /**
+     * Hands out the room of a record, a record that does not fit in the rest of the segment
+     * leaves that rest empty and takes the start of the next segment
+     *
+     * @param length of the payload of the record
+     * @return position of the record
+     */
+    private long reserve(int length) {
+        if (length + 4 > this.segmentSize) {
+            throw new IllegalArgumentException("A record of " + length + " bytes does not fit in a journal segment");
+        }
+        for (;;) {
+            long start = this.reserved.get();
+            int offset = (int) (start % this.segmentSize);
+            if (offset + length + 4 <= this.segmentSize) {
+                if (this.reserved.compareAndSet(start, start + length + 4)) {
+                    return start;
+                }
+            } else {
+                long next = start - offset + this.segmentSize;
+                if (this.reserved.compareAndSet(start, next)) {
+                    this.publish(start, next);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param start  position of the record
+     * @param length of the payload of the record
+     * @return view of the segment positioned at the payload of the record and limited to it
+     */
+    private ByteBuffer record(long start, int length) {
+        int offset = (int) (start % this.segmentSize);
+        ByteBuffer record = this.writable((int) (start / this.segmentSize)).duplicate();
+        record.limit(offset + 4 + length);
+        record.position(offset + 4);
+        return record;
+    }
+
+    /**
+     * Writes the length of the record and commits it once the records before it are committed
+     * A record whose append failed is committed as skipped, so the appends after it are not held back
+     *
+     * @param start     position of the record
+     * @param length    of the payload of the record
+     * @param record    view of the record, null if its segment could not be opened
+     * @param isWritten false if the append failed
+     */
+    private void commit(long start, int length, ByteBuffer record, boolean isWritten) {
+        if (record != null) {
+            int offset = (int) (start % this.segmentSize);
+            if (!isWritten) {
+                record.put(offset + 4, SKIPPED);
+            }
+            record.putInt(offset, length);
+        }
+        this.publish(start, start + 4 + length);
+        if (this.flushPolicy == FlushPolicy.EVERY_WRITE) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Moves the committed position over a record, after the appends that reserved their room before it
+     * The wait only lasts while such an append copies its record, the atomic write orders the record before the position
+     *
+     * @param start position of the record
+     * @param end   position after the record
+     */
+    private void publish(long start, long end) {
+        while (this.committed.get() != start) {
+            Thread.yield();
+        }
+        this.committed.set(end);
+    }
+
+    private void dispatch(ByteBuffer buffer, JournalListener listener) {
+        byte type = buffer.get();
+        if (type == SKIPPED) {
+            return;
+        }
+        buffer.getLong();
+
+        if (type == FILL) {
+            listener.onFill(buffer.getLong(), buffer.getLong(), buffer.getInt());
+            return;
+        }
+        if (type == CANCEL) {
+            listener.onCancel(buffer.getLong());
+            return;
+        }
+        if (type == AMEND) {
+            listener.onAmend(buffer.getLong(), buffer.getLong(), buffer.getInt());
+            return;
+        }
+
+        long orderId = buffer.getLong();
+        String symbol = getString(buffer);
+        long price = buffer.getLong();
+        int count = buffer.getInt();
+        long ownerId = buffer.getLong();
+        String name = getString(buffer);
+
+        if (type == SUPPLY) {
+            listener.onSupply(orderId, symbol, price, count, name, ownerId);
+        } else if (type == DEMAND) {
+            listener.onDemand(orderId, symbol, price, count, name, ownerId);
+        }
+    }
+
+    /**
+     * @param index of the segment of a reserved record
+     * @return the mapping the record is written to
+     */
+    private MappedByteBuffer writable(int index) {
+        Segment current = this.segment;
+        if (current.index < index) {
+            current = this.roll(index);
+        }
+        for (Segment candidate = current; candidate != null; candidate = candidate.previous) {
+            if (candidate.index == index) {
+                return candidate.buffer;
+            }
+        }
+        // the record was reserved before the segment before the previous one was left
+        try {
+            return map(segmentFile(index), FileChannel.MapMode.READ_WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not open the journal segment " + index, e);
+        }
+    }
+
+    /**
+     * Opens the segments up to an index, the segments that are left are forced
+     *
+     * @param index of the segment of a reserved record
+     * @return the current segment
+     */
+    private synchronized Segment roll(int index) {
+        Segment current = this.segment;
+        try {
+            while (current.index < index) {
+                current.buffer.force();
+                Segment next = new Segment(current.index + 1, map(segmentFile(current.index + 1), FileChannel.MapMode.READ_WRITE), current);
+                current.previous = null;
+                this.segment = next;
+                current = next;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not open the next journal segment", e);
+        }
+        return current;
+    }
+
+    /**
+     * @param index of a segment
+     * @return a view of the segment, the mapping of an older segment is kept for the next replay
+     * @throws IOException if the segment can not be mapped
+     */
+    private ByteBuffer readable(int index) throws IOException {
+        for (Segment candidate = this.segment; candidate != null; candidate = candidate.previous) {
+            if (candidate.index == index) {
+                return candidate.buffer.duplicate();
+            }
+        }
+        synchronized (REPLAY_LOCK) {
+            if (this.replayedIndex != index) {
+                this.replayed = map(segmentFile(index), FileChannel.MapMode.READ_ONLY);
+                this.replayedIndex = index;
+            }
+            return this.replayed.duplicate();
+        }
+    }
+
+    private MappedByteBuffer map(File file, FileChannel.MapMode mode) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw");
+        try {
+            return randomAccessFile.getChannel().map(mode, 0, segmentSize);
+        } finally {
+            // the mapping stays valid after the channel is closed
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @param buffer a segment
+     * @return position after the last committed record of the segment
+     */
+    private static int committedEnd(MappedByteBuffer buffer) {
+        int position = 0;
+        while (buffer.limit() - position >= 4) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.limit() - position - 4) {
+                break;
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    /**
+     * Records written after one whose append never finished were not committed, their bytes are cleared
+     * so a later scan can not take them for records. Only the bytes that are not 0 are written
+     *
+     * @param buffer a segment
+     * @param from   position after the last committed record of the segment
+     */
+    private static void clear(MappedByteBuffer buffer, int from) {
+        for (int position = from; position < buffer.limit(); position++) {
+            if (buffer.get(position) != 0) {
+                buffer.put(position, (byte) 0);
+            }
+        }
+    }
+
+    private File segmentFile(int index) {
+        return new File(directory, String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @return indexes of the existing segment files, sorted
+     */
+    private int[] segmentIndexes() {
+        String[] names = directory.list();
+        if (names == null) {
+            return new int[0];
+        }
+
+        int[] indexes = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                indexes[count++] = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            }
+        }
+        indexes = Arrays.copyOf(indexes, count);
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        buffer.putInt(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        char[] chars = new char[buffer.getInt()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar();
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return "EventJournal " + directory + " [" + flushPolicy + "]";
+    }
+
+    /**
+     * Mapping of a segment that appends write to
+     */
+    private static final class Segment {
+
+        private final int index;
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Segment that was left for this one, dropped once this one is left too
+         */
+        private volatile Segment previous;
+
+        private Segment(int index, MappedByteBuffer buffer, Segment previous) {
+            this.index = index;
+            this.buffer = buffer;
+            this.previous = previous;
+        }
+    }
+}
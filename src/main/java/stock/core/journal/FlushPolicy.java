@@ -0,0 +1,27 @@
+package stock.core.journal;
+
+/**
+ * When the {@link EventJournal} forces its mapped segments to the disk
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public enum FlushPolicy {
+
+    /**
+     * Never forced while running, the operating system writes the pages back on its own.
+     * Survives a crash of the JVM but not a crash of the machine
+     */
+    NONE,
+
+    /**
+     * Forced by a background thread at a fixed interval, the appends never wait for the disk
+     */
+    PERIODIC,
+
+    /**
+     * Forced after every append, every append waits for the disk
+     */
+    EVERY_WRITE
+}
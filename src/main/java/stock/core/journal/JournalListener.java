@@ -0,0 +1,51 @@
+package stock.core.journal;
+
+/**
+ * Receives the records of an {@link EventJournal} while it is replayed
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface JournalListener {
+
+    /**
+     * @param orderId         id of the supply
+     * @param symbol          instrument of the supply
+     * @param price           price of the supply in ticks
+     * @param count           count of the supply when it was added
+     * @param ownerName       name of the seller
+     * @param ownerId         participant id of the seller
+     */
+    void onSupply(long orderId, String symbol, long price, int count, String ownerName, long ownerId);
+
+    /**
+     * @param orderId         id of the demand
+     * @param symbol          instrument of the demand
+     * @param price           price of the demand in ticks
+     * @param count           count of the demand when it was added
+     * @param ownerName       name of the buyer
+     * @param ownerId         participant id of the buyer
+     */
+    void onDemand(long orderId, String symbol, long price, int count, String ownerName, long ownerId);
+
+    /**
+     * @param demandId id of the demand that bought
+     * @param supplyId id of the supply that was sold
+     * @param quantity exchanged count
+     */
+    void onFill(long demandId, long supplyId, int quantity);
+
+    /**
+     * @param orderId id of the supply or demand that was cancelled
+     */
+    void onCancel(long orderId);
+
+    /**
+     * @param orderId id of the supply or demand that was amended
+     * @param price   new price in ticks
+     * @param count   new remaining count
+     */
+    void onAmend(long orderId, long price, int count);
+
+}
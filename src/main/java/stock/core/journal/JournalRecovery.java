@@ -0,0 +1,115 @@
+package stock.core.journal;
+
+import stock.core.market.StockMarket;
+import stock.models.Buyer;
+import stock.models.Demand;
+import stock.models.Seller;
+import stock.models.StockObject;
+import stock.models.StockPerson;
+import stock.models.Supply;
+import stock.models.TickSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the resting supplies and demands of a stock market from an {@link EventJournal}
+ * The latest snapshot is loaded first, if there is one, then only the journal records after it are replayed.
+ * Fills are applied to plain counters while replaying, the orders are only created at the end
+ * for what is left in the book, in arrival order. The buyers and sellers are restored with the participant ids
+ * of the journal, a participant that is already registered with the same id and name is reused
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class JournalRecovery {
+
+    private final StockMarket stockMarket;
+
+    private final RestingOrders state = new RestingOrders();
+
+    private final Map<Long, Seller> sellers = new HashMap<Long, Seller>();
+    private final Map<Long, Buyer> buyers = new HashMap<Long, Buyer>();
+
+    /**
+     * @param stockMarket the market the restored buyers and sellers belong to
+     */
+    public JournalRecovery(StockMarket stockMarket) {
+        this.stockMarket = stockMarket;
+    }
+
+    /**
+     * @param journal     the journal to replay
+     * @param snapshotter the snapshots of the journal, null to replay the whole journal
+     * @return the journal position after the last replayed record
+     * @throws IOException if the journal can not be read
+     */
+    public long recover(EventJournal journal, JournalSnapshotter snapshotter) throws IOException {
+        if (snapshotter != null) {
+            snapshotter.loadLatest(this.state);
+        }
+        this.state.catchUp(journal);
+        return this.state.position();
+    }
+
+    /**
+     * @return the highest order id found in the snapshot and the journal
+     */
+    public long lastOrderId() {
+        return this.state.lastOrderId();
+    }
+
+    /**
+     * @return the supplies and demands that were not consumed, in arrival order, with their journal ids
+     */
+    public List<StockObject> restingOrders() {
+        List<StockObject> resting = new ArrayList<StockObject>();
+        TickSize tickSize = this.stockMarket.getTickSize();
+
+        for (RestingOrders.RestingOrder order : this.state.orders()) {
+            // the journal keeps ticks, the order converts the price back to the same ticks
+            double price = tickSize.toPrice(order.price);
+            StockObject restored;
+            if (order.isDemand) {
+                restored = new Demand(order.symbol, price, order.count, buyer(order.ownerName, order.ownerId));
+            } else {
+                restored = new Supply(order.symbol, price, order.count, seller(order.ownerName, order.ownerId));
+            }
+            restored.setId(order.id);
+            resting.add(restored);
+        }
+        return resting;
+    }
+
+    /**
+     * The seller keeps its journal id unless it already belongs to another participant of the market
+     */
+    private Seller seller(String name, long id) {
+        Seller seller = this.sellers.get(id);
+        if (seller == null) {
+            StockPerson registered = this.stockMarket.getParticipantRegistry().get(id);
+            seller = registered instanceof Seller && registered.getName().equals(name)
+                    ? (Seller) registered : new Seller(name, id, this.stockMarket);
+            this.sellers.put(id, seller);
+        }
+        return seller;
+    }
+
+    /**
+     * The buyer keeps its journal id unless it already belongs to another participant of the market
+     */
+    private Buyer buyer(String name, long id) {
+        Buyer buyer = this.buyers.get(id);
+        if (buyer == null) {
+            StockPerson registered = this.stockMarket.getParticipantRegistry().get(id);
+            buyer = registered instanceof Buyer && registered.getName().equals(name)
+                    ? (Buyer) registered : new Buyer(name, id, this.stockMarket);
+            this.buyers.put(id, buyer);
+        }
+        return buyer;
+    }
+}
@@ -0,0 +1,212 @@
+package stock.core.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes compact binary snapshots of the resting supplies and demands of an {@link EventJournal}
+ * The snapshotter never looks at the live order book, it tails the journal segments in the background
+ * and folds the new records into its own copy of the resting orders, so matching is never stopped.
+ * A snapshot stores the journal position it covers, a recovery loads the latest snapshot
+ * and only replays the journal after that position
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class JournalSnapshotter {
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 60000;
+
+    /**
+     * Changes with the layout of the snapshot, the snapshots of an older layout are skipped
+     */
+    private static final int MAGIC = 0x534e4151;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+
+    /**
+     * Number of snapshots that are kept, the older ones are deleted
+     */
+    private static final int KEPT_SNAPSHOTS = 2;
+
+    private final EventJournal journal;
+    private final File directory;
+    private final long intervalMillis;
+
+    /**
+     * Resting orders up to the last journal position that was folded, guarded by this
+     */
+    private RestingOrders state;
+
+    private Thread worker;
+    private volatile boolean isRunning = false;
+
+    /**
+     * @param journal        the journal that is snapshotted
+     * @param directory      where the snapshot files are kept
+     * @param intervalMillis time between two snapshots
+     */
+    public JournalSnapshotter(EventJournal journal, File directory, long intervalMillis) {
+        this.journal = journal;
+        this.directory = directory;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Starts taking a snapshot every interval, from a background thread
+     */
+    public synchronized void start() {
+        if (this.isRunning) {
+            return;
+        }
+        this.isRunning = true;
+        this.worker = new Thread(new Runnable() {
+            public void run() {
+                while (isRunning) {
+                    try {
+                        Thread.sleep(intervalMillis);
+                        snapshot();
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (IOException e) {
+                        System.out.println("Snapshot of the journal failed: " + e.getMessage());
+                    }
+                }
+            }
+        }, "JournalSnapshotter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Stops the background snapshots, a snapshot that is being written is finished
+     */
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            this.isRunning = false;
+            current = this.worker;
+            this.worker = null;
+        }
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Folds the journal records appended since the last snapshot and writes a new snapshot if there were any
+     *
+     * @return the journal position covered by the latest snapshot
+     * @throws IOException if the journal can not be read or the snapshot can not be written
+     */
+    public synchronized long snapshot() throws IOException {
+        if (this.state == null) {
+            this.state = new RestingOrders();
+            this.loadLatest(this.state);
+        }
+
+        if (this.state.catchUp(this.journal)) {
+            this.write(this.state);
+        }
+        return this.state.position();
+    }
+
+    /**
+     * Loads the latest readable snapshot
+     *
+     * @param into the state that is replaced by the snapshot
+     * @return the journal position covered by the snapshot, 0 if there is none
+     */
+    long loadLatest(RestingOrders into) {
+        File[] snapshots = snapshotFiles();
+
+        for (int i = snapshots.length - 1; i >= 0; i--) {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshots[i])));
+                try {
+                    if (in.readInt() != MAGIC) {
+                        continue;
+                    }
+                    into.readFrom(in);
+                    return into.position();
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                System.out.println("Skipping the unreadable snapshot " + snapshots[i] + ": " + e.getMessage());
+            }
+        }
+
+        into.position(0);
+        return 0;
+    }
+
+    /**
+     * Writes the snapshot next to the previous ones, under a temporary name that is renamed once it is on disk
+     */
+    private void write(RestingOrders orders) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create the snapshot directory " + directory);
+        }
+
+        String name = String.format("%s%016x%s", SNAPSHOT_PREFIX, orders.position(), SNAPSHOT_SUFFIX);
+        File temporary = new File(directory, name + ".tmp");
+
+        FileOutputStream file = new FileOutputStream(temporary);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+            out.writeInt(MAGIC);
+            orders.writeTo(out);
+            out.flush();
+            file.getFD().sync();
+        } finally {
+            file.close();
+        }
+
+        if (!temporary.renameTo(new File(directory, name))) {
+            throw new IOException("Can not rename the snapshot " + temporary);
+        }
+
+        File[] snapshots = snapshotFiles();
+        for (int i = 0; i < snapshots.length - KEPT_SNAPSHOTS; i++) {
+            if (!snapshots[i].delete()) {
+                System.out.println("Can not delete the old snapshot " + snapshots[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the snapshot files, oldest first
+     */
+    private File[] snapshotFiles() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+
+        File[] snapshots = new File[files.length];
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().startsWith(SNAPSHOT_PREFIX) && file.getName().endsWith(SNAPSHOT_SUFFIX)) {
+                snapshots[count++] = file;
+            }
+        }
+        snapshots = Arrays.copyOf(snapshots, count);
+        // the position is written with a fixed number of hex digits, so the names sort by position
+        Arrays.sort(snapshots);
+        return snapshots;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalSnapshotter " + directory + " [every " + intervalMillis + " ms]";
+    }
+}
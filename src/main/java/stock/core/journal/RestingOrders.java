@@ -0,0 +1,170 @@
+package stock.core.journal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact state of the orders that are still resting in the book, folded from journal records
+ * Fills only decrement counters, an order disappears once it was entirely consumed
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class RestingOrders implements JournalListener {
+
+    private final Map<Long, RestingOrder> orders = new LinkedHashMap<Long, RestingOrder>();
+
+    private long lastOrderId;
+
+    /**
+     * Journal position after the last folded record
+     */
+    private long position;
+
+    public void onSupply(long orderId, String symbol, long price, int count, String ownerName, long ownerId) {
+        this.add(new RestingOrder(false, orderId, symbol, price, count, ownerName, ownerId));
+    }
+
+    public void onDemand(long orderId, String symbol, long price, int count, String ownerName, long ownerId) {
+        this.add(new RestingOrder(true, orderId, symbol, price, count, ownerName, ownerId));
+    }
+
+    public void onFill(long demandId, long supplyId, int quantity) {
+        this.consume(demandId, quantity);
+        this.consume(supplyId, quantity);
+    }
+
+    public void onCancel(long orderId) {
+        this.orders.remove(orderId);
+    }
+
+    public void onAmend(long orderId, long price, int count) {
+        RestingOrder order = this.orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        if (count <= 0) {
+            this.orders.remove(orderId);
+        } else if (price == order.price && count <= order.count) {
+            // a smaller count keeps the place of the order, like in the book
+            order.count = count;
+        } else {
+            this.orders.remove(orderId);
+            this.orders.put(orderId, new RestingOrder(order.isDemand, orderId, order.symbol, price, count, order.ownerName, order.ownerId));
+        }
+    }
+
+    /**
+     * @return the resting orders in arrival order
+     */
+    Collection<RestingOrder> orders() {
+        return orders.values();
+    }
+
+    long lastOrderId() {
+        return lastOrderId;
+    }
+
+    long position() {
+        return position;
+    }
+
+    void position(long position) {
+        this.position = position;
+    }
+
+    /**
+     * Folds the records appended since the last call
+     *
+     * @param journal the journal to read
+     * @return true if there was at least one new record
+     * @throws IOException if a segment can not be read
+     */
+    boolean catchUp(EventJournal journal) throws IOException {
+        long end = journal.replay(this.position, this);
+        boolean changed = end != this.position;
+        this.position = end;
+        return changed;
+    }
+
+    /**
+     * @param out where the orders are written, after the journal position and the last order id
+     * @throws IOException if the stream can not be written
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(position);
+        out.writeLong(lastOrderId);
+        out.writeInt(orders.size());
+
+        for (RestingOrder order : orders.values()) {
+            out.writeBoolean(order.isDemand);
+            out.writeLong(order.id);
+            out.writeUTF(order.symbol);
+            out.writeLong(order.price);
+            out.writeInt(order.count);
+            out.writeUTF(order.ownerName);
+            out.writeLong(order.ownerId);
+        }
+    }
+
+    /**
+     * Replaces the state with the one written by {@link #writeTo(DataOutputStream)}
+     *
+     * @param in where the orders are read from
+     * @throws IOException if the stream can not be read
+     */
+    void readFrom(DataInputStream in) throws IOException {
+        orders.clear();
+        position = in.readLong();
+        lastOrderId = in.readLong();
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            this.add(new RestingOrder(in.readBoolean(), in.readLong(), in.readUTF(), in.readLong(), in.readInt(), in.readUTF(), in.readLong()));
+        }
+    }
+
+    private void add(RestingOrder order) {
+        this.orders.put(order.id, order);
+        this.lastOrderId = Math.max(this.lastOrderId, order.id);
+    }
+
+    private void consume(long orderId, int quantity) {
+        RestingOrder order = this.orders.get(orderId);
+        if (order == null) {
+            return;
+        }
+        order.count -= quantity;
+        if (order.count <= 0) {
+            this.orders.remove(orderId);
+        }
+    }
+
+    /**
+     * What the journal says about an order that was not consumed yet
+     */
+    static class RestingOrder {
+        final boolean isDemand;
+        final long id;
+        final String symbol;
+        final long price;
+        int count;
+        final String ownerName;
+        final long ownerId;
+
+        RestingOrder(boolean isDemand, long id, String symbol, long price, int count, String ownerName, long ownerId) {
+            this.isDemand = isDemand;
+            this.id = id;
+            this.symbol = symbol;
+            this.price = price;
+            this.count = count;
+            this.ownerName = ownerName;
+            this.ownerId = ownerId;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package stock.core.log;
+
+import stock.core.history.HistoryJournal;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runtime logger of the history of one or more stock markets
+ * The markets only record their events in their {@link HistoryJournal}, which already is a lock free ring,
+ * and tell their {@link Tail} the sequence of the record. A single writer thread follows the journals,
+ * renders the records and hands them to the {@link LogSink} in batches, so no matching thread ever waits
+ * for the console. What happens when the writer falls behind is decided by the {@link OverflowPolicy}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class AsyncHistoryLogger {
+
+    /**
+     * Number of records the writer may be behind a journal before the overflow policy applies
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * The {@link OverflowPolicy#SAMPLE} policy writes one record out of this many while the writer is behind
+     */
+    public static final int SAMPLE_RATE = 16;
+
+    /**
+     * Maximum number of records of a journal in one batch, so a busy journal does not starve the others
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    private static final long PARK_NANOS = 100000;
+
+    private final Object TAILS_LOCK = new Object();
+
+    private final LogSink sink;
+    private final OverflowPolicy policy;
+    private final int capacity;
+
+    /**
+     * Journals that are followed, the writer is started with the first one and stopped with the last one
+     */
+    private final List<Tail> tails = new CopyOnWriteArrayList<Tail>();
+
+    /**
+     * Guarded by TAILS_LOCK
+     */
+    private Thread writer;
+
+    private volatile boolean isRunning = false;
+    private volatile boolean isParked = false;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+
+    /**
+     * Logger that prints on the console and drops records when the console can not keep up
+     */
+    public AsyncHistoryLogger() {
+        this(new ConsoleLogSink(), OverflowPolicy.DROP, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param sink     destination of the rendered records
+     * @param policy   what happens when the writer is more than the capacity behind a journal
+     * @param capacity number of records the writer may be behind a journal, at most the capacity of the journal
+     */
+    public AsyncHistoryLogger(LogSink sink, OverflowPolicy policy, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the logger must be positive");
+        }
+        this.sink = sink;
+        this.policy = policy;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Follows a journal from its current head, the writer thread is started if it is the first one
+     *
+     * @param history journal of a market that is starting
+     * @return the tail the market tells about every record
+     */
+    public Tail open(HistoryJournal history) {
+        Tail tail = new Tail(history, Math.min(this.capacity, history.capacity()));
+        synchronized (TAILS_LOCK) {
+            this.tails.add(tail);
+            if (this.writer == null) {
+                this.isRunning = true;
+                this.writer = new Thread(new Runnable() {
+                    public void run() {
+                        write();
+                    }
+                }, "AsyncHistoryLogger writer");
+                this.writer.setDaemon(true);
+                this.writer.start();
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Writes what is left of the journal of the tail and stops following it,
+     * the writer thread is stopped once no journal is followed anymore
+     *
+     * @param tail returned by {@link #open(HistoryJournal)} when the market started
+     */
+    public void close(Tail tail) {
+        tail.end = tail.history.head();
+        tail.isClosed = true;
+        this.wake();
+
+        synchronized (TAILS_LOCK) {
+            while (this.tails.contains(tail) && this.writer != null && this.writer.isAlive()) {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            if (this.tails.isEmpty() && this.writer != null) {
+                this.isRunning = false;
+                LockSupport.unpark(this.writer);
+                try {
+                    this.writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                this.writer = null;
+            }
+        }
+    }
+
+    /**
+     * @return number of records that were handed to the sink
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return number of records that were skipped because the writer was too far behind
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return number of records that were left out by the {@link OverflowPolicy#SAMPLE} policy
+     */
+    public long getSampled() {
+        return sampled.get();
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Loop of the writer thread
+     * Spins while there is work, then backs off to yielding and parking until a market wakes it up
+     */
+    private void write() {
+        StringBuilder out = new StringBuilder(128 * BATCH_SIZE);
+        int idle = 0;
+
+        while (this.isRunning) {
+            if (this.writeBatches(out) > 0) {
+                idle = 0;
+            } else if (++idle < 100) {
+                Thread.yield();
+            } else {
+                this.isParked = true;
+                LockSupport.parkNanos(PARK_NANOS);
+                this.isParked = false;
+            }
+        }
+        this.writeBatches(out);
+    }
+
+    /**
+     * @param out reused buffer of the batch
+     * @return number of records that were consumed from the journals
+     */
+    private int writeBatches(StringBuilder out) {
+        int consumed = 0;
+        for (Tail tail : this.tails) {
+            consumed += tail.drain(out);
+            if (tail.isClosed && tail.position >= tail.end) {
+                this.tails.remove(tail);
+            }
+            if (out.length() > 0) {
+                try {
+                    this.sink.write(out);
+                } catch (RuntimeException e) {
+                    System.out.println("History logger failed to write a batch: " + e.getMessage());
+                }
+                out.setLength(0);
+            }
+        }
+        return consumed;
+    }
+
+    private void wake() {
+        if (this.isParked) {
+            Thread current = this.writer;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+
+    /**
+     * Position of the writer in the journal of one market
+     */
+    public final class Tail {
+
+        private final HistoryJournal history;
+        private final int capacity;
+
+        /**
+         * Next sequence to be written, only changed by the writer thread
+         */
+        private volatile long position;
+
+        private volatile boolean isClosed = false;
+
+        /**
+         * Head of the journal when the tail was closed
+         */
+        private volatile long end;
+
+        private Tail(HistoryJournal history, int capacity) {
+            this.history = history;
+            this.capacity = capacity;
+            this.position = history.head();
+        }
+
+        /**
+         * Called by the market after it recorded an event, waits for the writer under the {@link OverflowPolicy#BLOCK} policy
+         *
+         * @param sequence of the record, the last one of a batch of records
+         */
+        public void recorded(long sequence) {
+            if (policy == OverflowPolicy.BLOCK) {
+                while (sequence - this.position >= this.capacity && !this.isClosed && isRunning) {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+            wake();
+        }
+
+        /**
+         * Writer thread only
+         *
+         * @param out where the records are rendered
+         * @return number of records that were consumed, written or not
+         */
+        private int drain(StringBuilder out) {
+            long head = this.history.head();
+            long start = this.position;
+            long next = start;
+
+            if (head - next > this.capacity && policy != OverflowPolicy.BLOCK) {
+                long skipped = head - this.capacity - next;
+                dropped.addAndGet(skipped);
+                out.append(skipped).append(" history records were dropped").append(System.lineSeparator());
+                next = head - this.capacity;
+            }
+
+            boolean isSampling = policy == OverflowPolicy.SAMPLE && head - next > this.capacity / 2;
+            int batch = 0;
+            while (next < head && batch < BATCH_SIZE) {
+                if (isSampling && next % SAMPLE_RATE != 0) {
+                    sampled.incrementAndGet();
+                    next++;
+                    continue;
+                }
+                if (this.history.render(next, out)) {
+                    out.append(System.lineSeparator());
+                    written.incrementAndGet();
+                    batch++;
+                } else if (next >= this.history.tail()) {
+                    // the record is still being written, it is taken in the next batch
+                    break;
+                } else {
+                    dropped.incrementAndGet();
+                }
+                next++;
+            }
+
+            this.position = next;
+            return (int) (next - start);
+        }
+    }
+}
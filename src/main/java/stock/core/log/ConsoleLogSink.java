@@ -0,0 +1,16 @@
+package stock.core.log;
+
+/**
+ * {@link LogSink} that prints the batches on the standard output, the same lines the runtime logger always printed
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class ConsoleLogSink implements LogSink {
+
+    public void write(CharSequence lines) {
+        System.out.print(lines);
+    }
+
+}
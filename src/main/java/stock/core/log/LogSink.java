@@ -0,0 +1,18 @@
+package stock.core.log;
+
+/**
+ * Destination of the lines of the {@link AsyncHistoryLogger}, e.g the console or a file
+ * Only called by the writer thread of the logger, so an implementation does not need to be thread safe
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface LogSink {
+
+    /**
+     * @param lines a batch of rendered history records, every line ends with a line separator
+     */
+    void write(CharSequence lines);
+
+}
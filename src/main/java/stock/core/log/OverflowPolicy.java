@@ -0,0 +1,39 @@
+package stock.core.log;
+
+/**
+ * What the {@link AsyncHistoryLogger} does when its writer is more than its capacity behind the history
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The writer skips the oldest records it did not write yet and logs how many it skipped,
+     * the market never waits for the log
+     */
+    DROP,
+
+    /**
+     * The thread that records an event waits until the writer caught up, no line is lost
+     */
+    BLOCK,
+
+    /**
+     * Once the writer is half its capacity behind, it only writes one record out of {@link AsyncHistoryLogger#SAMPLE_RATE}
+     * until it caught up, and drops like {@link #DROP} if it is still too slow
+     */
+    SAMPLE;
+
+    /**
+     * @param name case insensitive name of the policy, e.g "block"
+     * @return the policy with that name or {@link #DROP} if the name is null
+     */
+    public static OverflowPolicy fromName(String name) {
+        if (name == null) {
+            return DROP;
+        }
+        return OverflowPolicy.valueOf(name.trim().toUpperCase());
+    }
+}
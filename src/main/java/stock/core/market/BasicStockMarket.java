@@ -1,20 +1,50 @@
 package stock.core.market;
 
 import com.sun.istack.internal.NotNull;
+import stock.core.book.OrderBook;
+import stock.core.feed.MarketDataFeed;
+import stock.core.feed.MarketDataSubscription;
+import stock.core.history.HistoryCursor;
+import stock.core.history.HistoryEventType;
+import stock.core.history.HistoryJournal;
+import stock.core.history.HistoryQuery;
+import stock.core.journal.EventJournal;
+import stock.core.journal.JournalRecovery;
+import stock.core.journal.JournalSnapshotter;
+import stock.core.log.AsyncHistoryLogger;
+import stock.core.settlement.SettlementLedger;
+import stock.core.metrics.MarketMetrics;
 import stock.core.pool.ThreadPool;
 import stock.exceptions.StockMarketAlreadyRunningException;
 import stock.exceptions.StockMarketAlreadyStoppedException;
+import stock.exceptions.StockMarketOverloadedException;
 import stock.models.Demand;
+import stock.models.OrderPool;
+import stock.models.ParticipantRegistry;
+import stock.models.StockObject;
+import stock.models.StockPerson;
 import stock.models.Supply;
+import stock.models.TickSize;
 
-import java.sql.Timestamp;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Basic {@link StockMarket} implementation
  * This class will have a record of all the demands and supplies that are
- * being entered by the Buyers/Sellers
+ * being entered by the Buyers/Sellers. Every new order schedules one matching task,
+ * an order that can not be matched rests in the book until a matching order arrives.
+ * An order holds a place in a bounded {@link OrderIntake} until its matching task is done,
+ * so a burst of orders can not queue more tasks than the intake has places
  *
  * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
  * @version 0.0.4
@@ -23,15 +53,91 @@ import java.util.List;
 public class BasicStockMarket implements StockMarket {
 
     private final Object SUPPLY_LOCK = new Object();
-    private final Object HISTORY_LOCK = new Object();
     private final Object DEMAND_LOCK = new Object();
 
+    private final Object HISTORY_LOCK = new Object();
+
+    /**
+     * Binary records of all the actions that took place in the runtime, rendered to text on demand,
+     * allocated by {@link #history()} once the tick size and the capacity are known
+     */
+    private volatile HistoryJournal history;
+
+    /**
+     * Number of history records that are kept
+     */
+    private int historyCapacity = HistoryJournal.DEFAULT_CAPACITY;
+
+    /**
+     * Smallest price increment, the book and the history only see prices in ticks
+     */
+    private TickSize tickSize = TickSize.DEFAULT;
+
+    /**
+     * Resting supplies and demands, the supply side is guarded by SUPPLY_LOCK and the demand side by DEMAND_LOCK
+     */
+    private OrderBook orderBook;
+
+    /**
+     * Tickets of the submitted orders that were not entirely consumed yet, by order id
+     * A book may hand out views of its orders instead of the objects they were added with
+     */
+    private final Map<Long, OrderTicket> tickets = new ConcurrentHashMap<Long, OrderTicket>();
+
+    /**
+     * Source of the ids given to the accepted orders, may be shared with other markets so the ids stay unique
+     */
+    private AtomicLong lastOrderId = new AtomicLong();
+
+    /**
+     * Shard of every resting order of a sharded market by id, null if the market is not a shard
+     */
+    private Map<Long, StockMarket> orderShards;
+
     /**
-     * List of strings to see all the actions that took place in the runtime
+     * Counters, histograms and lock wait times, null if the market is not measured
      */
-    private List<String> history = new ArrayList<String>();
-    private List<Supply> supplies = new ArrayList<Supply>();
-    private List<Demand> demands = new ArrayList<Demand>();
+    private MarketMetrics metrics;
+
+    /**
+     * Bounds the orders that were accepted and are not matched yet
+     */
+    private OrderIntake intake = new OrderIntake();
+
+    /**
+     * Takes back the pooled orders that were removed from the book
+     */
+    private final OrderPool orderPool = new OrderPool();
+
+    /**
+     * Gives the ids of the buyers and sellers of the market
+     */
+    private ParticipantRegistry participantRegistry = new ParticipantRegistry();
+
+    /**
+     * Cash and positions of the buyers and sellers of the market, changed on every fill
+     */
+    private SettlementLedger settlementLedger = new SettlementLedger();
+
+    /**
+     * Incremental market data of the book
+     */
+    private MarketDataFeed marketDataFeed = new MarketDataFeed(StockObject.DEFAULT_SYMBOL);
+
+    /**
+     * Persistent journal of the order events, null if the market only lives in memory
+     */
+    private EventJournal journal;
+
+    /**
+     * Takes snapshots of the journal in the background, null to always replay the whole journal
+     */
+    private JournalSnapshotter snapshotter;
+
+    /**
+     * Flag set once the book was rebuilt from the journal
+     */
+    private boolean isRecovered = false;
 
     /**
      * Flag that starts the matching of new demands with existing supplies
@@ -43,11 +149,31 @@ public class BasicStockMarket implements StockMarket {
      */
     private boolean enabledLogger = false;
 
+    /**
+     * Writes the history on its own thread while the runtime logger is enabled, created on the first run if not set
+     */
+    private AsyncHistoryLogger historyLogger;
+
+    /**
+     * Position of the history logger in the history, set while the market is running with the logger enabled
+     */
+    private volatile AsyncHistoryLogger.Tail historyTail;
+
     /**
      * Thread pool used to schedule tasks on the stock market
      */
     private ThreadPool threadPool;
 
+    /**
+     * Flag set if the thread pool is started and shut down with the market, false if it is shared with other markets
+     */
+    private boolean ownsThreadPool = true;
+
+    /**
+     * Flag set if the intake only bounds the orders of this market, false if it is shared with other markets
+     */
+    private boolean ownsIntake = true;
+
     /**
      * Method to enable runtime logs
      *
@@ -57,46 +183,707 @@ public class BasicStockMarket implements StockMarket {
         this.enabledLogger = enabledLogger;
     }
 
+    /**
+     * Must be called before the market is running
+     *
+     * @param historyLogger writes the history of the market while the runtime logger is enabled, e.g shared by the shards of a market
+     */
+    public void setHistoryLogger(AsyncHistoryLogger historyLogger) {
+        this.historyLogger = historyLogger;
+    }
+
     /**
      * @param threadPool underlying thread pool used by the stock market
      */
     public void setThreadPool(ThreadPool threadPool) {
         this.threadPool = threadPool;
+        if (this.metrics != null) {
+            this.metrics.setThreadPool(threadPool);
+        }
+    }
+
+    /**
+     * @param metrics where the activity of the market is measured, null to measure nothing
+     */
+    public void setMetrics(MarketMetrics metrics) {
+        this.metrics = metrics;
+        if (this.ownsIntake) {
+            this.intake.setMetrics(metrics);
+        }
+        if (metrics != null) {
+            metrics.setThreadPool(this.threadPool);
+        }
+    }
+
+    /**
+     * @return the metrics of the market, null if it is not measured
+     */
+    public MarketMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param capacity    maximum number of accepted orders that are not matched yet
+     * @param policy      what happens to an order that finds the intake full
+     * @param blockMillis longest wait of the caller under the {@link OverloadPolicy#BLOCK} policy
+     */
+    public void setIntake(int capacity, OverloadPolicy policy, long blockMillis) {
+        this.intake = new OrderIntake(capacity, policy, blockMillis);
+        this.intake.setMetrics(this.metrics);
+        this.ownsIntake = true;
+    }
+
+    /**
+     * Bounds the orders of this market together with the ones of the other markets that share the thread pool,
+     * so all of them can not queue more tasks than the pool has room for. A shared intake is not measured
+     * by the metrics of this market. Must be called before the first order
+     *
+     * @param intake shared by the markets of one thread pool
+     */
+    void setIntake(OrderIntake intake) {
+        this.intake = intake;
+        this.ownsIntake = false;
+    }
+
+    /**
+     * @return number of accepted orders whose first matching is not done yet
+     */
+    public int getIntakeDepth() {
+        return this.intake.depth();
+    }
+
+    /**
+     * @param ownsThreadPool false if the thread pool is shared and started and shut down by someone else
+     */
+    public void setOwnsThreadPool(boolean ownsThreadPool) {
+        this.ownsThreadPool = ownsThreadPool;
+    }
+
+    /**
+     * Must be called before the market is running
+     *
+     * @param historyCapacity number of history records that are kept
+     */
+    public void setHistoryCapacity(int historyCapacity) {
+        if (historyCapacity < 1) {
+            throw new IllegalArgumentException("The capacity of the history must be positive");
+        }
+        this.historyCapacity = historyCapacity;
+    }
+
+    /**
+     * Must be called before the first order is created for the market
+     *
+     * @param tickSize smallest price increment of the market
+     */
+    public void setTickSize(TickSize tickSize) {
+        this.tickSize = tickSize;
+        this.marketDataFeed.setTickSize(tickSize);
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param marketDataFeed incremental market data of the book, e.g of the symbol of a shard
+     */
+    public void setMarketDataFeed(MarketDataFeed marketDataFeed) {
+        this.marketDataFeed = marketDataFeed;
+        this.marketDataFeed.setTickSize(this.tickSize);
+    }
+
+    /**
+     * @return the smallest price increment of the market
+     */
+    public TickSize getTickSize() {
+        return tickSize;
+    }
+
+    /**
+     * @return the pool of the orders of this market
+     */
+    public OrderPool getOrderPool() {
+        return orderPool;
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param lastOrderId source of the order ids, e.g shared by the shards of a market so an id names a single order
+     */
+    public void setOrderIds(AtomicLong lastOrderId) {
+        this.lastOrderId = lastOrderId;
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param orderShards where the shard records the ids of its resting orders, so a cancel by id goes
+     *                    to the right shard right away, shared by the shards of a market
+     */
+    public void setOrderShards(Map<Long, StockMarket> orderShards) {
+        this.orderShards = orderShards;
+    }
+
+    /**
+     * Must be called before the first participant is created
+     *
+     * @param participantRegistry gives the ids of the buyers and sellers of the market
+     */
+    public void setParticipantRegistry(ParticipantRegistry participantRegistry) {
+        this.participantRegistry = participantRegistry;
+    }
+
+    /**
+     * @return the registry of the buyers and sellers of the market
+     */
+    public ParticipantRegistry getParticipantRegistry() {
+        return participantRegistry;
+    }
+
+    /**
+     * Must be called before the first participant is created
+     *
+     * @param settlementLedger settles the fills of the market, e.g shared with other markets
+     */
+    public void setSettlementLedger(SettlementLedger settlementLedger) {
+        this.settlementLedger = settlementLedger;
+    }
+
+    /**
+     * @return the ledger the fills of the market are settled in
+     */
+    public SettlementLedger getSettlementLedger() {
+        return settlementLedger;
+    }
+
+    /**
+     * Must be called before the market is running
+     *
+     * @param journal where the order events are persisted and replayed from on the first run
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Must be called before the market is running, only used together with a journal
+     *
+     * @param snapshotter takes snapshots of the journal while running, the recovery starts from the latest one
+     */
+    public void setSnapshotter(JournalSnapshotter snapshotter) {
+        this.snapshotter = snapshotter;
+    }
+
+    /**
+     * @param orderBook the book that stores the resting supplies and demands
+     */
+    public void setOrderBook(OrderBook orderBook) {
+        this.orderBook = orderBook;
     }
 
     /**
      * Adding a new Supply in the StockMarket
+     * The supply takes a place in the intake and is matched with the resting demands on the thread pool
      *
      * @param supply added by the seller
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the intake is full
      */
     public void addSupply(@NotNull Supply supply) {
+        try {
+            this.admit(supply, false);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        try {
+            this.enterSupply(supply, null);
+        } catch (RuntimeException e) {
+            this.intake.release(1);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts an admitted supply in the book and schedules its matching, the matching gives the place in the intake back
+     *
+     * @param supply added by the seller
+     * @param ticket of the supply, null if it was added directly
+     */
+    private void enterSupply(@NotNull final Supply supply, OrderTicket ticket) {
+        supply.setId(this.lastOrderId.incrementAndGet());
+        this.indexed(supply.getId());
+        if (ticket != null) {
+            this.tickets.put(supply.getId(), ticket);
+        }
+        // taken before the supply is in the book, it can be consumed and released as soon as it is there
+        final int generation = supply.getGeneration();
+        StockPerson owner = supply.getOwner();
+        long price = supply.getPriceTicks();
+        int count = supply.getCount();
+        long requested = this.lockRequested();
         synchronized (SUPPLY_LOCK) {
-            supplies.add(supply);
+            this.lockAcquired(SUPPLY_LOCK, requested);
+            this.orderBook.addSupply(supply);
+            this.marketDataFeed.levelChanged(this.orderBook, false, price);
+            if (this.journal != null) {
+                this.journal.appendSupply(supply);
+            }
         }
-        this.updateHistory(supply.getOwner().getName() + " with id " + supply.getOwner().getIdentifier() + " added a supply :" + supply.toString());
+        if (this.metrics != null) {
+            this.metrics.supplyAdded();
+        }
+        this.updateHistory(HistoryEventType.SUPPLY_ADDED, owner, null, price, count);
 
+        this.threadPool.execute(new Runnable() {
+            public void run() {
+                long start = metrics != null ? System.nanoTime() : 0;
+                try {
+                    matchSupplyWithDemand(supply, generation);
+                } finally {
+                    matchingEnded(supply, generation);
+                    intake.release(1);
+                }
+                if (metrics != null) {
+                    metrics.matched(System.nanoTime() - start);
+                }
+            }
+        });
     }
 
     /**
      * Adding a new demand in the StockMarket
+     * The demand takes a place in the intake and is matched with the resting supplies on the thread pool
      *
      * @param demand added by the buyer
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the intake is full
+     */
+    public void addDemand(@NotNull Demand demand) {
+        try {
+            this.admit(demand, true);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        try {
+            this.enterDemand(demand, null);
+        } catch (RuntimeException e) {
+            this.intake.release(1);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts an admitted demand in the book and schedules its matching, the matching gives the place in the intake back
+     *
+     * @param demand added by the buyer
+     * @param ticket of the demand, null if it was added directly
+     */
+    private void enterDemand(@NotNull final Demand demand, OrderTicket ticket) {
+        demand.setId(this.lastOrderId.incrementAndGet());
+        this.indexed(demand.getId());
+        if (ticket != null) {
+            this.tickets.put(demand.getId(), ticket);
+        }
+        // taken before the demand is in the book, it can be consumed and released as soon as it is there
+        final int generation = demand.getGeneration();
+        StockPerson owner = demand.getOwner();
+        long price = demand.getPriceTicks();
+        int count = demand.getCount();
+        long requested = this.lockRequested();
+        synchronized (DEMAND_LOCK) {
+            this.lockAcquired(DEMAND_LOCK, requested);
+            this.orderBook.addDemand(demand);
+            this.marketDataFeed.levelChanged(this.orderBook, true, price);
+            if (this.journal != null) {
+                this.journal.appendDemand(demand);
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.demandAdded();
+        }
+        this.updateHistory(HistoryEventType.DEMAND_ADDED, owner, null, price, count);
+
+        this.threadPool.execute(new Runnable() {
+            public void run() {
+                long start = metrics != null ? System.nanoTime() : 0;
+                try {
+                    matchDemandWithSupply(demand, generation);
+                } finally {
+                    matchingEnded(demand, generation);
+                    intake.release(1);
+                }
+                if (metrics != null) {
+                    metrics.matched(System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a batch of supplies while holding SUPPLY_LOCK once
+     * The ids of the batch are taken with one increment, the history is written with one claim
+     * and the whole batch is matched by a single task of the thread pool, in the order of the batch
+     *
+     * @param supplies added by the sellers
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the batch does not fit in the intake
+     */
+    public void addSupplies(@NotNull Collection<? extends Supply> supplies) {
+        List<Supply> batch = new ArrayList<Supply>(supplies);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.admit(batch, false);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        try {
+            this.enterSupplies(batch, null);
+        } catch (RuntimeException e) {
+            this.intake.release(batch.size());
+            throw e;
+        }
+    }
+
+    /**
+     * Puts an admitted batch in the book and schedules its matching, the matching gives the places in the intake back
+     *
+     * @param supplies     added by the sellers, not empty
+     * @param batchTickets tickets of the supplies in the order of the batch, null if they were added directly
      */
-    public void addDemand(@NotNull final Demand demand) {
+    private void enterSupplies(List<Supply> supplies, List<OrderTicket> batchTickets) {
+        final Supply[] batch = supplies.toArray(new Supply[0]);
+        final int[] generations = new int[batch.length];
+        StockPerson[] owners = new StockPerson[batch.length];
+        long[] prices = new long[batch.length];
+        int[] counts = new int[batch.length];
+
+        long firstId = this.lastOrderId.getAndAdd(batch.length) + 1;
+        for (int i = 0; i < batch.length; i++) {
+            batch[i].setId(firstId + i);
+            generations[i] = batch[i].getGeneration();
+            owners[i] = batch[i].getOwner();
+            prices[i] = batch[i].getPriceTicks();
+            counts[i] = batch[i].getCount();
+        }
+        for (int i = 0; i < batch.length; i++) {
+            this.indexed(firstId + i);
+            if (batchTickets != null) {
+                this.tickets.put(firstId + i, batchTickets.get(i));
+            }
+        }
+
+        long requested = this.lockRequested();
+        synchronized (SUPPLY_LOCK) {
+            this.lockAcquired(SUPPLY_LOCK, requested);
+            for (int i = 0; i < batch.length; i++) {
+                this.orderBook.addSupply(batch[i]);
+                this.marketDataFeed.levelChanged(this.orderBook, false, prices[i]);
+            }
+            if (this.journal != null) {
+                this.journal.appendSupplies(Arrays.asList(batch));
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.suppliesAdded(batch.length);
+        }
+        this.updateHistory(HistoryEventType.SUPPLY_ADDED, owners, prices, counts);
+
+        this.threadPool.execute(new Runnable() {
+            public void run() {
+                try {
+                    for (int i = 0; i < batch.length; i++) {
+                        long start = metrics != null ? System.nanoTime() : 0;
+                        matchSupplyWithDemand(batch[i], generations[i]);
+                        matchingEnded(batch[i], generations[i]);
+                        if (metrics != null) {
+                            metrics.matched(System.nanoTime() - start);
+                        }
+                    }
+                } finally {
+                    intake.release(batch.length);
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a batch of demands while holding DEMAND_LOCK once
+     * The ids of the batch are taken with one increment, the history is written with one claim
+     * and the whole batch is matched by a single task of the thread pool, in the order of the batch
+     *
+     * @param demands added by the buyers
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the batch does not fit in the intake
+     */
+    public void addDemands(@NotNull Collection<? extends Demand> demands) {
+        List<Demand> batch = new ArrayList<Demand>(demands);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.admit(batch, true);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        try {
+            this.enterDemands(batch, null);
+        } catch (RuntimeException e) {
+            this.intake.release(batch.size());
+            throw e;
+        }
+    }
+
+    /**
+     * Puts an admitted batch in the book and schedules its matching, the matching gives the places in the intake back
+     *
+     * @param demands      added by the buyers, not empty
+     * @param batchTickets tickets of the demands in the order of the batch, null if they were added directly
+     */
+    private void enterDemands(List<Demand> demands, List<OrderTicket> batchTickets) {
+        final Demand[] batch = demands.toArray(new Demand[0]);
+        final int[] generations = new int[batch.length];
+        StockPerson[] owners = new StockPerson[batch.length];
+        long[] prices = new long[batch.length];
+        int[] counts = new int[batch.length];
+
+        long firstId = this.lastOrderId.getAndAdd(batch.length) + 1;
+        for (int i = 0; i < batch.length; i++) {
+            batch[i].setId(firstId + i);
+            generations[i] = batch[i].getGeneration();
+            owners[i] = batch[i].getOwner();
+            prices[i] = batch[i].getPriceTicks();
+            counts[i] = batch[i].getCount();
+        }
+        for (int i = 0; i < batch.length; i++) {
+            this.indexed(firstId + i);
+            if (batchTickets != null) {
+                this.tickets.put(firstId + i, batchTickets.get(i));
+            }
+        }
+
+        long requested = this.lockRequested();
         synchronized (DEMAND_LOCK) {
-            this.demands.add(demand);
+            this.lockAcquired(DEMAND_LOCK, requested);
+            for (int i = 0; i < batch.length; i++) {
+                this.orderBook.addDemand(batch[i]);
+                this.marketDataFeed.levelChanged(this.orderBook, true, prices[i]);
+            }
+            if (this.journal != null) {
+                this.journal.appendDemands(Arrays.asList(batch));
+            }
         }
-        this.updateHistory(demand.getOwner().getName() + " with id " + demand.getOwner().getIdentifier() + " added a demand :" + demand.toString());
+        if (this.metrics != null) {
+            this.metrics.demandsAdded(batch.length);
+        }
+        this.updateHistory(HistoryEventType.DEMAND_ADDED, owners, prices, counts);
 
         this.threadPool.execute(new Runnable() {
             public void run() {
-                matchDemandWithSupply(demand);
+                try {
+                    for (int i = 0; i < batch.length; i++) {
+                        long start = metrics != null ? System.nanoTime() : 0;
+                        matchDemandWithSupply(batch[i], generations[i]);
+                        matchingEnded(batch[i], generations[i]);
+                        if (metrics != null) {
+                            metrics.matched(System.nanoTime() - start);
+                        }
+                    }
+                } finally {
+                    intake.release(batch.length);
+                }
             }
         });
     }
 
+    /**
+     * Adds the supply from a worker of the thread pool
+     *
+     * @param supply added by the seller
+     * @return ticket of the supply
+     */
+    public OrderTicket submitSupply(@NotNull final Supply supply) {
+        final OrderTicket ticket = new OrderTicket(supply);
+        try {
+            this.admit(supply, false);
+        } catch (StockMarketOverloadedException e) {
+            ticket.fail(e);
+            return ticket;
+        }
+        try {
+            this.threadPool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        enterSupply(supply, ticket);
+                        ticket.acknowledge();
+                    } catch (RuntimeException e) {
+                        intake.release(1);
+                        tickets.remove(supply.getId(), ticket);
+                        ticket.fail(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.intake.release(1);
+            ticket.fail(e);
+        }
+        return ticket;
+    }
+
+    /**
+     * Adds the demand from a worker of the thread pool
+     *
+     * @param demand added by the buyer
+     * @return ticket of the demand
+     */
+    public OrderTicket submitDemand(@NotNull final Demand demand) {
+        final OrderTicket ticket = new OrderTicket(demand);
+        try {
+            this.admit(demand, true);
+        } catch (StockMarketOverloadedException e) {
+            ticket.fail(e);
+            return ticket;
+        }
+        try {
+            this.threadPool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        enterDemand(demand, ticket);
+                        ticket.acknowledge();
+                    } catch (RuntimeException e) {
+                        intake.release(1);
+                        tickets.remove(demand.getId(), ticket);
+                        ticket.fail(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.intake.release(1);
+            ticket.fail(e);
+        }
+        return ticket;
+    }
+
+    /**
+     * Adds the batch of supplies from a single task of the thread pool
+     *
+     * @param supplies added by the sellers
+     * @return tickets of the supplies, in the order of the batch
+     */
+    public List<OrderTicket> submitSupplies(@NotNull Collection<? extends Supply> supplies) {
+        final List<Supply> batch = new ArrayList<Supply>(supplies);
+        final List<OrderTicket> batchTickets = new ArrayList<OrderTicket>(batch.size());
+        for (Supply supply : batch) {
+            batchTickets.add(new OrderTicket(supply));
+        }
+        if (batch.isEmpty()) {
+            return batchTickets;
+        }
+        try {
+            this.admit(batch, false);
+        } catch (StockMarketOverloadedException e) {
+            this.failTickets(batch, batchTickets, e);
+            return batchTickets;
+        }
+
+        try {
+            this.threadPool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        enterSupplies(batch, batchTickets);
+                        for (OrderTicket ticket : batchTickets) {
+                            ticket.acknowledge();
+                        }
+                    } catch (RuntimeException e) {
+                        intake.release(batch.size());
+                        failTickets(batch, batchTickets, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.intake.release(batch.size());
+            this.failTickets(batch, batchTickets, e);
+        }
+        return batchTickets;
+    }
+
+    /**
+     * Adds the batch of demands from a single task of the thread pool
+     *
+     * @param demands added by the buyers
+     * @return tickets of the demands, in the order of the batch
+     */
+    public List<OrderTicket> submitDemands(@NotNull Collection<? extends Demand> demands) {
+        final List<Demand> batch = new ArrayList<Demand>(demands);
+        final List<OrderTicket> batchTickets = new ArrayList<OrderTicket>(batch.size());
+        for (Demand demand : batch) {
+            batchTickets.add(new OrderTicket(demand));
+        }
+        if (batch.isEmpty()) {
+            return batchTickets;
+        }
+        try {
+            this.admit(batch, true);
+        } catch (StockMarketOverloadedException e) {
+            this.failTickets(batch, batchTickets, e);
+            return batchTickets;
+        }
+
+        try {
+            this.threadPool.execute(new Runnable() {
+                public void run() {
+                    try {
+                        enterDemands(batch, batchTickets);
+                        for (OrderTicket ticket : batchTickets) {
+                            ticket.acknowledge();
+                        }
+                    } catch (RuntimeException e) {
+                        intake.release(batch.size());
+                        failTickets(batch, batchTickets, e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.intake.release(batch.size());
+            this.failTickets(batch, batchTickets, e);
+        }
+        return batchTickets;
+    }
+
+    /**
+     * Cancels a resting order, it is found by id in the book while holding the lock of its side
+     * The cancelled order is left with a count of 0, so a worker that is matching it at the same time stops
+     *
+     * @param orderId id given to the order when it was added
+     * @return future completed with false if there is no resting order with this id
+     */
+    public CompletableFuture<Boolean> cancel(long orderId) {
+        boolean cancelled = this.cancelSupply(orderId) || this.cancelDemand(orderId);
+        return CompletableFuture.completedFuture(cancelled);
+    }
+
+    /**
+     * Changes the price or the count of a resting order
+     * A smaller count at the same price keeps the place of the order, otherwise the order is queued
+     * again behind the orders of its new price and matched like a new order
+     *
+     * @param orderId id given to the order when it was added
+     * @param price   new price, on the tick size of the market
+     * @param count   new remaining count, 0 cancels the order
+     * @return future completed with false if there is no resting order with this id
+     */
+    public CompletableFuture<Boolean> amend(long orderId, double price, int count) {
+        if (count <= 0) {
+            return this.cancel(orderId);
+        }
+        long priceTicks = this.tickSize.toTicks(price);
+        boolean amended = this.amendSupply(orderId, priceTicks, count) || this.amendDemand(orderId, priceTicks, count);
+        return CompletableFuture.completedFuture(amended);
+    }
+
     /**
      * Simulates the running server functionality
+     * On the first run the resting supplies and demands are rebuilt from the journal, if there is one,
+     * starting from the latest snapshot
      *
      * @return StockMarket instance
      * @throws StockMarketAlreadyRunningException threw If it's already running
@@ -105,8 +892,22 @@ public class BasicStockMarket implements StockMarket {
         if (this.isRunning) {
             throw new StockMarketAlreadyRunningException("The StockMarket is already running");
         }
+        if (this.journal != null && !this.isRecovered) {
+            this.recover();
+        }
+        if (this.journal != null && this.snapshotter != null) {
+            this.snapshotter.start();
+        }
+        if (this.enabledLogger) {
+            if (this.historyLogger == null) {
+                this.historyLogger = new AsyncHistoryLogger();
+            }
+            this.historyTail = this.historyLogger.open(this.history());
+        }
         this.isRunning = true;
-        this.threadPool.restart();
+        if (this.ownsThreadPool) {
+            this.threadPool.restart();
+        }
         return this;
     }
 
@@ -121,52 +922,367 @@ public class BasicStockMarket implements StockMarket {
             throw new StockMarketAlreadyStoppedException("The StockMarket is already stopped");
         }
         this.isRunning = false;
-        this.threadPool.shutdown();
+        if (this.ownsThreadPool) {
+            this.threadPool.shutdown();
+        }
+        if (this.journal != null) {
+            this.journal.flush();
+        }
+        if (this.journal != null && this.snapshotter != null) {
+            this.snapshotter.stop();
+            this.takeSnapshot();
+        }
+        if (this.historyTail != null) {
+            this.historyLogger.close(this.historyTail);
+            this.historyTail = null;
+        }
         return this;
     }
 
+    /**
+     * The subscription first gets the current depth and top of book of the market
+     *
+     * @param subscription receives the market data of the book
+     */
+    public void subscribe(@NotNull MarketDataSubscription subscription) {
+        synchronized (SUPPLY_LOCK) {
+            synchronized (DEMAND_LOCK) {
+                this.marketDataFeed.attach(subscription, this.orderBook);
+            }
+        }
+    }
+
+    /**
+     * Streams the history events that match the query without blocking the matching
+     *
+     * @param query filters of the events
+     * @return cursor over the events that were recorded before this call, in the order they were recorded
+     */
+    public HistoryCursor queryHistory(@NotNull HistoryQuery query) {
+        return this.history().query(query);
+    }
+
     /**
      * Method to print every action that took place in the market
      *
      * @return The whole history as a String
      */
     public String printHistory() {
-        StringBuilder fullHistory = new StringBuilder();
+        return this.history().renderAll();
+    }
 
-        for (int i = 0; i < history.size(); i++) {
-            fullHistory.append(history.get(i) + "\n");
+    /**
+     * Replays the journal and puts the orders that were not consumed back in the book
+     */
+    private void recover() {
+        JournalRecovery recovery = new JournalRecovery(this);
+        try {
+            recovery.recover(this.journal, this.snapshotter);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not replay the journal " + this.journal, e);
         }
 
-        return fullHistory.toString();
+        for (StockObject order : recovery.restingOrders()) {
+            this.indexed(order.getId());
+            if (order instanceof Supply) {
+                synchronized (SUPPLY_LOCK) {
+                    this.orderBook.addSupply((Supply) order);
+                    this.marketDataFeed.levelChanged(this.orderBook, false, order.getPriceTicks());
+                }
+                if (this.metrics != null) {
+                    this.metrics.supplyAdded();
+                }
+            } else {
+                synchronized (DEMAND_LOCK) {
+                    this.orderBook.addDemand((Demand) order);
+                    this.marketDataFeed.levelChanged(this.orderBook, true, order.getPriceTicks());
+                }
+                if (this.metrics != null) {
+                    this.metrics.demandAdded();
+                }
+            }
+        }
+        // the ids may be shared with other shards that already hand out ids
+        long recovered = recovery.lastOrderId();
+        long current = this.lastOrderId.get();
+        while (current < recovered && !this.lastOrderId.compareAndSet(current, recovered)) {
+            current = this.lastOrderId.get();
+        }
+        this.isRecovered = true;
     }
 
     /**
-     * Main method used by the buyer to try to buy a new Supply that matches his demand
-     *
-     * @param demand published by the buyer
-     * @param supply published y the seller in the StockMarket
+     * Takes a last snapshot when the market stops, so the next start has nothing to replay
      */
-    private void tryToBuy(@NotNull Demand demand, @NotNull Supply supply) {
-        if (demand.getPrice() != supply.getPrice() || supply.getCount() == 0 || demand.getCount() == 0) {
-            return;
+    private void takeSnapshot() {
+        try {
+            this.snapshotter.snapshot();
+        } catch (IOException e) {
+            System.out.println("Snapshot of the journal failed: " + e.getMessage());
         }
+    }
 
-        int min = Math.min(supply.getCount(), demand.getCount());
+    /**
+     * Main method used to exchange a Supply with a Demand whose price is not below the price of the supply
+     * The trade takes place at the price of the order that was resting in the book, not at the price
+     * of the order whose worker is matching it. Both sides are consumed while holding SUPPLY_LOCK and DEMAND_LOCK, in this order,
+     * because a demand and a supply can be matched by different workers at the same time.
+     * Consumed orders are removed from the book by the worker that consumed them, a pooled order
+     * may be reused right after, so nothing is exchanged if either order changed its generation
+     *
+     * @param demand           published by the buyer
+     * @param demandGeneration generation of the demand when it was looked up
+     * @param supply           published y the seller in the StockMarket
+     * @param supplyGeneration generation of the supply when it was looked up
+     * @param isDemandTaking   true if the demand is matched against the resting supplies, false for the other way around
+     * @return count of the order whose worker is matching it, read while both locks are held, 0 once its matching has to stop
+     */
+    private int tryToBuy(@NotNull Demand demand, int demandGeneration, @NotNull Supply supply, int supplyGeneration,
+                          boolean isDemandTaking) {
+        int min;
+        long price;
+        int supplyRemaining;
+        int demandRemaining;
+        OrderTicket supplyTicket;
+        OrderTicket demandTicket;
 
+        long requested = this.lockRequested();
         synchronized (SUPPLY_LOCK) {
+            this.lockAcquired(SUPPLY_LOCK, requested);
+            requested = this.lockRequested();
+            synchronized (DEMAND_LOCK) {
+                this.lockAcquired(DEMAND_LOCK, requested);
+                if (isDemandTaking ? demand.getGeneration() != demandGeneration : supply.getGeneration() != supplyGeneration) {
+                    return 0;
+                }
+                int taking = isDemandTaking ? demand.getCount() : supply.getCount();
+                // the resting order was consumed and reused since it was looked up, the next one is looked up
+                if (isDemandTaking ? supply.getGeneration() != supplyGeneration : demand.getGeneration() != demandGeneration) {
+                    return taking;
+                }
+                // an amendment may have changed a price since the orders were looked up
+                if (demand.getPriceTicks() < supply.getPriceTicks()) {
+                    return taking;
+                }
+                min = Math.min(supply.getCount(), demand.getCount());
+                if (min == 0) {
+                    return taking;
+                }
+                price = isDemandTaking ? supply.getPriceTicks() : demand.getPriceTicks();
+                SettlementLedger.Stripe stripe = this.settlementLedger.lock();
+                try {
+                    supply.consume(min, price);
+                    demand.consume(min, price);
+                } finally {
+                    stripe.unlock();
+                }
+                this.orderBook.supplyCountChanged(supply, -min);
+                this.orderBook.demandCountChanged(demand, -min);
+                this.marketDataFeed.traded(this.orderBook, demand.getPriceTicks(), supply.getPriceTicks(), price, min, demand.getOwner(), supply.getOwner());
+                if (this.journal != null) {
+                    this.journal.appendFill(demand, supply, min);
+                }
+                supplyRemaining = supply.getCount();
+                demandRemaining = demand.getCount();
+                // looked up while the orders can not be consumed and reused by another worker
+                supplyTicket = this.tickets.isEmpty() ? null : this.tickets.get(supply.getId());
+                demandTicket = this.tickets.isEmpty() ? null : this.tickets.get(demand.getId());
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.filled(min);
+        }
 
-            supply.consume(min);
+        this.updateHistory(HistoryEventType.MATCHED, demand.getOwner(), supply.getOwner(), price, min);
 
+        if (supplyTicket != null) {
+            supplyTicket.traded(min, this.tickSize.toPrice(price), supplyRemaining);
         }
+        if (demandTicket != null) {
+            demandTicket.traded(min, this.tickSize.toPrice(price), demandRemaining);
+        }
+
+        if (supplyRemaining == 0) {
+            removeSupply(supply);
+        }
+
+        if (demandRemaining == 0) {
+            removeDemand(demand);
+        }
+        return isDemandTaking ? demandRemaining : supplyRemaining;
+    }
+
+    /**
+     * @param orderId id of the supply
+     * @return false if there is no resting supply with this id
+     */
+    private boolean cancelSupply(long orderId) {
+        Supply supply;
+        int remaining;
+        long requested = this.lockRequested();
+        synchronized (SUPPLY_LOCK) {
+            this.lockAcquired(SUPPLY_LOCK, requested);
+            supply = this.orderBook.supply(orderId);
+            // a consumed supply is removed by the worker that consumed it
+            if (supply == null || supply.getCount() == 0) {
+                return false;
+            }
+            remaining = supply.getCount();
+            this.orderBook.removeSupply(supply);
+            supply.amend(supply.getPriceTicks(), 0);
+            this.unindexed(orderId);
+            this.marketDataFeed.levelChanged(this.orderBook, false, supply.getPriceTicks());
+            if (this.journal != null) {
+                this.journal.appendCancel(orderId);
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.supplyRemoved();
+        }
+        this.cancelled(supply, remaining);
+        return true;
+    }
+
+    /**
+     * @param orderId id of the demand
+     * @return false if there is no resting demand with this id
+     */
+    private boolean cancelDemand(long orderId) {
+        Demand demand;
+        int remaining;
+        long requested = this.lockRequested();
         synchronized (DEMAND_LOCK) {
+            this.lockAcquired(DEMAND_LOCK, requested);
+            demand = this.orderBook.demand(orderId);
+            // a consumed demand is removed by the worker that consumed it
+            if (demand == null || demand.getCount() == 0) {
+                return false;
+            }
+            remaining = demand.getCount();
+            this.orderBook.removeDemand(demand);
+            demand.amend(demand.getPriceTicks(), 0);
+            this.unindexed(orderId);
+            this.marketDataFeed.levelChanged(this.orderBook, true, demand.getPriceTicks());
+            if (this.journal != null) {
+                this.journal.appendCancel(orderId);
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.demandRemoved();
+        }
+        this.cancelled(demand, remaining);
+        return true;
+    }
 
-            demand.consume(min);
+    /**
+     * @param order     supply or demand that was taken out of the book
+     * @param remaining count it had left
+     */
+    private void cancelled(StockObject order, int remaining) {
+        this.updateHistory(HistoryEventType.CANCELLED, order.getOwner(), null, order.getPriceTicks(), remaining);
+        OrderTicket ticket = this.tickets.remove(order.getId());
+        if (ticket != null) {
+            ticket.cancel();
+        }
+        OrderPool.recycle(order);
+    }
 
+    /**
+     * @param orderId    id of the supply
+     * @param priceTicks new price in ticks
+     * @param count      new remaining count
+     * @return false if there is no resting supply with this id
+     */
+    private boolean amendSupply(long orderId, long priceTicks, int count) {
+        final Supply supply;
+        final int generation;
+        boolean requeued;
+        long requested = this.lockRequested();
+        synchronized (SUPPLY_LOCK) {
+            this.lockAcquired(SUPPLY_LOCK, requested);
+            supply = this.orderBook.supply(orderId);
+            if (supply == null || supply.getCount() == 0) {
+                return false;
+            }
+            long previousPrice = supply.getPriceTicks();
+            int previousCount = supply.getCount();
+            requeued = priceTicks != previousPrice || count > previousCount;
+            if (requeued) {
+                this.orderBook.removeSupply(supply);
+                supply.amend(priceTicks, count);
+                this.orderBook.addSupply(supply);
+            } else {
+                supply.amend(priceTicks, count);
+                this.orderBook.supplyCountChanged(supply, count - previousCount);
+            }
+            this.marketDataFeed.levelChanged(this.orderBook, false, previousPrice);
+            if (priceTicks != previousPrice) {
+                this.marketDataFeed.levelChanged(this.orderBook, false, priceTicks);
+            }
+            if (this.journal != null) {
+                this.journal.appendAmend(supply);
+            }
+            generation = supply.getGeneration();
         }
+        this.updateHistory(HistoryEventType.AMENDED, supply.getOwner(), null, priceTicks, count);
 
-        this.updateHistory("[" + Thread.currentThread() + "]:" + demand.getOwner().getName() + " with the demand " + demand.toString() + " matched " + supply.toString());
+        if (requeued) {
+            this.threadPool.execute(new Runnable() {
+                public void run() {
+                    matchSupplyWithDemand(supply, generation);
+                }
+            });
+        }
+        return true;
+    }
 
+    /**
+     * @param orderId    id of the demand
+     * @param priceTicks new price in ticks
+     * @param count      new remaining count
+     * @return false if there is no resting demand with this id
+     */
+    private boolean amendDemand(long orderId, long priceTicks, int count) {
+        final Demand demand;
+        final int generation;
+        boolean requeued;
+        long requested = this.lockRequested();
+        synchronized (DEMAND_LOCK) {
+            this.lockAcquired(DEMAND_LOCK, requested);
+            demand = this.orderBook.demand(orderId);
+            if (demand == null || demand.getCount() == 0) {
+                return false;
+            }
+            long previousPrice = demand.getPriceTicks();
+            int previousCount = demand.getCount();
+            requeued = priceTicks != previousPrice || count > previousCount;
+            if (requeued) {
+                this.orderBook.removeDemand(demand);
+                demand.amend(priceTicks, count);
+                this.orderBook.addDemand(demand);
+            } else {
+                demand.amend(priceTicks, count);
+                this.orderBook.demandCountChanged(demand, count - previousCount);
+            }
+            this.marketDataFeed.levelChanged(this.orderBook, true, previousPrice);
+            if (priceTicks != previousPrice) {
+                this.marketDataFeed.levelChanged(this.orderBook, true, priceTicks);
+            }
+            if (this.journal != null) {
+                this.journal.appendAmend(demand);
+            }
+            generation = demand.getGeneration();
+        }
+        this.updateHistory(HistoryEventType.AMENDED, demand.getOwner(), null, priceTicks, count);
 
+        if (requeued) {
+            this.threadPool.execute(new Runnable() {
+                public void run() {
+                    matchDemandWithSupply(demand, generation);
+                }
+            });
+        }
+        return true;
     }
 
     /**
@@ -175,24 +1291,90 @@ public class BasicStockMarket implements StockMarket {
      * @param demand published by the buyer
      */
     private void removeDemand(@NotNull Demand demand) {
+        boolean removed;
+        long requested = this.lockRequested();
         synchronized (DEMAND_LOCK) {
-            this.demands.remove(demand);
+            this.lockAcquired(DEMAND_LOCK, requested);
+            removed = this.orderBook.removeDemand(demand);
+        }
+        if (removed && this.metrics != null) {
+            this.metrics.demandRemoved();
+        }
+        if (removed) {
+            this.unindexed(demand.getId());
+            this.updateHistory(HistoryEventType.DEMAND_CONSUMED, demand.getOwner(), null, demand.getPriceTicks(), demand.getCount());
+            this.completeTicket(demand);
+            OrderPool.recycle(demand);
+        }
+
+    }
 
+    /**
+     * The history is only allocated on its first use, so a setting of the builder never allocates a ring
+     * that is thrown away, and a shard that never gets an order does not hold one at all
+     *
+     * @return the history of the market
+     */
+    private HistoryJournal history() {
+        HistoryJournal current = this.history;
+        if (current == null) {
+            synchronized (HISTORY_LOCK) {
+                current = this.history;
+                if (current == null) {
+                    current = new HistoryJournal(this.historyCapacity, this.tickSize, this.participantRegistry);
+                    this.history = current;
+                }
+            }
         }
-        this.updateHistory("[" + Thread.currentThread() + "]:" + demand.toString() + " demand has ben consumed");
+        return current;
+    }
+
+    /**
+     * Method to update the history, the record is only rendered to text by the writer of the runtime logger
+     *
+     * @param type         of the event
+     * @param owner        the buyer or the seller of the order
+     * @param counterparty the seller of a match, null otherwise
+     * @param price        price of the order in ticks
+     * @param quantity     count of the order, or the exchanged count of a match
+     */
+    private void updateHistory(HistoryEventType type, StockPerson owner, StockPerson counterparty, long price, int quantity) {
+        long sequence = this.history().record(type, owner.getId(), counterparty != null ? counterparty.getId() : 0, price, quantity);
+        this.logged(sequence);
+    }
 
+    /**
+     * Writes the history of a batch of orders with a single claim of the history sequences
+     *
+     * @param type   of the events
+     * @param owners the buyer or the seller of every order
+     * @param prices price of every order in ticks
+     * @param counts count of every order
+     */
+    private void updateHistory(HistoryEventType type, StockPerson[] owners, long[] prices, int[] counts) {
+        HistoryJournal history = this.history();
+        long first = history.claim(owners.length);
+        for (int i = 0; i < owners.length; i++) {
+            history.record(first + i, type, owners[i].getId(), 0, prices[i], counts[i]);
+        }
+        this.logged(first + owners.length - 1);
     }
 
     /**
-     * Method to update the history
+     * Hands the records up to the sequence over to the history logger, the time a blocking logger
+     * made the caller wait is measured as the history wait
      *
-     * @param message to be updated with
+     * @param sequence of the last record
      */
-    private void updateHistory(String message) {
-        synchronized (HISTORY_LOCK) {
-            history.add(new Timestamp(System.currentTimeMillis()).getTime() + " : " + message);
-            if (enabledLogger)
-                System.out.println(new Timestamp(System.currentTimeMillis()).getTime() + " : " + message);
+    private void logged(long sequence) {
+        AsyncHistoryLogger.Tail tail = this.historyTail;
+        if (tail == null) {
+            return;
+        }
+        long requested = this.lockRequested();
+        tail.recorded(sequence);
+        if (this.metrics != null) {
+            this.metrics.historyLockWaited(System.nanoTime() - requested);
         }
     }
 
@@ -202,35 +1384,204 @@ public class BasicStockMarket implements StockMarket {
      * @param supply published by the seller, deleted by the buyer
      */
     private void removeSupply(@NotNull Supply supply) {
+        boolean removed;
+        long requested = this.lockRequested();
         synchronized (SUPPLY_LOCK) {
-            supplies.remove(supply);
+            this.lockAcquired(SUPPLY_LOCK, requested);
+            removed = this.orderBook.removeSupply(supply);
+        }
+        if (removed && this.metrics != null) {
+            this.metrics.supplyRemoved();
+        }
+        if (removed) {
+            this.unindexed(supply.getId());
+            this.updateHistory(HistoryEventType.SUPPLY_REMOVED, supply.getOwner(), null, supply.getPriceTicks(), supply.getCount());
+            this.completeTicket(supply);
+            OrderPool.recycle(supply);
         }
-        this.updateHistory("[" + Thread.currentThread() + "]:" + supply.toString() + " supply has ben removed");
 
     }
 
-    private void matchDemandWithSupply(Demand demand) {
-        int timesTriedToBuy = 0;
+    /**
+     * @return the current time if the lock waits are measured, 0 otherwise
+     */
+    private long lockRequested() {
+        return this.metrics != null ? System.nanoTime() : 0;
+    }
 
-        for (;;) {
-//            synchronized (SUPPLY_LOCK) {
-                for (int i = 0; i < this.supplies.size() && this.supplies.get(i) != null; i++) {
-                    Supply supply = this.supplies.get(i);
-                    tryToBuy(demand, supply);
+    /**
+     * Records the time a lock was waited for, called right after it was taken
+     *
+     * @param lock      SUPPLY_LOCK or DEMAND_LOCK
+     * @param requested value of {@link #lockRequested()} before the lock was requested
+     */
+    private void lockAcquired(Object lock, long requested) {
+        if (this.metrics == null) {
+            return;
+        }
+        long waited = System.nanoTime() - requested;
+        if (lock == SUPPLY_LOCK) {
+            this.metrics.supplyLockWaited(waited);
+        } else {
+            this.metrics.demandLockWaited(waited);
+        }
+    }
 
-                    if (supply.getCount() == 0) {
-                        removeSupply(supply);
-                    }
+    /**
+     * Takes a place in the intake for the order, whether it can trade right away is only looked at under overload
+     *
+     * @param order    supply or demand handed to the market
+     * @param isDemand true for a demand
+     * @throws StockMarketOverloadedException if the order was refused
+     */
+    private void admit(StockObject order, boolean isDemand) throws StockMarketOverloadedException {
+        boolean isPassive = this.intake.isShedding(1) && !this.crosses(isDemand, order.getPriceTicks());
+        this.intake.admit(1, isPassive);
+    }
 
-                    if (demand.getCount() == 0) {
-                        removeDemand(demand);
-                        return;
-                    }
-                }
-                if (timesTriedToBuy++ == 2000) {
-                    return;
-                }
-//            }
+    /**
+     * @param batch    supplies or demands handed to the market at once
+     * @param isDemand true for demands
+     * @throws StockMarketOverloadedException if the batch was refused
+     */
+    private void admit(List<? extends StockObject> batch, boolean isDemand) throws StockMarketOverloadedException {
+        boolean isPassive = this.intake.isShedding(batch.size());
+        for (int i = 0; isPassive && i < batch.size(); i++) {
+            isPassive = !this.crosses(isDemand, batch.get(i).getPriceTicks());
+        }
+        this.intake.admit(batch.size(), isPassive);
+    }
+
+    /**
+     * Tells whether an order would trade right away, only asked while the intake sheds orders
+     *
+     * @param isDemand true for a demand, false for a supply
+     * @param price    price of the order in ticks
+     * @return true if the best resting order of the other side is at a price the order accepts
+     */
+    private boolean crosses(boolean isDemand, long price) {
+        if (isDemand) {
+            synchronized (SUPPLY_LOCK) {
+                return price >= this.orderBook.bestSupplyPrice();
+            }
+        }
+        synchronized (DEMAND_LOCK) {
+            return price <= this.orderBook.bestDemandPrice();
+        }
+    }
+
+    /**
+     * Fails the tickets of a batch that could not be added, the orders of the batch were not added
+     *
+     * @param batch        orders of the batch
+     * @param batchTickets tickets of the orders, in the same order
+     * @param e            why the batch could not be added
+     */
+    private void failTickets(List<? extends StockObject> batch, List<OrderTicket> batchTickets, Throwable e) {
+        for (int i = 0; i < batch.size(); i++) {
+            this.tickets.remove(batch.get(i).getId(), batchTickets.get(i));
+            batchTickets.get(i).fail(e);
+        }
+    }
+
+    /**
+     * Completes the ticket of an order that was entirely consumed, if it was submitted
+     *
+     * @param order supply or demand removed from the book
+     */
+    private void completeTicket(StockObject order) {
+        OrderTicket ticket = this.tickets.remove(order.getId());
+        if (ticket != null) {
+            ticket.fill();
+        }
+    }
+
+    /**
+     * A book that only keeps the columns of its orders hands out views of them, so once the matching
+     * of the order it was added with ended, nothing of the market refers to that object anymore
+     *
+     * @param order      supply or demand that was added
+     * @param generation of the order when it was added, it already went back to its pool if it changed
+     */
+    private static void matchingEnded(StockObject order, int generation) {
+        if (order.getStorage() != null && order.getGeneration() == generation) {
+            OrderPool.recycle(order);
+        }
+    }
+
+    /**
+     * Buys the supplies of the book, lowest price first and oldest first within a price,
+     * until the demand is consumed or the next supply is above its price
+     * If there is no matching supply, the demand rests in the book until a new supply triggers
+     * {@link #matchSupplyWithDemand(Supply, int)}
+     *
+     * @param demand     published by the buyer
+     * @param generation generation of the demand when it was added, the matching stops once the demand is reused
+     */
+    private void matchDemandWithSupply(Demand demand, int generation) {
+        while (demand.getGeneration() == generation) {
+            Supply supply;
+            int supplyGeneration;
+            long requested = this.lockRequested();
+            synchronized (SUPPLY_LOCK) {
+                this.lockAcquired(SUPPLY_LOCK, requested);
+                supply = this.orderBook.matchingSupply(demand);
+                supplyGeneration = supply != null ? supply.getGeneration() : 0;
+            }
+
+            if (supply == null) {
+                return;
+            }
+            if (tryToBuy(demand, generation, supply, supplyGeneration, true) == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sells the supply to the resting demands of the book, highest price first and oldest first within a price,
+     * until the supply is consumed or the next demand is below its price
+     *
+     * @param supply     published by the seller
+     * @param generation generation of the supply when it was added, the matching stops once the supply is reused
+     */
+    private void matchSupplyWithDemand(Supply supply, int generation) {
+        while (supply.getGeneration() == generation) {
+            Demand demand;
+            int demandGeneration;
+            long requested = this.lockRequested();
+            synchronized (DEMAND_LOCK) {
+                this.lockAcquired(DEMAND_LOCK, requested);
+                demand = this.orderBook.matchingDemand(supply);
+                demandGeneration = demand != null ? demand.getGeneration() : 0;
+            }
+
+            if (demand == null) {
+                return;
+            }
+            if (tryToBuy(demand, demandGeneration, supply, generation, false) == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param orderId id that was just given to an order, recorded before the order can be consumed
+     */
+    private void indexed(long orderId) {
+        Map<Long, StockMarket> current = this.orderShards;
+        if (current != null) {
+            current.put(orderId, this);
+        }
+    }
+
+    /**
+     * @param orderId id of an order that left the book
+     */
+    private void unindexed(long orderId) {
+        Map<Long, StockMarket> current = this.orderShards;
+        if (current != null) {
+            current.remove(orderId);
         }
     }
 
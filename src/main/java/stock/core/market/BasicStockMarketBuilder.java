@@ -1,7 +1,15 @@
 package stock.core.market;
 
+import stock.core.book.OrderBook;
+import stock.core.book.PriceLevelOrderBook;
+import stock.core.journal.EventJournal;
+import stock.core.journal.JournalSnapshotter;
+import stock.core.log.AsyncHistoryLogger;
+import stock.core.metrics.MarketMetrics;
 import stock.core.pool.BasicThreadPool;
 import stock.core.pool.ThreadPool;
+import stock.core.pool.ThreadPoolType;
+import stock.models.TickSize;
 
 /**
  * The builder class for the {@link BasicStockMarket}
@@ -20,6 +28,7 @@ public class BasicStockMarketBuilder {
         this.stockMarket = new BasicStockMarket();
         this.stockMarket.setEnabledLogger(true);
         this.stockMarket.setThreadPool(defaultThreadPool);
+        this.stockMarket.setOrderBook(new PriceLevelOrderBook());
     }
 
     /**
@@ -31,6 +40,15 @@ public class BasicStockMarketBuilder {
         return this;
     }
 
+    /**
+     * @param historyLogger writes the history while the logger is enabled, a console logger that drops on overflow by default
+     * @return this instance
+     */
+    BasicStockMarketBuilder setHistoryLogger(AsyncHistoryLogger historyLogger) {
+        this.stockMarket.setHistoryLogger(historyLogger);
+        return this;
+    }
+
     /**
      * @param threadPool the thread pool that is going to be used
      * @return this instance
@@ -41,6 +59,80 @@ public class BasicStockMarketBuilder {
         return this;
     }
 
+    /**
+     * @param type         the kind of thread pool that is going to be used
+     * @param threadsCount number of workers of the thread pool
+     * @return this instance
+     */
+    BasicStockMarketBuilder setThreadPool(ThreadPoolType type, int threadsCount) {
+        return this.setThreadPool(type.create(threadsCount));
+    }
+
+    /**
+     * @param orderBook the order book that is going to be used, e.g {@link stock.core.book.ListOrderBook}
+     * @return this instance
+     */
+    BasicStockMarketBuilder setOrderBook(OrderBook orderBook) {
+        this.stockMarket.setOrderBook(orderBook);
+        return this;
+    }
+
+    /**
+     * @param historyCapacity number of history records that are kept, the oldest ones are overwritten
+     * @return this instance
+     */
+    BasicStockMarketBuilder setHistoryCapacity(int historyCapacity) {
+        this.stockMarket.setHistoryCapacity(historyCapacity);
+        return this;
+    }
+
+    /**
+     * @param journal the journal that persists the order events, the book is rebuilt from it on the first run
+     * @return this instance
+     */
+    BasicStockMarketBuilder setJournal(EventJournal journal) {
+        this.stockMarket.setJournal(journal);
+        return this;
+    }
+
+    /**
+     * @param snapshotter takes background snapshots of the journal, the recovery starts from the latest one
+     * @return this instance
+     */
+    BasicStockMarketBuilder setSnapshotter(JournalSnapshotter snapshotter) {
+        this.stockMarket.setSnapshotter(snapshotter);
+        return this;
+    }
+
+    /**
+     * @param tickSize smallest price increment of the market, one cent by default
+     * @return this instance
+     */
+    BasicStockMarketBuilder setTickSize(TickSize tickSize) {
+        this.stockMarket.setTickSize(tickSize);
+        return this;
+    }
+
+    /**
+     * @param metrics where the activity of the market is measured, e.g registered in JMX with {@link MarketMetrics#register(String)}
+     * @return this instance
+     */
+    BasicStockMarketBuilder setMetrics(MarketMetrics metrics) {
+        this.stockMarket.setMetrics(metrics);
+        return this;
+    }
+
+    /**
+     * @param capacity    maximum number of accepted orders that are not matched yet
+     * @param policy      what happens to an order that finds the intake full
+     * @param blockMillis longest wait of the caller under the {@link OverloadPolicy#BLOCK} policy
+     * @return this instance
+     */
+    BasicStockMarketBuilder setIntake(int capacity, OverloadPolicy policy, long blockMillis) {
+        this.stockMarket.setIntake(capacity, policy, blockMillis);
+        return this;
+    }
+
     /**
      * @return the {@link BasicStockMarket} instance that was being built
      */
@@ -0,0 +1,23 @@
+package stock.core.market;
+
+/**
+ * Receives every fill of a submitted order, the partial ones included, on the thread that matched it
+ * An order that rests in a {@link BasicStockMarket} can be matched by several workers, so its fills may arrive
+ * out of order, the remaining count tells them apart. A listener must not block, the matching waits for it,
+ * an exception it throws completes {@link OrderTicket#filled()} exceptionally
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface FillListener {
+
+    /**
+     * @param ticket    of the order that traded
+     * @param quantity  exchanged count of this fill
+     * @param price     price of the trade
+     * @param remaining count of the order that is left right after this fill, 0 once it is entirely consumed
+     */
+    void onFill(OrderTicket ticket, int quantity, double price, int remaining);
+
+}
@@ -0,0 +1,144 @@
+package stock.core.market;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed set of matcher threads shared by the {@link RingBufferStockMarket} shards of a {@link ShardedStockMarket}
+ * A shard is handed to the matcher with the fewest shards, which drains the rings of all its shards in turn,
+ * so thousands of symbols do not start thousands of threads. Every ring is still drained by a single thread,
+ * the book of a shard keeps a single writer. A matcher thread is started with its first shard and ends with its last one
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class MatcherGroup {
+
+    private final Matcher[] matchers;
+
+    /**
+     * @param threadsCount number of matcher threads
+     */
+    MatcherGroup(int threadsCount) {
+        if (threadsCount < 1) {
+            throw new IllegalArgumentException("A matcher group needs at least one thread");
+        }
+        this.matchers = new Matcher[threadsCount];
+        for (int i = 0; i < threadsCount; i++) {
+            this.matchers[i] = new Matcher(i);
+        }
+    }
+
+    /**
+     * @param shard that starts running
+     */
+    synchronized void attach(RingBufferStockMarket shard) {
+        Matcher matcher = this.matchers[0];
+        for (Matcher candidate : this.matchers) {
+            if (candidate.shards.size() < matcher.shards.size()) {
+                matcher = candidate;
+            }
+        }
+        matcher.shards.add(shard);
+        if (matcher.thread == null) {
+            matcher.start();
+        }
+    }
+
+    /**
+     * Returns once the matcher of the shard does not drain its ring anymore, the caller may drain it afterwards
+     *
+     * @param shard that stops running
+     */
+    void detach(RingBufferStockMarket shard) {
+        Matcher matcher = null;
+        Thread thread;
+        long passes;
+        synchronized (this) {
+            for (Matcher candidate : this.matchers) {
+                if (candidate.shards.remove(shard)) {
+                    matcher = candidate;
+                }
+            }
+            if (matcher == null) {
+                return;
+            }
+            thread = matcher.thread;
+            passes = matcher.passes;
+        }
+        // the pass that may have started before the removal still drains the shard
+        while (thread != null && thread.isAlive() && matcher.passes == passes) {
+            LockSupport.parkNanos(50000);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MatcherGroup [" + matchers.length + " Matchers]";
+    }
+
+    /**
+     * One thread and the shards it drains
+     */
+    private final class Matcher implements Runnable {
+
+        private final int index;
+
+        private final List<RingBufferStockMarket> shards = new CopyOnWriteArrayList<RingBufferStockMarket>();
+
+        /**
+         * Running thread, null while the matcher has no shard, guarded by the group
+         */
+        private Thread thread;
+
+        /**
+         * Number of passes over the shards that ended
+         */
+        private volatile long passes;
+
+        private Matcher(int index) {
+            this.index = index;
+        }
+
+        private void start() {
+            this.thread = new Thread(this, "RingBufferStockMarket matcher #" + this.index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        /**
+         * Spins while there is work in any of the rings, then backs off to yielding and parking
+         */
+        public void run() {
+            int idle = 0;
+
+            for (;;) {
+                if (this.shards.isEmpty()) {
+                    synchronized (MatcherGroup.this) {
+                        if (this.shards.isEmpty()) {
+                            this.thread = null;
+                            this.passes++;
+                            return;
+                        }
+                    }
+                }
+
+                int drained = 0;
+                for (RingBufferStockMarket shard : this.shards) {
+                    drained += shard.drain();
+                }
+                this.passes++;
+
+                if (drained > 0) {
+                    idle = 0;
+                } else if (++idle < 100) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(50000);
+                }
+            }
+        }
+    }
+}
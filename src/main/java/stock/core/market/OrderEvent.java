@@ -0,0 +1,85 @@
+package stock.core.market;
+
+import stock.core.feed.MarketDataSubscription;
+import stock.models.StockObject;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pre-allocated slot of the {@link OrderEventRing}
+ * Producers fill it in place, so publishing an order event allocates nothing
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+final class OrderEvent {
+
+    static final int SUPPLY = 1;
+    static final int DEMAND = 2;
+    static final int CANCEL = 3;
+    static final int AMEND = 4;
+    static final int SUBSCRIBE = 5;
+
+    int type;
+    StockObject order;
+    OrderTicket ticket;
+
+    /**
+     * Target and new values of a CANCEL or an AMEND, the order is found in the book by the matcher
+     */
+    long orderId;
+    long priceTicks;
+    int count;
+    CompletableFuture<Boolean> result;
+
+    /**
+     * Subscription of a SUBSCRIBE, attached to the feed by the matcher
+     */
+    MarketDataSubscription subscription;
+
+    /**
+     * @param type   SUPPLY or DEMAND
+     * @param order  the order carried by the event
+     * @param ticket of a submitted order, null if the order was added directly
+     */
+    void set(int type, StockObject order, OrderTicket ticket) {
+        this.type = type;
+        this.order = order;
+        this.ticket = ticket;
+    }
+
+    /**
+     * @param type       CANCEL or AMEND
+     * @param orderId    id of the resting order
+     * @param priceTicks new price of an AMEND
+     * @param count      new remaining count of an AMEND
+     * @param result     completed by the matcher with false if the order is not resting anymore
+     */
+    void set(int type, long orderId, long priceTicks, int count, CompletableFuture<Boolean> result) {
+        this.type = type;
+        this.orderId = orderId;
+        this.priceTicks = priceTicks;
+        this.count = count;
+        this.result = result;
+    }
+
+    /**
+     * @param subscription attached to the market data once the events before it were handled
+     */
+    void set(MarketDataSubscription subscription) {
+        this.type = SUBSCRIBE;
+        this.subscription = subscription;
+    }
+
+    /**
+     * Drops the reference to the order after the event was handled
+     */
+    void clear() {
+        this.type = 0;
+        this.order = null;
+        this.ticket = null;
+        this.result = null;
+        this.subscription = null;
+    }
+}
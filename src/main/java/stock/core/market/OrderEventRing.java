@@ -0,0 +1,166 @@
+package stock.core.market;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated multi producer / single consumer ring of {@link OrderEvent}
+ * A producer claims a sequence, fills the slot of that sequence and publishes it.
+ * The consumer handles the published slots in sequence order.
+ * No locks are taken, a producer only waits when the ring is full
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+final class OrderEventRing {
+
+    /**
+     * Callback of the consumer for every published event
+     */
+    interface Handler {
+        void onEvent(OrderEvent event);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final OrderEvent[] events;
+
+    /**
+     * Sequence that was published in every slot, -1 if the slot was never published
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * Last sequence claimed by a producer
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * Last sequence handled by the consumer
+     */
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    OrderEventRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the ring must be positive");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = this.capacity - 1;
+        this.events = new OrderEvent[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+
+        for (int i = 0; i < this.capacity; i++) {
+            this.events[i] = new OrderEvent();
+            this.published.set(i, -1);
+        }
+    }
+
+    /**
+     * @return number of slots of the ring
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Claims the next sequence, waiting for the consumer if the ring is full
+     *
+     * @return the claimed sequence
+     */
+    long next() {
+        return next(1);
+    }
+
+    /**
+     * Claims a run of sequences with a single increment, waiting for the consumer until they all fit in the ring
+     *
+     * @param count number of sequences, at most the capacity of the ring
+     * @return the last claimed sequence, the run starts at this sequence minus count plus one
+     */
+    long next(int count) {
+        if (count < 1 || count > capacity) {
+            throw new IllegalArgumentException("Can not claim " + count + " slots of a ring of " + capacity);
+        }
+        long sequence = claimed.addAndGet(count);
+        int spins = 0;
+        while (sequence - capacity > consumed.get()) {
+            if (++spins < 100) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(1000);
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * @param sequence claimed by {@link #next()}
+     * @return the slot of the sequence
+     */
+    OrderEvent get(long sequence) {
+        return events[(int) sequence & mask];
+    }
+
+    /**
+     * Makes the slot of the sequence visible to the consumer
+     *
+     * @param sequence claimed by {@link #next()}
+     */
+    void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Handles every event published after the last consumed one, in sequence order
+     * Must only be called by the single consumer
+     *
+     * @param handler consumer callback
+     * @return the number of handled events
+     */
+    int drain(Handler handler) {
+        long next = consumed.get() + 1;
+        long first = next;
+
+        while (published.get((int) next & mask) == next) {
+            OrderEvent event = events[(int) next & mask];
+            handler.onEvent(event);
+            event.clear();
+            next++;
+        }
+
+        if (next != first) {
+            consumed.lazySet(next - 1);
+        }
+        return (int) (next - first);
+    }
+
+    /**
+     * @return last sequence claimed by a producer, -1 if none was claimed yet
+     */
+    long claimed() {
+        return claimed.get();
+    }
+
+    /**
+     * @return last sequence handled by the consumer, -1 if none was handled yet
+     */
+    long consumed() {
+        return consumed.get();
+    }
+
+    /**
+     * @return number of events that were claimed but not handled yet
+     */
+    long size() {
+        return claimed.get() - consumed.get();
+    }
+}
@@ -0,0 +1,170 @@
+package stock.core.market;
+
+import stock.core.metrics.MarketMetrics;
+import stock.core.pool.BasicThreadPool;
+import stock.exceptions.StockMarketOverloadedException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded intake of the supplies and demands of a stock market
+ * An order takes a place when it is handed to the market and gives it back once its first matching is done,
+ * so a burst of orders waits in front of the market or is refused instead of piling up tasks and events
+ * behind it. Cancellations and amendments never go through the intake. What happens to an order
+ * that finds the intake full is decided by the {@link OverloadPolicy}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+class OrderIntake {
+
+    /**
+     * Half of the queue of a {@link BasicThreadPool}, the matching of amended orders takes tasks without a place
+     */
+    static final int DEFAULT_CAPACITY = BasicThreadPool.DEFAULT_QUEUE_CAPACITY / 2;
+
+    static final long DEFAULT_BLOCK_MILLIS = 1000;
+
+    private static final long PARK_NANOS = 100000;
+
+    private final int capacity;
+    private final OverloadPolicy policy;
+    private final long blockNanos;
+
+    /**
+     * Depth from which the {@link OverloadPolicy#SHED} policy refuses the orders that would only rest in the book
+     */
+    private final int sheddingDepth;
+
+    /**
+     * Orders that were accepted and whose first matching is not done yet
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * Counts the accepted and refused orders, null if the market is not measured
+     */
+    private volatile MarketMetrics metrics;
+
+    OrderIntake() {
+        this(DEFAULT_CAPACITY, OverloadPolicy.REJECT, DEFAULT_BLOCK_MILLIS);
+    }
+
+    /**
+     * @param capacity    maximum number of accepted orders whose first matching is not done yet
+     * @param policy      what happens to an order that finds the intake full
+     * @param blockMillis longest wait for room under the {@link OverloadPolicy#BLOCK} policy
+     */
+    OrderIntake(int capacity, OverloadPolicy policy, long blockMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the intake must be positive");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.blockNanos = blockMillis * 1000000;
+        this.sheddingDepth = capacity - capacity / 4;
+    }
+
+    /**
+     * @param metrics of the market, null to measure nothing
+     */
+    void setMetrics(MarketMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Checked before the market looks at the book, so the priority of an order is only computed under overload
+     *
+     * @param orders number of orders that ask for a place
+     * @return true if the orders are refused unless one of them can trade right away
+     */
+    boolean isShedding(int orders) {
+        return this.policy == OverloadPolicy.SHED && this.depth.get() + orders > this.sheddingDepth;
+    }
+
+    /**
+     * Takes a place for every order, a batch is accepted or refused as a whole
+     * Under the {@link OverloadPolicy#BLOCK} policy the caller waits for room, at most the block timeout
+     *
+     * @param orders    number of orders that ask for a place
+     * @param isPassive true if none of the orders can trade right away, only used by the {@link OverloadPolicy#SHED} policy
+     * @throws StockMarketOverloadedException if the orders were refused
+     */
+    void admit(int orders, boolean isPassive) throws StockMarketOverloadedException {
+        if (orders > this.capacity) {
+            this.rejected(orders);
+            throw new StockMarketOverloadedException("A batch of " + orders + " orders does not fit in the intake of "
+                    + this.capacity + " orders of the StockMarket");
+        }
+        if (isPassive && this.isShedding(orders)) {
+            MarketMetrics current = this.metrics;
+            if (current != null) {
+                current.ordersShed(orders);
+            }
+            throw new StockMarketOverloadedException("The StockMarket is overloaded, orders that would only rest in the book are shed");
+        }
+        if (this.tryAdmit(orders)) {
+            return;
+        }
+
+        if (this.policy == OverloadPolicy.BLOCK) {
+            long deadline = System.nanoTime() + this.blockNanos;
+            while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(PARK_NANOS);
+                if (this.tryAdmit(orders)) {
+                    return;
+                }
+            }
+        }
+        this.rejected(orders);
+        throw new StockMarketOverloadedException("The intake of the StockMarket is full with " + this.depth.get() + " orders");
+    }
+
+    /**
+     * @param orders number of orders whose first matching is done, or that could not be added after all
+     */
+    void release(int orders) {
+        this.depth.addAndGet(-orders);
+        MarketMetrics current = this.metrics;
+        if (current != null) {
+            current.ordersReleased(orders);
+        }
+    }
+
+    /**
+     * @return number of accepted orders whose first matching is not done yet
+     */
+    int depth() {
+        return this.depth.get();
+    }
+
+    private boolean tryAdmit(int orders) {
+        int current;
+        do {
+            current = this.depth.get();
+            if (current + orders > this.capacity) {
+                return false;
+            }
+        } while (!this.depth.compareAndSet(current, current + orders));
+
+        MarketMetrics measured = this.metrics;
+        if (measured != null) {
+            measured.ordersAdmitted(orders);
+        }
+        return true;
+    }
+
+    private void rejected(int orders) {
+        MarketMetrics current = this.metrics;
+        if (current != null) {
+            current.ordersRejected(orders);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OrderIntake " + this.policy + " [" + this.depth.get() + "/" + this.capacity + " orders]";
+    }
+}
@@ -0,0 +1,138 @@
+package stock.core.market;
+
+import stock.models.StockObject;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of an order that was submitted to a {@link StockMarket} without blocking
+ * The acknowledgement completes once the market accepted the order,
+ * the fill completes once the order was entirely consumed. Every fill on the way, the partial ones included,
+ * is given to the {@link FillListener}s of the ticket
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class OrderTicket {
+
+    private final StockObject order;
+
+    private final CompletableFuture<OrderTicket> acknowledgement = new CompletableFuture<OrderTicket>();
+
+    private final CompletableFuture<OrderTicket> fill = new CompletableFuture<OrderTicket>();
+
+    private final List<FillListener> fillListeners = new CopyOnWriteArrayList<FillListener>();
+
+    /**
+     * Count of the order that was exchanged so far
+     */
+    private final AtomicInteger filledQuantity = new AtomicInteger();
+
+    /**
+     * @param order the submitted supply or demand
+     */
+    OrderTicket(StockObject order) {
+        this.order = order;
+    }
+
+    /**
+     * @return the submitted supply or demand
+     */
+    public StockObject getOrder() {
+        return order;
+    }
+
+    /**
+     * @return future completed when the order was accepted by the market
+     */
+    public CompletableFuture<OrderTicket> acknowledged() {
+        return acknowledgement;
+    }
+
+    /**
+     * @return future completed when the order was entirely consumed, cancelled if the order was cancelled,
+     * completed exceptionally with the exception of a {@link FillListener} that failed
+     */
+    public CompletableFuture<OrderTicket> filled() {
+        return fill;
+    }
+
+    /**
+     * A listener that is added while the order trades only gets the fills that come after it
+     *
+     * @param listener receives every fill of the order
+     * @return this instance
+     */
+    public OrderTicket addFillListener(FillListener listener) {
+        this.fillListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * @return count of the order that was exchanged so far
+     */
+    public int getFilledQuantity() {
+        return filledQuantity.get();
+    }
+
+    /**
+     * Called by the market after every fill, before the fill future completes for the last one
+     * A listener that throws does not stop the matching nor the other listeners, the fill future completes
+     * exceptionally with the first exception instead, the order itself keeps trading
+     *
+     * @param quantity  exchanged count
+     * @param price     price of the trade
+     * @param remaining count of the order that is left after the fill
+     */
+    void traded(int quantity, double price, int remaining) {
+        this.filledQuantity.addAndGet(quantity);
+        for (FillListener listener : this.fillListeners) {
+            try {
+                listener.onFill(this, quantity, price, remaining);
+            } catch (RuntimeException e) {
+                this.acknowledgement.complete(this);
+                this.fill.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Marks the order as accepted by the market
+     */
+    void acknowledge() {
+        this.acknowledgement.complete(this);
+    }
+
+    /**
+     * Marks the order as entirely consumed, an order can not be filled before it was accepted
+     */
+    void fill() {
+        this.acknowledgement.complete(this);
+        this.fill.complete(this);
+    }
+
+    /**
+     * Marks the order as cancelled before it was entirely consumed
+     */
+    void cancel() {
+        this.acknowledgement.complete(this);
+        this.fill.cancel(false);
+    }
+
+    /**
+     * @param cause the reason why the market could not handle the order
+     */
+    void fail(Throwable cause) {
+        this.acknowledgement.completeExceptionally(cause);
+        this.fill.completeExceptionally(cause);
+    }
+
+    @Override
+    public String toString() {
+        return "OrderTicket " + order.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package stock.core.market;
+
+/**
+ * What a stock market does with an order that finds its intake full
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public enum OverloadPolicy {
+
+    /**
+     * The order is refused right away with a {@link stock.exceptions.StockMarketOverloadedException}
+     */
+    REJECT,
+
+    /**
+     * The caller waits for room in the intake, the order is refused if there is still none after the block timeout.
+     * The submit methods wait as well, so they only return right away under the other policies
+     */
+    BLOCK,
+
+    /**
+     * Once the intake is three quarters full, the orders that would only rest in the book are refused,
+     * the room that is left is kept for the orders that can trade right away. A full intake refuses every order
+     */
+    SHED;
+
+    /**
+     * @param name case insensitive name of the policy, e.g "shed"
+     * @return the policy with that name or {@link #REJECT} if the name is null
+     */
+    public static OverloadPolicy fromName(String name) {
+        if (name == null) {
+            return REJECT;
+        }
+        return OverloadPolicy.valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,1059 @@
+package stock.core.market;
+
+import com.sun.istack.internal.NotNull;
+import stock.core.book.OrderBook;
+import stock.core.feed.MarketDataFeed;
+import stock.core.feed.MarketDataSubscription;
+import stock.core.history.HistoryCursor;
+import stock.core.history.HistoryEventType;
+import stock.core.history.HistoryJournal;
+import stock.core.history.HistoryQuery;
+import stock.core.log.AsyncHistoryLogger;
+import stock.core.settlement.SettlementLedger;
+import stock.exceptions.StockMarketAlreadyRunningException;
+import stock.exceptions.StockMarketAlreadyStoppedException;
+import stock.exceptions.StockMarketOverloadedException;
+import stock.models.Demand;
+import stock.models.OrderPool;
+import stock.models.ParticipantRegistry;
+import stock.models.StockObject;
+import stock.models.StockPerson;
+import stock.models.Supply;
+import stock.models.TickSize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single writer {@link StockMarket} implementation
+ * Buyers and sellers only publish their orders into a pre-allocated {@link OrderEventRing}.
+ * One matcher thread consumes the ring and is the only one that touches the order book,
+ * so the matching itself runs without any lock. The matcher thread is either the market's own
+ * or one of a {@link MatcherGroup} that drains the rings of several markets in turn. A demand that can not be matched rests in
+ * the book until a supply at or below its price arrives,
+ * every trade takes place at the price of the order that was resting in the book
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class RingBufferStockMarket implements StockMarket {
+
+    static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final Object HISTORY_LOCK = new Object();
+
+    /**
+     * Binary records of all the actions that took place in the runtime, rendered to text on demand,
+     * allocated by {@link #history()} once the tick size and the capacity are known
+     */
+    private volatile HistoryJournal history;
+
+    /**
+     * Number of history records that are kept
+     */
+    private int historyCapacity = HistoryJournal.DEFAULT_CAPACITY;
+
+    /**
+     * Smallest price increment, the book and the history only see prices in ticks
+     */
+    private TickSize tickSize = TickSize.DEFAULT;
+
+    /**
+     * Resting supplies and demands, only touched by the matcher thread
+     */
+    private OrderBook orderBook;
+
+    /**
+     * Tickets of the submitted orders that were not entirely consumed yet by order id, only touched by the matcher thread
+     * A book may hand out views of its orders instead of the objects they were added with
+     */
+    private final Map<Long, OrderTicket> tickets = new HashMap<Long, OrderTicket>();
+
+    /**
+     * Source of the ids given to the published orders
+     */
+    private AtomicLong lastOrderId = new AtomicLong();
+
+    /**
+     * Shard of every resting order of a sharded market by id, null if the market is not a shard
+     */
+    private Map<Long, StockMarket> orderShards;
+
+    /**
+     * Takes back the pooled orders that were removed from the book
+     */
+    private final OrderPool orderPool = new OrderPool();
+
+    /**
+     * Gives the ids of the buyers and sellers of the market
+     */
+    private ParticipantRegistry participantRegistry = new ParticipantRegistry();
+
+    /**
+     * Cash and positions of the buyers and sellers of the market, changed on every fill
+     */
+    private SettlementLedger settlementLedger = new SettlementLedger();
+
+    /**
+     * Incremental market data of the book
+     */
+    private MarketDataFeed marketDataFeed = new MarketDataFeed(StockObject.DEFAULT_SYMBOL);
+
+    /**
+     * Best prices of the book once the last drained events were handled, written by the matcher thread
+     * and read by the producers while the intake sheds orders
+     */
+    private volatile long bestSupplyPrice = Long.MAX_VALUE;
+    private volatile long bestDemandPrice = Long.MIN_VALUE;
+
+    private OrderEventRing ring = new OrderEventRing(DEFAULT_CAPACITY);
+
+    private volatile boolean isRunning = false;
+
+    /**
+     * Enables runtime logger
+     */
+    private boolean enabledLogger = false;
+
+    /**
+     * Writes the history on its own thread while the runtime logger is enabled, created on the first run if not set
+     */
+    private AsyncHistoryLogger historyLogger;
+
+    /**
+     * Position of the history logger in the history, only used by the matcher thread
+     */
+    private AsyncHistoryLogger.Tail historyTail;
+
+    /**
+     * Bounds the orders that were published and not matched yet, below the capacity of the ring
+     * so a full intake refuses orders before a publisher has to wait for a slot
+     */
+    private OrderIntake intake = new OrderIntake();
+
+    private Thread matcher;
+
+    /**
+     * Matcher threads shared with other markets, null if the market starts its own matcher thread
+     */
+    private MatcherGroup matcherGroup;
+
+    private final OrderEventRing.Handler handler = new OrderEventRing.Handler() {
+        public void onEvent(OrderEvent event) {
+            // If we don't catch RuntimeException,
+            // the matcher thread would die and the ring would fill up
+            try {
+                if (event.ticket != null) {
+                    tickets.put(event.order.getId(), event.ticket);
+                }
+                if (event.type == OrderEvent.SUPPLY) {
+                    onSupply((Supply) event.order);
+                } else if (event.type == OrderEvent.DEMAND) {
+                    onDemand((Demand) event.order);
+                } else if (event.type == OrderEvent.CANCEL) {
+                    event.result.complete(onCancel(event.orderId));
+                } else if (event.type == OrderEvent.AMEND) {
+                    event.result.complete(onAmend(event.orderId, event.priceTicks, event.count));
+                } else if (event.type == OrderEvent.SUBSCRIBE) {
+                    marketDataFeed.attach(event.subscription, orderBook);
+                }
+            } catch (RuntimeException e) {
+                if (event.ticket != null) {
+                    tickets.remove(event.order.getId());
+                    event.ticket.fail(e);
+                }
+                if (event.result != null) {
+                    event.result.completeExceptionally(e);
+                }
+                // an order added directly has nobody waiting for it, the report is all that is left of the failure
+                System.out.println("Matcher failed to handle an order event of type " + event.type + ": " + e);
+                e.printStackTrace(System.out);
+            } finally {
+                if (event.type == OrderEvent.SUPPLY || event.type == OrderEvent.DEMAND) {
+                    intake.release(1);
+                }
+            }
+        }
+    };
+
+    /**
+     * Method to enable runtime logs
+     *
+     * @param enabledLogger boolean for runtime logs
+     */
+    public void setEnabledLogger(boolean enabledLogger) {
+        this.enabledLogger = enabledLogger;
+    }
+
+    /**
+     * Must be called before the market is running
+     *
+     * @param historyLogger writes the history of the market while the runtime logger is enabled, e.g shared by the shards of a market
+     */
+    public void setHistoryLogger(AsyncHistoryLogger historyLogger) {
+        this.historyLogger = historyLogger;
+    }
+
+    /**
+     * Must be called before the market is running
+     *
+     * @param historyCapacity number of history records that are kept
+     */
+    public void setHistoryCapacity(int historyCapacity) {
+        if (historyCapacity < 1) {
+            throw new IllegalArgumentException("The capacity of the history must be positive");
+        }
+        this.historyCapacity = historyCapacity;
+    }
+
+    /**
+     * Must be called before the first order is created for the market
+     *
+     * @param tickSize smallest price increment of the market
+     */
+    public void setTickSize(TickSize tickSize) {
+        this.tickSize = tickSize;
+        this.marketDataFeed.setTickSize(tickSize);
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param marketDataFeed incremental market data of the book, e.g of the symbol of a shard
+     */
+    public void setMarketDataFeed(MarketDataFeed marketDataFeed) {
+        this.marketDataFeed = marketDataFeed;
+        this.marketDataFeed.setTickSize(this.tickSize);
+    }
+
+    /**
+     * @return the smallest price increment of the market
+     */
+    public TickSize getTickSize() {
+        return tickSize;
+    }
+
+    /**
+     * @return the pool of the orders of this market
+     */
+    public OrderPool getOrderPool() {
+        return orderPool;
+    }
+
+    /**
+     * Must be called before the first participant is created
+     *
+     * @param participantRegistry gives the ids of the buyers and sellers of the market
+     */
+    public void setParticipantRegistry(ParticipantRegistry participantRegistry) {
+        this.participantRegistry = participantRegistry;
+    }
+
+    /**
+     * @return the registry of the buyers and sellers of the market
+     */
+    public ParticipantRegistry getParticipantRegistry() {
+        return participantRegistry;
+    }
+
+    /**
+     * Must be called before the first participant is created
+     *
+     * @param settlementLedger settles the fills of the market, e.g shared with other markets
+     */
+    public void setSettlementLedger(SettlementLedger settlementLedger) {
+        this.settlementLedger = settlementLedger;
+    }
+
+    /**
+     * @return the ledger the fills of the market are settled in
+     */
+    public SettlementLedger getSettlementLedger() {
+        return settlementLedger;
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param lastOrderId source of the order ids, e.g shared by the shards of a market so an id names a single order
+     */
+    public void setOrderIds(AtomicLong lastOrderId) {
+        this.lastOrderId = lastOrderId;
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param orderShards where the shard records the ids of its resting orders, so a cancel by id goes
+     *                    to the right shard right away, shared by the shards of a market
+     */
+    public void setOrderShards(Map<Long, StockMarket> orderShards) {
+        this.orderShards = orderShards;
+    }
+
+    /**
+     * @param orderBook the book that stores the resting supplies and demands
+     */
+    public void setOrderBook(OrderBook orderBook) {
+        this.orderBook = orderBook;
+    }
+
+    /**
+     * Must be called before the market is running
+     *
+     * @param capacity number of order events that can wait for the matcher
+     */
+    public void setCapacity(int capacity) {
+        this.ring = new OrderEventRing(capacity);
+    }
+
+    /**
+     * Must be called before the market is running
+     *
+     * @param matcherGroup matcher threads shared with other markets, e.g the shards of a market
+     */
+    void setMatcherGroup(MatcherGroup matcherGroup) {
+        this.matcherGroup = matcherGroup;
+    }
+
+    /**
+     * Must be called before the first order
+     *
+     * @param capacity    maximum number of published orders that are not matched yet
+     * @param policy      what happens to an order that finds the intake full
+     * @param blockMillis longest wait of the publisher under the {@link OverloadPolicy#BLOCK} policy
+     */
+    public void setIntake(int capacity, OverloadPolicy policy, long blockMillis) {
+        this.intake = new OrderIntake(capacity, policy, blockMillis);
+    }
+
+    /**
+     * @return number of published orders the matcher did not match yet
+     */
+    public int getIntakeDepth() {
+        return this.intake.depth();
+    }
+
+    /**
+     * Publishes a new Supply for the matcher
+     *
+     * @param supply added by the seller
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the intake is full
+     */
+    public void addSupply(@NotNull Supply supply) {
+        try {
+            this.admit(supply, false);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        this.publish(OrderEvent.SUPPLY, supply, null);
+    }
+
+    /**
+     * Publishes a new Demand for the matcher
+     *
+     * @param demand added by the buyer
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the intake is full
+     */
+    public void addDemand(@NotNull Demand demand) {
+        try {
+            this.admit(demand, true);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        this.publish(OrderEvent.DEMAND, demand, null);
+    }
+
+    /**
+     * Publishes a new Supply for the matcher
+     *
+     * @param supply added by the seller
+     * @return ticket of the supply, acknowledged by the matcher
+     */
+    public OrderTicket submitSupply(@NotNull Supply supply) {
+        OrderTicket ticket = new OrderTicket(supply);
+        try {
+            this.admit(supply, false);
+        } catch (StockMarketOverloadedException e) {
+            ticket.fail(e);
+            return ticket;
+        }
+        this.publish(OrderEvent.SUPPLY, supply, ticket);
+        return ticket;
+    }
+
+    /**
+     * Publishes a new Demand for the matcher
+     *
+     * @param demand added by the buyer
+     * @return ticket of the demand, acknowledged by the matcher
+     */
+    public OrderTicket submitDemand(@NotNull Demand demand) {
+        OrderTicket ticket = new OrderTicket(demand);
+        try {
+            this.admit(demand, true);
+        } catch (StockMarketOverloadedException e) {
+            ticket.fail(e);
+            return ticket;
+        }
+        this.publish(OrderEvent.DEMAND, demand, ticket);
+        return ticket;
+    }
+
+    /**
+     * Publishes a batch of supplies for the matcher, claiming the slots of the ring once per run of slots
+     *
+     * @param supplies added by the sellers
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the batch does not fit in the intake
+     */
+    public void addSupplies(@NotNull Collection<? extends Supply> supplies) {
+        List<StockObject> batch = new ArrayList<StockObject>(supplies);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.admit(batch, false);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        this.publish(OrderEvent.SUPPLY, batch, null);
+    }
+
+    /**
+     * Publishes a batch of demands for the matcher, claiming the slots of the ring once per run of slots
+     *
+     * @param demands added by the buyers
+     * @throws RejectedExecutionException caused by a {@link StockMarketOverloadedException} if the batch does not fit in the intake
+     */
+    public void addDemands(@NotNull Collection<? extends Demand> demands) {
+        List<StockObject> batch = new ArrayList<StockObject>(demands);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.admit(batch, true);
+        } catch (StockMarketOverloadedException e) {
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+        this.publish(OrderEvent.DEMAND, batch, null);
+    }
+
+    /**
+     * Publishes a batch of supplies for the matcher
+     *
+     * @param supplies added by the sellers
+     * @return tickets of the supplies in the order of the batch, acknowledged by the matcher
+     */
+    public List<OrderTicket> submitSupplies(@NotNull Collection<? extends Supply> supplies) {
+        List<StockObject> batch = new ArrayList<StockObject>(supplies);
+        List<OrderTicket> tickets = new ArrayList<OrderTicket>(batch.size());
+        for (StockObject supply : batch) {
+            tickets.add(new OrderTicket(supply));
+        }
+        if (batch.isEmpty()) {
+            return tickets;
+        }
+        try {
+            this.admit(batch, false);
+        } catch (StockMarketOverloadedException e) {
+            for (OrderTicket ticket : tickets) {
+                ticket.fail(e);
+            }
+            return tickets;
+        }
+        this.publish(OrderEvent.SUPPLY, batch, tickets);
+        return tickets;
+    }
+
+    /**
+     * Publishes a batch of demands for the matcher
+     *
+     * @param demands added by the buyers
+     * @return tickets of the demands in the order of the batch, acknowledged by the matcher
+     */
+    public List<OrderTicket> submitDemands(@NotNull Collection<? extends Demand> demands) {
+        List<StockObject> batch = new ArrayList<StockObject>(demands);
+        List<OrderTicket> tickets = new ArrayList<OrderTicket>(batch.size());
+        for (StockObject demand : batch) {
+            tickets.add(new OrderTicket(demand));
+        }
+        if (batch.isEmpty()) {
+            return tickets;
+        }
+        try {
+            this.admit(batch, true);
+        } catch (StockMarketOverloadedException e) {
+            for (OrderTicket ticket : tickets) {
+                ticket.fail(e);
+            }
+            return tickets;
+        }
+        this.publish(OrderEvent.DEMAND, batch, tickets);
+        return tickets;
+    }
+
+    /**
+     * Publishes the cancel for the matcher, the order is only looked up once the events before it were handled
+     *
+     * @param orderId id given to the order when it was published
+     * @return future completed by the matcher, with false if there is no resting order with this id
+     */
+    public CompletableFuture<Boolean> cancel(long orderId) {
+        CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        this.publish(OrderEvent.CANCEL, orderId, 0, 0, result);
+        return result;
+    }
+
+    /**
+     * Publishes the amendment for the matcher
+     * A smaller count at the same price keeps the place of the order, otherwise the order is queued
+     * again behind the orders of its new price and matched like a new order
+     *
+     * @param orderId id given to the order when it was published
+     * @param price   new price, on the tick size of the market
+     * @param count   new remaining count, 0 cancels the order
+     * @return future completed by the matcher, with false if there is no resting order with this id
+     */
+    public CompletableFuture<Boolean> amend(long orderId, double price, int count) {
+        if (count <= 0) {
+            return this.cancel(orderId);
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        this.publish(OrderEvent.AMEND, orderId, this.tickSize.toTicks(price), count, result);
+        return result;
+    }
+
+    /**
+     * Starts the matcher thread
+     *
+     * @return StockMarket instance
+     * @throws StockMarketAlreadyRunningException threw If it's already running
+     */
+    public StockMarket run() throws StockMarketAlreadyRunningException {
+        if (this.isRunning) {
+            throw new StockMarketAlreadyRunningException("The StockMarket is already running");
+        }
+        if (this.enabledLogger) {
+            if (this.historyLogger == null) {
+                this.historyLogger = new AsyncHistoryLogger();
+            }
+            this.historyTail = this.historyLogger.open(this.history());
+        }
+        this.isRunning = true;
+        if (this.matcherGroup != null) {
+            this.matcherGroup.attach(this);
+            return this;
+        }
+        this.matcher = new Thread(new Runnable() {
+            public void run() {
+                match();
+            }
+        }, "RingBufferStockMarket matcher");
+        this.matcher.start();
+        return this;
+    }
+
+    /**
+     * Stops the matcher thread, or leaves the shared one, after the events that were already published are handled
+     * A publisher that already claimed a slot is waited for, an event published after the market stopped
+     * waits in the ring for the next run, like the ones published before the first run
+     *
+     * @return StockMarket instance
+     * @throws StockMarketAlreadyStoppedException threw If it's already stopped
+     */
+    public StockMarket stop() throws StockMarketAlreadyStoppedException {
+        if (!this.isRunning) {
+            throw new StockMarketAlreadyStoppedException("The StockMarket is already stopped");
+        }
+        this.isRunning = false;
+        if (this.matcherGroup != null) {
+            this.matcherGroup.detach(this);
+            this.drainClaimed();
+        } else {
+            try {
+                this.matcher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (this.historyTail != null) {
+            this.historyLogger.close(this.historyTail);
+            this.historyTail = null;
+        }
+        return this;
+    }
+
+    /**
+     * Publishes the subscription for the matcher, which attaches it once the events before it were handled
+     * The subscription first gets the current depth and top of book of the market
+     *
+     * @param subscription receives the market data of the book
+     */
+    public void subscribe(@NotNull MarketDataSubscription subscription) {
+        long sequence = this.ring.next();
+        this.ring.get(sequence).set(subscription);
+        this.ring.publish(sequence);
+    }
+
+    /**
+     * Streams the history events that match the query without blocking the matching
+     *
+     * @param query filters of the events
+     * @return cursor over the events that were recorded before this call, in the order they were recorded
+     */
+    public HistoryCursor queryHistory(@NotNull HistoryQuery query) {
+        return this.history().query(query);
+    }
+
+    /**
+     * Method to print every action that took place in the market
+     *
+     * @return The whole history as a String
+     */
+    public String printHistory() {
+        return this.history().renderAll();
+    }
+
+    /**
+     * @param type   of the order event
+     * @param order  carried by the event
+     * @param ticket of the order, null if it was added directly
+     */
+    private void publish(int type, StockObject order, OrderTicket ticket) {
+        try {
+            order.setId(this.lastOrderId.incrementAndGet());
+        } catch (RuntimeException e) {
+            // the order never reaches the matcher, which is the one that gives the place back
+            this.intake.release(1);
+            throw e;
+        }
+        this.indexed(order.getId());
+        long sequence = this.ring.next();
+        this.ring.get(sequence).set(type, order, ticket);
+        this.ring.publish(sequence);
+    }
+
+    /**
+     * @param type       CANCEL or AMEND
+     * @param orderId    id of the resting order
+     * @param priceTicks new price of an amendment
+     * @param count      new count of an amendment
+     * @param result     completed by the matcher
+     */
+    private void publish(int type, long orderId, long priceTicks, int count, CompletableFuture<Boolean> result) {
+        long sequence = this.ring.next();
+        this.ring.get(sequence).set(type, orderId, priceTicks, count, result);
+        this.ring.publish(sequence);
+    }
+
+    /**
+     * Publishes a batch in runs of at most the capacity of the ring, every run is claimed with one increment
+     * The matcher sees the whole run in the same drain cycle once the producer published it
+     *
+     * @param type    of the order events
+     * @param orders  carried by the events
+     * @param tickets of the orders in the same order, null if they were added directly
+     */
+    private void publish(int type, List<StockObject> orders, List<OrderTicket> tickets) {
+        // ids first, a claimed slot must always be published or the matcher waits for it forever
+        long firstId = this.lastOrderId.getAndAdd(orders.size()) + 1;
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setId(firstId + i);
+            }
+            for (int i = 0; i < orders.size(); i++) {
+                this.indexed(firstId + i);
+            }
+        } catch (RuntimeException e) {
+            this.intake.release(orders.size());
+            throw e;
+        }
+
+        int index = 0;
+        while (index < orders.size()) {
+            int count = Math.min(orders.size() - index, this.ring.capacity());
+            long last = this.ring.next(count);
+            long first = last - count + 1;
+            for (long sequence = first; sequence <= last; sequence++, index++) {
+                this.ring.get(sequence).set(type, orders.get(index), tickets != null ? tickets.get(index) : null);
+            }
+            for (long sequence = first; sequence <= last; sequence++) {
+                this.ring.publish(sequence);
+            }
+        }
+    }
+
+    /**
+     * Takes a place in the intake for the order, whether it can trade right away is only looked at under overload
+     *
+     * @param order    supply or demand handed to the market
+     * @param isDemand true for a demand
+     * @throws StockMarketOverloadedException if the order was refused
+     */
+    private void admit(StockObject order, boolean isDemand) throws StockMarketOverloadedException {
+        boolean isPassive = this.intake.isShedding(1) && !this.crosses(isDemand, order.getPriceTicks());
+        this.intake.admit(1, isPassive);
+    }
+
+    /**
+     * @param batch    supplies or demands handed to the market at once
+     * @param isDemand true for demands
+     * @throws StockMarketOverloadedException if the batch was refused
+     */
+    private void admit(List<StockObject> batch, boolean isDemand) throws StockMarketOverloadedException {
+        boolean isPassive = this.intake.isShedding(batch.size());
+        for (int i = 0; isPassive && i < batch.size(); i++) {
+            isPassive = !this.crosses(isDemand, batch.get(i).getPriceTicks());
+        }
+        this.intake.admit(batch.size(), isPassive);
+    }
+
+    /**
+     * Tells whether an order would trade right away against the book as the matcher last left it
+     *
+     * @param isDemand true for a demand, false for a supply
+     * @param price    price of the order in ticks
+     * @return true if the best resting order of the other side is at a price the order accepts
+     */
+    private boolean crosses(boolean isDemand, long price) {
+        return isDemand ? price >= this.bestSupplyPrice : price <= this.bestDemandPrice;
+    }
+
+    /**
+     * Loop of the matcher thread
+     * Spins while there is work, then backs off to yielding and parking when the ring stays empty
+     */
+    private void match() {
+        int idle = 0;
+
+        while (this.isRunning) {
+            if (this.drain() > 0) {
+                idle = 0;
+            } else if (++idle < 100) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50000);
+            }
+        }
+
+        this.drainClaimed();
+    }
+
+    /**
+     * Handles events until every slot that was claimed so far is handled, a single drain would miss the events
+     * of the publishers that claimed their slot before the market stopped and publish it afterwards.
+     * The slots claimed during the wait are left for the next run, so publishers that keep going can not hold it up
+     */
+    private void drainClaimed() {
+        long last = this.ring.claimed();
+        while (this.ring.consumed() < last) {
+            if (this.drain() == 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Handles the events that were published, called by the matcher thread of the market or of a {@link MatcherGroup}
+     *
+     * @return number of handled events
+     */
+    int drain() {
+        int drained = this.ring.drain(this.handler);
+        if (drained > 0) {
+            this.bestSupplyPrice = this.orderBook.bestSupplyPrice();
+            this.bestDemandPrice = this.orderBook.bestDemandPrice();
+        }
+        return drained;
+    }
+
+    /**
+     * @param supply taken from the ring
+     */
+    private void onSupply(Supply supply) {
+        this.orderBook.addSupply(supply);
+        this.marketDataFeed.levelChanged(this.orderBook, false, supply.getPriceTicks());
+        this.updateHistory(HistoryEventType.SUPPLY_ADDED, supply.getOwner(), null, supply.getPriceTicks(), supply.getCount());
+        this.acknowledge(supply);
+        int generation = supply.getGeneration();
+        this.matchSupply(supply);
+        matchingEnded(supply, generation);
+    }
+
+    /**
+     * Fills the supply with the resting demands until one of them is missing
+     *
+     * @param supply resting in the book
+     */
+    private void matchSupply(Supply supply) {
+        // a consumed supply goes back to its pool and may be reused by a producer before the loop checks it
+        int generation = supply.getGeneration();
+        while (supply.getGeneration() == generation && supply.getCount() > 0) {
+            Demand demand = this.orderBook.matchingDemand(supply);
+            if (demand == null) {
+                return;
+            }
+            this.fill(demand, supply, demand.getPriceTicks());
+        }
+    }
+
+    /**
+     * @param demand taken from the ring
+     */
+    private void onDemand(Demand demand) {
+        this.orderBook.addDemand(demand);
+        this.marketDataFeed.levelChanged(this.orderBook, true, demand.getPriceTicks());
+        this.updateHistory(HistoryEventType.DEMAND_ADDED, demand.getOwner(), null, demand.getPriceTicks(), demand.getCount());
+        this.acknowledge(demand);
+        int generation = demand.getGeneration();
+        this.matchDemand(demand);
+        matchingEnded(demand, generation);
+    }
+
+    /**
+     * Fills the demand with the resting supplies until one of them is missing
+     *
+     * @param demand resting in the book
+     */
+    private void matchDemand(Demand demand) {
+        // a consumed demand goes back to its pool and may be reused by a producer before the loop checks it
+        int generation = demand.getGeneration();
+        while (demand.getGeneration() == generation && demand.getCount() > 0) {
+            Supply supply = this.orderBook.matchingSupply(demand);
+            if (supply == null) {
+                return;
+            }
+            this.fill(demand, supply, supply.getPriceTicks());
+        }
+    }
+
+    /**
+     * @param orderId id of the supply or demand
+     * @return false if there is no resting order with this id
+     */
+    private boolean onCancel(long orderId) {
+        StockObject order = this.orderBook.supply(orderId);
+        boolean isDemand = order == null;
+        if (isDemand) {
+            order = this.orderBook.demand(orderId);
+            if (order == null) {
+                return false;
+            }
+            this.orderBook.removeDemand((Demand) order);
+        } else {
+            this.orderBook.removeSupply((Supply) order);
+        }
+        this.unindexed(orderId);
+
+        int remaining = order.getCount();
+        order.amend(order.getPriceTicks(), 0);
+        this.marketDataFeed.levelChanged(this.orderBook, isDemand, order.getPriceTicks());
+        this.updateHistory(HistoryEventType.CANCELLED, order.getOwner(), null, order.getPriceTicks(), remaining);
+        OrderTicket ticket = this.tickets.remove(order.getId());
+        if (ticket != null) {
+            ticket.cancel();
+        }
+        OrderPool.recycle(order);
+        return true;
+    }
+
+    /**
+     * A book that only keeps the columns of its orders hands out views of them, so once the matching
+     * of the order it was added with ended, nothing of the market refers to that object anymore
+     *
+     * @param order      supply or demand taken from the ring
+     * @param generation of the order when it was added, it already went back to its pool if it changed
+     */
+    private static void matchingEnded(StockObject order, int generation) {
+        if (order.getStorage() != null && order.getGeneration() == generation) {
+            OrderPool.recycle(order);
+        }
+    }
+
+    /**
+     * @param orderId    id of the supply or demand
+     * @param priceTicks new price in ticks
+     * @param count      new remaining count
+     * @return false if there is no resting order with this id
+     */
+    private boolean onAmend(long orderId, long priceTicks, int count) {
+        Supply supply = this.orderBook.supply(orderId);
+        Demand demand = supply == null ? this.orderBook.demand(orderId) : null;
+        StockObject order = supply != null ? supply : demand;
+        if (order == null) {
+            return false;
+        }
+
+        long previousPrice = order.getPriceTicks();
+        int previousCount = order.getCount();
+        boolean requeued = priceTicks != previousPrice || count > previousCount;
+        if (requeued && supply != null) {
+            this.orderBook.removeSupply(supply);
+            supply.amend(priceTicks, count);
+            this.orderBook.addSupply(supply);
+        } else if (requeued) {
+            this.orderBook.removeDemand(demand);
+            demand.amend(priceTicks, count);
+            this.orderBook.addDemand(demand);
+        } else if (supply != null) {
+            supply.amend(priceTicks, count);
+            this.orderBook.supplyCountChanged(supply, count - previousCount);
+        } else {
+            demand.amend(priceTicks, count);
+            this.orderBook.demandCountChanged(demand, count - previousCount);
+        }
+        this.marketDataFeed.levelChanged(this.orderBook, demand != null, previousPrice);
+        if (priceTicks != previousPrice) {
+            this.marketDataFeed.levelChanged(this.orderBook, demand != null, priceTicks);
+        }
+        this.updateHistory(HistoryEventType.AMENDED, order.getOwner(), null, priceTicks, count);
+
+        if (requeued && supply != null) {
+            this.matchSupply(supply);
+        } else if (requeued) {
+            this.matchDemand(demand);
+        }
+        return true;
+    }
+
+    /**
+     * Exchanges as much as possible between a demand and a supply whose prices cross
+     *
+     * @param demand published by the buyer
+     * @param supply published by the seller
+     * @param price  price of the trade in ticks, the price of the order that was resting in the book
+     */
+    private void fill(Demand demand, Supply supply, long price) {
+        int min = Math.min(supply.getCount(), demand.getCount());
+
+        SettlementLedger.Stripe stripe = this.settlementLedger.lock();
+        try {
+            supply.consume(min, price);
+            demand.consume(min, price);
+        } finally {
+            stripe.unlock();
+        }
+        this.orderBook.supplyCountChanged(supply, -min);
+        this.orderBook.demandCountChanged(demand, -min);
+        this.marketDataFeed.traded(this.orderBook, demand.getPriceTicks(), supply.getPriceTicks(), price, min, demand.getOwner(), supply.getOwner());
+        this.updateHistory(HistoryEventType.MATCHED, demand.getOwner(), supply.getOwner(), price, min);
+        this.traded(supply, min, price);
+        this.traded(demand, min, price);
+
+        if (supply.getCount() == 0) {
+            this.orderBook.removeSupply(supply);
+            this.unindexed(supply.getId());
+            this.updateHistory(HistoryEventType.SUPPLY_REMOVED, supply.getOwner(), null, supply.getPriceTicks(), supply.getCount());
+            this.completeTicket(supply);
+            OrderPool.recycle(supply);
+        }
+
+        if (demand.getCount() == 0) {
+            this.orderBook.removeDemand(demand);
+            this.unindexed(demand.getId());
+            this.updateHistory(HistoryEventType.DEMAND_CONSUMED, demand.getOwner(), null, demand.getPriceTicks(), demand.getCount());
+            this.completeTicket(demand);
+            OrderPool.recycle(demand);
+        }
+    }
+
+    /**
+     * @param order supply or demand that was accepted in the book
+     */
+    private void acknowledge(StockObject order) {
+        OrderTicket ticket = this.tickets.get(order.getId());
+        if (ticket != null) {
+            ticket.acknowledge();
+        }
+    }
+
+    /**
+     * Reports a fill to the ticket of the order, if it was submitted
+     *
+     * @param order    supply or demand that traded
+     * @param quantity exchanged count
+     * @param price    price of the trade in ticks
+     */
+    private void traded(StockObject order, int quantity, long price) {
+        OrderTicket ticket = this.tickets.get(order.getId());
+        if (ticket != null) {
+            ticket.traded(quantity, this.tickSize.toPrice(price), order.getCount());
+        }
+    }
+
+    /**
+     * Completes the ticket of an order that was entirely consumed, if it was submitted
+     *
+     * @param order supply or demand removed from the book
+     */
+    private void completeTicket(StockObject order) {
+        OrderTicket ticket = this.tickets.remove(order.getId());
+        if (ticket != null) {
+            ticket.fill();
+        }
+    }
+
+    /**
+     * @param orderId id that was just given to an order, recorded before the order can be consumed
+     */
+    private void indexed(long orderId) {
+        Map<Long, StockMarket> current = this.orderShards;
+        if (current != null) {
+            current.put(orderId, this);
+        }
+    }
+
+    /**
+     * @param orderId id of an order that left the book
+     */
+    private void unindexed(long orderId) {
+        Map<Long, StockMarket> current = this.orderShards;
+        if (current != null) {
+            current.remove(orderId);
+        }
+    }
+
+    /**
+     * The history is only allocated on its first use, so a setting of the builder never allocates a ring
+     * that is thrown away, and a shard that never gets an order does not hold one at all
+     *
+     * @return the history of the market
+     */
+    private HistoryJournal history() {
+        HistoryJournal current = this.history;
+        if (current == null) {
+            synchronized (HISTORY_LOCK) {
+                current = this.history;
+                if (current == null) {
+                    current = new HistoryJournal(this.historyCapacity, this.tickSize, this.participantRegistry);
+                    this.history = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Method to update the history, the record is only rendered to text by the writer of the runtime logger
+     *
+     * @param type         of the event
+     * @param owner        the buyer or the seller of the order
+     * @param counterparty the seller of a match, null otherwise
+     * @param price        price of the order in ticks
+     * @param quantity     count of the order, or the exchanged count of a match
+     */
+    private void updateHistory(HistoryEventType type, StockPerson owner, StockPerson counterparty, long price, int quantity) {
+        long sequence = this.history().record(type, owner.getId(), counterparty != null ? counterparty.getId() : 0, price, quantity);
+        if (this.historyTail != null) {
+            this.historyTail.recorded(sequence);
+        }
+    }
+}
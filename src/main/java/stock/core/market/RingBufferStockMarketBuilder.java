@@ -0,0 +1,97 @@
+package stock.core.market;
+
+import stock.core.book.OrderBook;
+import stock.core.book.PriceLevelOrderBook;
+import stock.core.log.AsyncHistoryLogger;
+import stock.models.TickSize;
+
+/**
+ * The builder class for the {@link RingBufferStockMarket}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class RingBufferStockMarketBuilder {
+
+    private RingBufferStockMarket stockMarket;
+
+    RingBufferStockMarketBuilder() {
+        this.stockMarket = new RingBufferStockMarket();
+        this.stockMarket.setEnabledLogger(true);
+        this.stockMarket.setOrderBook(new PriceLevelOrderBook());
+    }
+
+    /**
+     * @param enabledLogger the state of the logging system of the stock market
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setEnabledLogger(boolean enabledLogger) {
+        this.stockMarket.setEnabledLogger(enabledLogger);
+        return this;
+    }
+
+    /**
+     * @param historyLogger writes the history while the logger is enabled, a console logger that drops on overflow by default
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setHistoryLogger(AsyncHistoryLogger historyLogger) {
+        this.stockMarket.setHistoryLogger(historyLogger);
+        return this;
+    }
+
+    /**
+     * @param orderBook the order book that is going to be used by the matcher
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setOrderBook(OrderBook orderBook) {
+        this.stockMarket.setOrderBook(orderBook);
+        return this;
+    }
+
+    /**
+     * @param capacity number of slots of the ring, rounded up to a power of two
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setCapacity(int capacity) {
+        this.stockMarket.setCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * @param historyCapacity number of history records that are kept, the oldest ones are overwritten
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setHistoryCapacity(int historyCapacity) {
+        this.stockMarket.setHistoryCapacity(historyCapacity);
+        return this;
+    }
+
+    /**
+     * @param tickSize smallest price increment of the market, one cent by default
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setTickSize(TickSize tickSize) {
+        this.stockMarket.setTickSize(tickSize);
+        return this;
+    }
+
+    /**
+     * @param capacity    maximum number of accepted orders that are not matched yet
+     * @param policy      what happens to an order that finds the intake full
+     * @param blockMillis longest wait of the caller under the {@link OverloadPolicy#BLOCK} policy
+     * @return this instance
+     */
+    RingBufferStockMarketBuilder setIntake(int capacity, OverloadPolicy policy, long blockMillis) {
+        this.stockMarket.setIntake(capacity, policy, blockMillis);
+        return this;
+    }
+
+    /**
+     * @return the {@link RingBufferStockMarket} instance that was being built
+     */
+    RingBufferStockMarket build() {
+        return this.stockMarket;
+    }
+
+}
@@ -0,0 +1,18 @@
+package stock.core.market;
+
+/**
+ * Creates the {@link StockMarket} that trades a single symbol of a {@link ShardedStockMarket}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface ShardFactory {
+
+    /**
+     * @param symbol the instrument traded by the shard
+     * @return a new stock market that is not running yet
+     */
+    StockMarket create(String symbol);
+
+}
@@ -0,0 +1,473 @@
+package stock.core.market;
+
+import com.sun.istack.internal.NotNull;
+import stock.core.feed.MarketDataSubscription;
+import stock.core.history.HistoryCursor;
+import stock.core.history.HistoryQuery;
+import stock.core.pool.ThreadPool;
+import stock.core.settlement.SettlementLedger;
+import stock.exceptions.StockMarketAlreadyRunningException;
+import stock.exceptions.StockMarketAlreadyStoppedException;
+import stock.models.Demand;
+import stock.models.OrderPool;
+import stock.models.ParticipantRegistry;
+import stock.models.StockObject;
+import stock.models.Supply;
+import stock.models.TickSize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link StockMarket} that trades many instruments
+ * Every symbol has its own shard, a complete stock market with its own book, locks or matcher thread,
+ * history and journal, so orders of different symbols never contend. A shard is created
+ * by the {@link ShardFactory} the first time an order of its symbol arrives
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class ShardedStockMarket implements StockMarket {
+
+    private final Object SHARDS_LOCK = new Object();
+
+    /**
+     * Shards by symbol, only created while holding SHARDS_LOCK
+     */
+    private final Map<String, StockMarket> shards = new ConcurrentHashMap<String, StockMarket>();
+
+    private ShardFactory shardFactory;
+
+    /**
+     * Subscriptions that are attached to every shard, also to the ones created later, only changed while holding SHARDS_LOCK
+     */
+    private final List<MarketDataSubscription> subscriptions = new CopyOnWriteArrayList<MarketDataSubscription>();
+
+    /**
+     * Tick size of every shard
+     */
+    private TickSize tickSize = TickSize.DEFAULT;
+
+    /**
+     * Pool of the orders of every shard, an order goes back to the pool it was taken from
+     */
+    private final OrderPool orderPool = new OrderPool();
+
+    /**
+     * Gives the ids of the buyers and sellers of every shard
+     */
+    private ParticipantRegistry participantRegistry = new ParticipantRegistry();
+
+    /**
+     * Cash and positions of the buyers and sellers of every shard, changed on every fill
+     */
+    private SettlementLedger settlementLedger = new SettlementLedger();
+
+    /**
+     * Source of the order ids of every shard, so an id names a single order of the whole market
+     */
+    private final AtomicLong lastOrderId = new AtomicLong();
+
+    /**
+     * Shard of every resting order by id, filled by a shard when it gives the id and cleared once the order leaves its book
+     */
+    private final Map<Long, StockMarket> orderShards = new ConcurrentHashMap<Long, StockMarket>();
+
+    /**
+     * Thread pool shared by the shards, started and shut down with this market, null if the shards have their own
+     */
+    private ThreadPool threadPool;
+
+    /**
+     * Intake shared by the shards of the thread pool, null if every shard bounds its own orders
+     */
+    private OrderIntake intake;
+
+    /**
+     * Flag that starts the shards, guarded by SHARDS_LOCK
+     */
+    private boolean isRunning = false;
+
+    /**
+     * Must be called before the first order
+     *
+     * @param shardFactory creates the shard of a symbol
+     */
+    public void setShardFactory(ShardFactory shardFactory) {
+        this.shardFactory = shardFactory;
+    }
+
+    /**
+     * Must be called before the first order, the shard factory is expected to give the shards the same tick size
+     *
+     * @param tickSize smallest price increment of every shard
+     */
+    public void setTickSize(TickSize tickSize) {
+        this.tickSize = tickSize;
+    }
+
+    /**
+     * @return the smallest price increment of every shard
+     */
+    public TickSize getTickSize() {
+        return tickSize;
+    }
+
+    /**
+     * @return the pool of the orders of every shard
+     */
+    public OrderPool getOrderPool() {
+        return orderPool;
+    }
+
+    /**
+     * @return source of the order ids that is shared by the shards
+     */
+    AtomicLong getOrderIds() {
+        return lastOrderId;
+    }
+
+    /**
+     * @return shard of every resting order by id, shared by the shards
+     */
+    Map<Long, StockMarket> getOrderShards() {
+        return orderShards;
+    }
+
+    /**
+     * Must be called before the first participant is created
+     *
+     * @param participantRegistry gives the ids of the buyers and sellers of every shard
+     */
+    public void setParticipantRegistry(ParticipantRegistry participantRegistry) {
+        this.participantRegistry = participantRegistry;
+    }
+
+    /**
+     * @return the registry of the buyers and sellers of every shard
+     */
+    public ParticipantRegistry getParticipantRegistry() {
+        return participantRegistry;
+    }
+
+    /**
+     * Must be called before the first participant is created
+     *
+     * @param settlementLedger settles the fills of every shard
+     */
+    public void setSettlementLedger(SettlementLedger settlementLedger) {
+        this.settlementLedger = settlementLedger;
+    }
+
+    /**
+     * One ledger for every shard, so a snapshot holds the positions of all the symbols at once
+     *
+     * @return the ledger the fills of every shard are settled in
+     */
+    public SettlementLedger getSettlementLedger() {
+        return settlementLedger;
+    }
+
+    /**
+     * @param threadPool thread pool shared by the shards, null if every shard has its own
+     */
+    public void setThreadPool(ThreadPool threadPool) {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * @param intake shared by the shards of the thread pool, null if every shard bounds its own orders
+     */
+    void setIntake(OrderIntake intake) {
+        this.intake = intake;
+    }
+
+    /**
+     * @param symbol an instrument
+     * @return the shard that trades the symbol, created if there is none yet
+     */
+    public StockMarket getShard(String symbol) {
+        StockMarket shard = this.shards.get(symbol);
+        if (shard != null) {
+            return shard;
+        }
+
+        synchronized (SHARDS_LOCK) {
+            shard = this.shards.get(symbol);
+            if (shard == null) {
+                shard = this.shardFactory.create(symbol);
+                for (MarketDataSubscription subscription : this.subscriptions) {
+                    shard.subscribe(subscription);
+                }
+                if (this.isRunning) {
+                    try {
+                        shard.run();
+                    } catch (StockMarketAlreadyRunningException e) {
+                        System.out.println(e.getMessage());
+                    }
+                }
+                this.shards.put(symbol, shard);
+            }
+            return shard;
+        }
+    }
+
+    /**
+     * @param supply added to the shard of its symbol
+     */
+    public void addSupply(@NotNull Supply supply) {
+        this.getShard(supply.getSymbol()).addSupply(supply);
+    }
+
+    /**
+     * @param demand added to the shard of its symbol
+     */
+    public void addDemand(@NotNull Demand demand) {
+        this.getShard(demand.getSymbol()).addDemand(demand);
+    }
+
+    /**
+     * @param supply handed over to the shard of its symbol
+     * @return ticket of the supply
+     */
+    public OrderTicket submitSupply(@NotNull Supply supply) {
+        return this.getShard(supply.getSymbol()).submitSupply(supply);
+    }
+
+    /**
+     * @param demand handed over to the shard of its symbol
+     * @return ticket of the demand
+     */
+    public OrderTicket submitDemand(@NotNull Demand demand) {
+        return this.getShard(demand.getSymbol()).submitDemand(demand);
+    }
+
+    /**
+     * The batch is split by symbol, every shard gets its part as one batch
+     *
+     * @param supplies added to the shards of their symbols
+     */
+    public void addSupplies(@NotNull Collection<? extends Supply> supplies) {
+        for (Map.Entry<String, List<Supply>> batch : ShardedStockMarket.<Supply>bySymbol(supplies).entrySet()) {
+            this.getShard(batch.getKey()).addSupplies(batch.getValue());
+        }
+    }
+
+    /**
+     * The batch is split by symbol, every shard gets its part as one batch
+     *
+     * @param demands added to the shards of their symbols
+     */
+    public void addDemands(@NotNull Collection<? extends Demand> demands) {
+        for (Map.Entry<String, List<Demand>> batch : ShardedStockMarket.<Demand>bySymbol(demands).entrySet()) {
+            this.getShard(batch.getKey()).addDemands(batch.getValue());
+        }
+    }
+
+    /**
+     * The batch is split by symbol, every shard gets its part as one batch
+     *
+     * @param supplies handed over to the shards of their symbols
+     * @return tickets of the supplies, in the order of the batch
+     */
+    public List<OrderTicket> submitSupplies(@NotNull Collection<? extends Supply> supplies) {
+        Map<StockObject, OrderTicket> tickets = new IdentityHashMap<StockObject, OrderTicket>();
+        for (Map.Entry<String, List<Supply>> batch : ShardedStockMarket.<Supply>bySymbol(supplies).entrySet()) {
+            List<OrderTicket> shardTickets = this.getShard(batch.getKey()).submitSupplies(batch.getValue());
+            for (int i = 0; i < shardTickets.size(); i++) {
+                tickets.put(batch.getValue().get(i), shardTickets.get(i));
+            }
+        }
+        return inBatchOrder(supplies, tickets);
+    }
+
+    /**
+     * The batch is split by symbol, every shard gets its part as one batch
+     *
+     * @param demands handed over to the shards of their symbols
+     * @return tickets of the demands, in the order of the batch
+     */
+    public List<OrderTicket> submitDemands(@NotNull Collection<? extends Demand> demands) {
+        Map<StockObject, OrderTicket> tickets = new IdentityHashMap<StockObject, OrderTicket>();
+        for (Map.Entry<String, List<Demand>> batch : ShardedStockMarket.<Demand>bySymbol(demands).entrySet()) {
+            List<OrderTicket> shardTickets = this.getShard(batch.getKey()).submitDemands(batch.getValue());
+            for (int i = 0; i < shardTickets.size(); i++) {
+                tickets.put(batch.getValue().get(i), shardTickets.get(i));
+            }
+        }
+        return inBatchOrder(demands, tickets);
+    }
+
+    /**
+     * The id does not tell the symbol, the shard that holds the order is looked up by its id
+     *
+     * @param orderId id given to the order when it was accepted
+     * @return future completed with false if no shard has a resting order with this id
+     */
+    public CompletableFuture<Boolean> cancel(long orderId) {
+        StockMarket shard = this.orderShards.get(orderId);
+        if (shard == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return shard.cancel(orderId);
+    }
+
+    /**
+     * @param orderId id given to the order when it was accepted
+     * @param price   new price, on the tick size of the market
+     * @param count   new remaining count, 0 cancels the order
+     * @return future completed with false if no shard has a resting order with this id
+     */
+    public CompletableFuture<Boolean> amend(long orderId, double price, int count) {
+        if (count <= 0) {
+            return this.cancel(orderId);
+        }
+        StockMarket shard = this.orderShards.get(orderId);
+        if (shard == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return shard.amend(orderId, price, count);
+    }
+
+    /**
+     * The subscription gets the market data of every symbol, also of the shards created later
+     *
+     * @param subscription receives the market data of every shard
+     */
+    public void subscribe(@NotNull MarketDataSubscription subscription) {
+        synchronized (SHARDS_LOCK) {
+            this.subscriptions.add(subscription);
+            for (StockMarket shard : this.shards.values()) {
+                shard.subscribe(subscription);
+            }
+        }
+    }
+
+    /**
+     * Starts the shared thread pool and every shard
+     *
+     * @return StockMarket instance
+     * @throws StockMarketAlreadyRunningException threw If it's already running
+     */
+    public StockMarket run() throws StockMarketAlreadyRunningException {
+        synchronized (SHARDS_LOCK) {
+            if (this.isRunning) {
+                throw new StockMarketAlreadyRunningException("The StockMarket is already running");
+            }
+            if (this.threadPool != null) {
+                this.threadPool.restart();
+            }
+            for (StockMarket shard : this.shards.values()) {
+                shard.run();
+            }
+            this.isRunning = true;
+        }
+        return this;
+    }
+
+    /**
+     * Stops every shard, then the shared thread pool
+     *
+     * @return StockMarket instance
+     * @throws StockMarketAlreadyStoppedException threw If it's already stopped
+     */
+    public StockMarket stop() throws StockMarketAlreadyStoppedException {
+        synchronized (SHARDS_LOCK) {
+            if (!this.isRunning) {
+                throw new StockMarketAlreadyStoppedException("The StockMarket is already stopped");
+            }
+            this.isRunning = false;
+            for (StockMarket shard : this.shards.values()) {
+                shard.stop();
+            }
+            if (this.threadPool != null) {
+                this.threadPool.shutdown();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The shards of a shared thread pool share one intake, as many orders as the pool can queue.
+     * Shards with their own rings bound their own orders, a full shard does not refuse the orders of the other symbols
+     *
+     * @return number of places that are taken in the intakes of all the shards
+     */
+    public int getIntakeDepth() {
+        if (this.intake != null) {
+            return this.intake.depth();
+        }
+        int depth = 0;
+        for (StockMarket shard : this.shards.values()) {
+            depth += shard.getIntakeDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * @return the history of every shard, grouped by symbol
+     */
+    public String printHistory() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, StockMarket> shard : this.shards.entrySet()) {
+            out.append("== ").append(shard.getKey()).append(" ==\n");
+            out.append(shard.getValue().printHistory());
+        }
+        return out.toString();
+    }
+
+    /**
+     * Only the shard of the symbol of the query is read if there is one, otherwise the shards are read one after the other
+     *
+     * @param query filters of the events, the sequences of every shard are separate
+     * @return cursor over the events of the shards
+     */
+    public HistoryCursor queryHistory(@NotNull HistoryQuery query) {
+        List<HistoryCursor> cursors = new ArrayList<HistoryCursor>();
+        if (query.getSymbol() != null) {
+            StockMarket shard = this.shards.get(query.getSymbol());
+            if (shard != null) {
+                cursors.add(shard.queryHistory(query));
+            }
+        } else {
+            for (StockMarket shard : this.shards.values()) {
+                cursors.add(shard.queryHistory(query));
+            }
+        }
+        return HistoryCursor.concat(cursors);
+    }
+
+    /**
+     * @param orders a batch of orders
+     * @return the orders of every symbol, in the order of the batch
+     */
+    private static <T extends StockObject> Map<String, List<T>> bySymbol(Collection<? extends T> orders) {
+        Map<String, List<T>> batches = new LinkedHashMap<String, List<T>>();
+        for (T order : orders) {
+            List<T> batch = batches.get(order.getSymbol());
+            if (batch == null) {
+                batch = new ArrayList<T>();
+                batches.put(order.getSymbol(), batch);
+            }
+            batch.add(order);
+        }
+        return batches;
+    }
+
+    private static List<OrderTicket> inBatchOrder(Collection<? extends StockObject> orders, Map<StockObject, OrderTicket> tickets) {
+        List<OrderTicket> ordered = new ArrayList<OrderTicket>(orders.size());
+        for (StockObject order : orders) {
+            ordered.add(tickets.get(order));
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,328 @@
+package stock.core.market;
+
+import stock.core.book.OrderBookType;
+import stock.core.feed.MarketDataFeed;
+import stock.core.history.HistoryJournal;
+import stock.core.journal.EventJournal;
+import stock.core.journal.JournalSnapshotter;
+import stock.core.log.AsyncHistoryLogger;
+import stock.core.metrics.MarketMetrics;
+import stock.core.pool.BasicThreadPool;
+import stock.core.pool.ThreadPool;
+import stock.core.pool.ThreadPoolType;
+import stock.core.settlement.SettlementLedger;
+import stock.models.ParticipantRegistry;
+import stock.models.TickSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The builder class for the {@link ShardedStockMarket}
+ * By default every symbol gets a {@link BasicStockMarket} shard and all the shards share one thread pool
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class ShardedStockMarketBuilder {
+
+    /**
+     * History records kept by every shard, a record takes about 56 bytes,
+     * so thousands of symbols fit in memory where the single market default of {@link HistoryJournal#DEFAULT_CAPACITY} does not
+     */
+    static final int DEFAULT_SHARD_HISTORY_CAPACITY = 1 << 12;
+
+    /**
+     * Events the ring of every ring buffer shard holds, a single market gets {@link RingBufferStockMarket#DEFAULT_CAPACITY}
+     */
+    static final int DEFAULT_SHARD_RING_CAPACITY = 1 << 12;
+
+    /**
+     * Matcher threads shared by all the ring buffer shards, whatever the number of symbols
+     */
+    static final int DEFAULT_MATCHER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    private ShardedStockMarket stockMarket;
+
+    private ShardFactory shardFactory;
+
+    private boolean enabledLogger = true;
+
+    /**
+     * One writer for the history of every shard
+     */
+    private AsyncHistoryLogger historyLogger = new AsyncHistoryLogger();
+
+    private int historyCapacity = DEFAULT_SHARD_HISTORY_CAPACITY;
+
+    private ThreadPool threadPool = new BasicThreadPool(5);
+
+    private boolean ringBufferShards = false;
+
+    private int ringCapacity = DEFAULT_SHARD_RING_CAPACITY;
+
+    private int matcherThreads = DEFAULT_MATCHER_THREADS;
+
+    private OrderBookType orderBookType = OrderBookType.PRICE_LEVEL;
+
+    private boolean enabledMetrics = false;
+
+    /**
+     * Settings of the intake, the basic shards share one intake because they share the queue of the thread pool,
+     * every ring buffer shard bounds its own orders to at most half of its ring
+     */
+    private int intakeCapacity = OrderIntake.DEFAULT_CAPACITY;
+    private OverloadPolicy overloadPolicy = OverloadPolicy.REJECT;
+    private long blockMillis = OrderIntake.DEFAULT_BLOCK_MILLIS;
+
+    /**
+     * Directory with one journal sub directory per symbol, null if the shards only live in memory
+     */
+    private File journalDirectory;
+
+    ShardedStockMarketBuilder() {
+        this.stockMarket = new ShardedStockMarket();
+    }
+
+    /**
+     * @param enabledLogger the state of the logging system of every shard
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setEnabledLogger(boolean enabledLogger) {
+        this.enabledLogger = enabledLogger;
+        return this;
+    }
+
+    /**
+     * @param historyLogger writes the history of every shard while the logger is enabled
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setHistoryLogger(AsyncHistoryLogger historyLogger) {
+        this.historyLogger = historyLogger;
+        return this;
+    }
+
+    /**
+     * @param historyCapacity number of history records kept by every shard, the oldest ones are overwritten
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setHistoryCapacity(int historyCapacity) {
+        this.historyCapacity = historyCapacity;
+        return this;
+    }
+
+    /**
+     * @param threadPool the thread pool shared by the basic shards
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setThreadPool(ThreadPool threadPool) {
+        this.threadPool.shutdown();
+        this.threadPool = threadPool;
+        return this;
+    }
+
+    /**
+     * @param type         the kind of thread pool shared by the basic shards
+     * @param threadsCount number of workers of the thread pool
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setThreadPool(ThreadPoolType type, int threadsCount) {
+        return this.setThreadPool(type.create(threadsCount));
+    }
+
+    /**
+     * @param enabledMetrics true to measure every basic shard, the metrics are registered in JMX under the symbol
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setEnabledMetrics(boolean enabledMetrics) {
+        this.enabledMetrics = enabledMetrics;
+        return this;
+    }
+
+    /**
+     * @param capacity    maximum number of accepted orders that are not matched yet, of all the basic shards
+     *                    or of every ring buffer shard. The basic shards need it below the queue capacity of their thread pool
+     * @param policy      what happens to an order that finds the intake full
+     * @param blockMillis longest wait of the caller under the {@link OverloadPolicy#BLOCK} policy
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setIntake(int capacity, OverloadPolicy policy, long blockMillis) {
+        this.intakeCapacity = capacity;
+        this.overloadPolicy = policy;
+        this.blockMillis = blockMillis;
+        return this;
+    }
+
+    /**
+     * @param orderBookType the kind of order book of every shard
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setOrderBookType(OrderBookType orderBookType) {
+        this.orderBookType = orderBookType;
+        return this;
+    }
+
+    /**
+     * Every shard gets a {@link RingBufferStockMarket} instead of a basic market, the shards share a fixed set of matcher threads
+     *
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setRingBufferShards() {
+        this.ringBufferShards = true;
+        return this;
+    }
+
+    /**
+     * @param ringCapacity   number of events the ring of every ring buffer shard holds
+     * @param matcherThreads number of matcher threads shared by all the ring buffer shards
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setRingBufferShards(int ringCapacity, int matcherThreads) {
+        this.ringCapacity = ringCapacity;
+        this.matcherThreads = matcherThreads;
+        return this.setRingBufferShards();
+    }
+
+    /**
+     * @param journalDirectory every basic shard keeps its journal and snapshots in a sub directory named after its symbol
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setJournalDirectory(File journalDirectory) {
+        this.journalDirectory = journalDirectory;
+        return this;
+    }
+
+    /**
+     * @param shardFactory creates the shards, replaces every other shard setting of this builder
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setShardFactory(ShardFactory shardFactory) {
+        this.shardFactory = shardFactory;
+        return this;
+    }
+
+    /**
+     * @param tickSize smallest price increment of every shard, one cent by default
+     * @return this instance
+     */
+    ShardedStockMarketBuilder setTickSize(TickSize tickSize) {
+        this.stockMarket.setTickSize(tickSize);
+        return this;
+    }
+
+    /**
+     * @return the {@link ShardedStockMarket} instance that was being built
+     */
+    ShardedStockMarket build() {
+        if (this.shardFactory != null) {
+            this.threadPool.shutdown();
+            this.stockMarket.setShardFactory(this.shardFactory);
+        } else if (this.ringBufferShards) {
+            this.threadPool.shutdown();
+            this.stockMarket.setShardFactory(this.ringBufferShardFactory());
+        } else {
+            OrderIntake intake = new OrderIntake(this.intakeCapacity, this.overloadPolicy, this.blockMillis);
+            this.stockMarket.setThreadPool(this.threadPool);
+            this.stockMarket.setIntake(intake);
+            this.stockMarket.setShardFactory(this.basicShardFactory(intake));
+        }
+        return this.stockMarket;
+    }
+
+    private ShardFactory ringBufferShardFactory() {
+        final boolean enabledLogger = this.enabledLogger;
+        final AsyncHistoryLogger historyLogger = this.historyLogger;
+        final int historyCapacity = this.historyCapacity;
+        final TickSize tickSize = this.stockMarket.getTickSize();
+        final OrderBookType orderBookType = this.orderBookType;
+        final ParticipantRegistry participantRegistry = this.stockMarket.getParticipantRegistry();
+        final AtomicLong orderIds = this.stockMarket.getOrderIds();
+        final Map<Long, StockMarket> orderShards = this.stockMarket.getOrderShards();
+        final SettlementLedger settlementLedger = this.stockMarket.getSettlementLedger();
+        final int ringCapacity = this.ringCapacity;
+        // a full intake refuses orders before a publisher has to wait for a slot of the ring
+        final int intakeCapacity = Math.min(this.intakeCapacity, Math.max(1, ringCapacity / 2));
+        final OverloadPolicy overloadPolicy = this.overloadPolicy;
+        final long blockMillis = this.blockMillis;
+        final MatcherGroup matcherGroup = new MatcherGroup(this.matcherThreads);
+
+        return new ShardFactory() {
+            public StockMarket create(String symbol) {
+                RingBufferStockMarket shard = new RingBufferStockMarketBuilder()
+                        .setEnabledLogger(enabledLogger)
+                        .setHistoryLogger(historyLogger)
+                        .setHistoryCapacity(historyCapacity)
+                        .setOrderBook(orderBookType.create())
+                        .setTickSize(tickSize)
+                        .setCapacity(ringCapacity)
+                        .setIntake(intakeCapacity, overloadPolicy, blockMillis)
+                        .build();
+                shard.setMatcherGroup(matcherGroup);
+                shard.setParticipantRegistry(participantRegistry);
+                shard.setOrderIds(orderIds);
+                shard.setOrderShards(orderShards);
+                shard.setSettlementLedger(settlementLedger);
+                shard.setMarketDataFeed(new MarketDataFeed(symbol));
+                return shard;
+            }
+        };
+    }
+
+    /**
+     * @param intake shared by the shards, they all queue their tasks on the same thread pool
+     * @return factory of the basic shards
+     */
+    private ShardFactory basicShardFactory(final OrderIntake intake) {
+        final boolean enabledLogger = this.enabledLogger;
+        final AsyncHistoryLogger historyLogger = this.historyLogger;
+        final int historyCapacity = this.historyCapacity;
+        final TickSize tickSize = this.stockMarket.getTickSize();
+        final OrderBookType orderBookType = this.orderBookType;
+        final boolean enabledMetrics = this.enabledMetrics;
+        final ThreadPool threadPool = this.threadPool;
+        final File journalDirectory = this.journalDirectory;
+        final ParticipantRegistry participantRegistry = this.stockMarket.getParticipantRegistry();
+        final AtomicLong orderIds = this.stockMarket.getOrderIds();
+        final Map<Long, StockMarket> orderShards = this.stockMarket.getOrderShards();
+        final SettlementLedger settlementLedger = this.stockMarket.getSettlementLedger();
+
+        return new ShardFactory() {
+            public StockMarket create(String symbol) {
+                BasicStockMarket shard = new BasicStockMarket();
+                shard.setEnabledLogger(enabledLogger);
+                shard.setHistoryLogger(historyLogger);
+                shard.setHistoryCapacity(historyCapacity);
+                shard.setTickSize(tickSize);
+                shard.setParticipantRegistry(participantRegistry);
+                shard.setOrderIds(orderIds);
+                shard.setOrderShards(orderShards);
+                shard.setSettlementLedger(settlementLedger);
+                shard.setMarketDataFeed(new MarketDataFeed(symbol));
+                shard.setThreadPool(threadPool);
+                shard.setOwnsThreadPool(false);
+                shard.setOrderBook(orderBookType.create());
+                shard.setIntake(intake);
+                if (enabledMetrics) {
+                    shard.setMetrics(new MarketMetrics().register(symbol));
+                }
+
+                if (journalDirectory != null) {
+                    File directory = new File(journalDirectory, symbol);
+                    try {
+                        EventJournal journal = new EventJournal(directory);
+                        shard.setJournal(journal);
+                        shard.setSnapshotter(new JournalSnapshotter(journal, directory, JournalSnapshotter.DEFAULT_INTERVAL_MILLIS));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Can not open the journal of " + symbol, e);
+                    }
+                }
+                return shard;
+            }
+        };
+    }
+
+}
@@ -1,10 +1,22 @@
 package stock.core.market;
 
 import com.sun.istack.internal.NotNull;
+import stock.core.feed.MarketDataSubscription;
+import stock.core.history.HistoryCursor;
+import stock.core.history.HistoryQuery;
+import stock.core.settlement.SettlementLedger;
 import stock.exceptions.StockMarketAlreadyRunningException;
 import stock.exceptions.StockMarketAlreadyStoppedException;
+import stock.exceptions.StockMarketOverloadedException;
 import stock.models.Demand;
+import stock.models.OrderPool;
+import stock.models.ParticipantRegistry;
 import stock.models.Supply;
+import stock.models.TickSize;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
@@ -27,17 +39,143 @@ public interface StockMarket {
 
     /**
      * @param supply to be added to the stock market
+     * @throws java.util.concurrent.RejectedExecutionException caused by a {@link StockMarketOverloadedException}
+     *                                                         if the intake of the market is full
      */
     void addSupply(@NotNull Supply supply);
 
     /**
      * @param demand to be added on the stock market
+     * @throws java.util.concurrent.RejectedExecutionException caused by a {@link StockMarketOverloadedException}
+     *                                                         if the intake of the market is full
      */
     void addDemand(@NotNull Demand demand);
 
     /**
+     * Adds a batch of supplies at once, the per order costs of the market are paid once per batch
+     *
+     * @param supplies to be added to the stock market, in arrival order
+     */
+    void addSupplies(@NotNull Collection<? extends Supply> supplies);
+
+    /**
+     * Adds a batch of demands at once, the per order costs of the market are paid once per batch
+     *
+     * @param demands to be added on the stock market, in arrival order
+     */
+    void addDemands(@NotNull Collection<? extends Demand> demands);
+
+    /**
+     * Hands the supply over to the stock market without blocking the caller, unless the intake of the market
+     * is full and its {@link OverloadPolicy} makes the caller wait
+     *
+     * @param supply to be added to the stock market
+     * @return ticket that tracks the acknowledgement and the fill of the supply,
+     * failed with a {@link StockMarketOverloadedException} if the supply was refused
+     */
+    OrderTicket submitSupply(@NotNull Supply supply);
+
+    /**
+     * Hands the demand over to the stock market without blocking the caller, unless the intake of the market
+     * is full and its {@link OverloadPolicy} makes the caller wait
+     *
+     * @param demand to be added on the stock market
+     * @return ticket that tracks the acknowledgement and the fill of the demand,
+     * failed with a {@link StockMarketOverloadedException} if the demand was refused
+     */
+    OrderTicket submitDemand(@NotNull Demand demand);
+
+    /**
+     * Hands a batch of supplies over to the stock market without blocking the caller
+     *
+     * @param supplies to be added to the stock market, in arrival order
+     * @return tickets of the supplies, in the order of the batch
+     */
+    List<OrderTicket> submitSupplies(@NotNull Collection<? extends Supply> supplies);
+
+    /**
+     * Hands a batch of demands over to the stock market without blocking the caller
+     *
+     * @param demands to be added on the stock market, in arrival order
+     * @return tickets of the demands, in the order of the batch
+     */
+    List<OrderTicket> submitDemands(@NotNull Collection<? extends Demand> demands);
+
+    /**
+     * Removes a resting order from the book, its ticket is cancelled
+     *
+     * @param orderId id given to the order when it was accepted
+     * @return completes with false if the order is not resting anymore, e.g it was filled or already cancelled
+     */
+    CompletableFuture<Boolean> cancel(long orderId);
+
+    /**
+     * Changes the price or the remaining count of a resting order. The order keeps its time priority
+     * if the price is the same and the count does not grow, it goes to the back of its new level otherwise
+     *
+     * @param orderId id given to the order when it was accepted
+     * @param price   new price, a multiple of the tick size
+     * @param count   new remaining count, 0 cancels the order
+     * @return completes with false if the order is not resting anymore
+     */
+    CompletableFuture<Boolean> amend(long orderId, double price, int count);
+
+    /**
+     * Attaches a subscription to the incremental market data of the market: the changed depth levels,
+     * the trades and the top of book, conflated for the listener so it never slows the matching down
+     *
+     * @param subscription receives the market data, cancelled with {@link MarketDataSubscription#cancel()}
+     */
+    void subscribe(@NotNull MarketDataSubscription subscription);
+
+    /**
+     * Streams the history events that match the query, one event at a time, safely while orders are matched
+     *
+     * @param query filters of the events
+     * @return cursor over the events that were recorded before this call
+     */
+    HistoryCursor queryHistory(@NotNull HistoryQuery query);
+
+    /**
+     * Orders hold a place in the intake from the moment they are handed to the market until their first matching is done
+     *
+     * @return number of places that are taken
+     */
+    int getIntakeDepth();
+
+    /**
+     * Renders the whole kept history at once, {@link #queryHistory(HistoryQuery)} streams it with bounded memory
+     *
      * @return current history of the stock market exchanges
      */
     String printHistory();
 
+    /**
+     * @return the smallest price increment, the prices of the orders are kept in ticks of this size
+     */
+    TickSize getTickSize();
+
+    /**
+     * Orders taken from this pool go back to it once the market removed them from the book,
+     * they must not be used after their ticket was filled
+     *
+     * @return the pool of the orders of this market
+     */
+    OrderPool getOrderPool();
+
+    /**
+     * Every buyer and seller gets a dense numeric id from this registry when it is created
+     *
+     * @return the registry of the participants of this market
+     */
+    ParticipantRegistry getParticipantRegistry();
+
+    /**
+     * Every fill changes the cash and the position of its buyer and its seller in this ledger,
+     * {@link SettlementLedger#snapshot()} reads them consistently, e.g for the end of day positions
+     *
+     * @return the settlement ledger of this market
+     */
+    SettlementLedger getSettlementLedger();
+
 }
@@ -1,9 +1,27 @@
 package stock.core.market;
 
-import stock.core.pool.BasicThreadPool;
+import stock.core.book.OrderBookType;
+import stock.core.log.AsyncHistoryLogger;
+import stock.core.log.ConsoleLogSink;
+import stock.core.log.OverflowPolicy;
+import stock.core.metrics.MarketMetrics;
+import stock.core.pool.ThreadPoolType;
 
 /**
  * Core Class that guards access to a singleton instance of the designed stock market
+ * The implementation is chosen with the "stock.market" system property,
+ * "basic" (default) for {@link BasicStockMarket}, "ring" for {@link RingBufferStockMarket}
+ * or "sharded" for a {@link ShardedStockMarket} with one basic market per symbol.
+ * The thread pool of the basic markets is chosen with the "stock.pool" system property,
+ * one of the {@link ThreadPoolType} names, e.g "work_stealing".
+ * The order book is chosen with the "stock.book" system property, one of the {@link OrderBookType} names, e.g "array".
+ * The runtime logger is on unless the "stock.logger" system property is "false", it writes the history on its own thread
+ * and its {@link OverflowPolicy} is chosen with the "stock.logger.overflow" system property, "drop" (default), "block" or "sample".
+ * Every market bounds the orders it accepted and did not match yet, the capacity of the intake is the "stock.intake"
+ * system property and the {@link OverloadPolicy} the "stock.overload" one, "reject" (default), "block" or "shed",
+ * a blocked caller waits at most "stock.overload.block" milliseconds.
+ * The basic markets are measured and their {@link MarketMetrics} are published in JMX
+ * unless the "stock.metrics" system property is "false"
  *
  * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
  * @version 0.0.4
@@ -21,9 +39,41 @@ public class StockMarketSingleton {
     }
 
     private static StockMarket getStockMarketInstance() {
+        OrderBookType orderBookType = OrderBookType.fromName(System.getProperty("stock.book"));
+        boolean enabledLogger = !"false".equals(System.getProperty("stock.logger"));
+        boolean enabledMetrics = !"false".equals(System.getProperty("stock.metrics"));
+        AsyncHistoryLogger historyLogger = new AsyncHistoryLogger(new ConsoleLogSink(),
+                OverflowPolicy.fromName(System.getProperty("stock.logger.overflow")), AsyncHistoryLogger.DEFAULT_CAPACITY);
+        int intakeCapacity = Integer.getInteger("stock.intake", OrderIntake.DEFAULT_CAPACITY);
+        OverloadPolicy overloadPolicy = OverloadPolicy.fromName(System.getProperty("stock.overload"));
+        long blockMillis = Long.getLong("stock.overload.block", OrderIntake.DEFAULT_BLOCK_MILLIS);
+
+        if ("ring".equals(System.getProperty("stock.market"))) {
+            return new RingBufferStockMarketBuilder()
+                    .setEnabledLogger(enabledLogger)
+                    .setHistoryLogger(historyLogger)
+                    .setOrderBook(orderBookType.create())
+                    .setIntake(intakeCapacity, overloadPolicy, blockMillis)
+                    .build();
+        }
+        if ("sharded".equals(System.getProperty("stock.market"))) {
+            return new ShardedStockMarketBuilder()
+                    .setEnabledLogger(enabledLogger)
+                    .setHistoryLogger(historyLogger)
+                    .setOrderBookType(orderBookType)
+                    .setEnabledMetrics(enabledMetrics)
+                    .setIntake(intakeCapacity, overloadPolicy, blockMillis)
+                    .setThreadPool(ThreadPoolType.fromName(System.getProperty("stock.pool")), 10)
+                    .build();
+        }
+
         return new BasicStockMarketBuilder()
-                .setEnabledLogger(true)
-                .setThreadPool(new BasicThreadPool(10))
+                .setEnabledLogger(enabledLogger)
+                .setHistoryLogger(historyLogger)
+                .setOrderBook(orderBookType.create())
+                .setMetrics(enabledMetrics ? new MarketMetrics().register("StockMarketSingleton") : null)
+                .setIntake(intakeCapacity, overloadPolicy, blockMillis)
+                .setThreadPool(ThreadPoolType.fromName(System.getProperty("stock.pool")), 10)
                 .build();
     }
 
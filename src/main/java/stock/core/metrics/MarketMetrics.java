@@ -0,0 +1,293 @@
+package stock.core.metrics;
+
+import stock.core.pool.ThreadPool;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of a stock market
+ * Counters are {@link LongAdder}s, striped per thread, and the histograms are lock free,
+ * so recording never blocks the matching. The values are read through the getters or through JMX
+ * once the metrics are {@link #register(String) registered}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class MarketMetrics implements MarketMetricsMXBean {
+
+    private final LongAdder suppliesIn = new LongAdder();
+    private final LongAdder demandsIn = new LongAdder();
+    private final LongAdder ordersOut = new LongAdder();
+    private final LongAdder fills = new LongAdder();
+    private final LongAdder filledQuantity = new LongAdder();
+    private final LongAdder supplyDepth = new LongAdder();
+    private final LongAdder demandDepth = new LongAdder();
+    private final LongAdder intakeDepth = new LongAdder();
+    private final LongAdder ordersRejected = new LongAdder();
+    private final LongAdder ordersShed = new LongAdder();
+
+    private final LatencyHistogram matchLatency = new LatencyHistogram();
+    private final LatencyHistogram supplyLockWait = new LatencyHistogram();
+    private final LatencyHistogram demandLockWait = new LatencyHistogram();
+    private final LatencyHistogram historyLockWait = new LatencyHistogram();
+
+    private final LongAdder supplyLockWaitTotal = new LongAdder();
+    private final LongAdder demandLockWaitTotal = new LongAdder();
+    private final LongAdder historyLockWaitTotal = new LongAdder();
+
+    /**
+     * Pool of the market, read for the queue depth and the busy time
+     */
+    private volatile ThreadPool threadPool;
+
+    /**
+     * @param threadPool the thread pool of the market
+     */
+    public void setThreadPool(ThreadPool threadPool) {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server as "stock:type=MarketMetrics,name=&lt;name&gt;"
+     *
+     * @param name of the market
+     * @return this instance
+     */
+    public MarketMetrics register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName("stock:type=MarketMetrics,name=" + ObjectName.quote(name)));
+        } catch (InstanceAlreadyExistsException e) {
+            System.out.println("Metrics of the market " + name + " are already registered");
+        } catch (JMException e) {
+            System.out.println("Can not register the metrics of the market " + name + ": " + e.getMessage());
+        }
+        return this;
+    }
+
+    public void supplyAdded() {
+        suppliesIn.increment();
+        supplyDepth.increment();
+    }
+
+    public void demandAdded() {
+        demandsIn.increment();
+        demandDepth.increment();
+    }
+
+    /**
+     * @param count number of supplies of a batch
+     */
+    public void suppliesAdded(int count) {
+        suppliesIn.add(count);
+        supplyDepth.add(count);
+    }
+
+    /**
+     * @param count number of demands of a batch
+     */
+    public void demandsAdded(int count) {
+        demandsIn.add(count);
+        demandDepth.add(count);
+    }
+
+    public void supplyRemoved() {
+        ordersOut.increment();
+        supplyDepth.decrement();
+    }
+
+    public void demandRemoved() {
+        ordersOut.increment();
+        demandDepth.decrement();
+    }
+
+    /**
+     * @param quantity exchanged count
+     */
+    public void filled(int quantity) {
+        fills.increment();
+        filledQuantity.add(quantity);
+    }
+
+    /**
+     * @param count number of orders that took a place in the intake of the market
+     */
+    public void ordersAdmitted(int count) {
+        intakeDepth.add(count);
+    }
+
+    /**
+     * @param count number of orders that gave their place in the intake back
+     */
+    public void ordersReleased(int count) {
+        intakeDepth.add(-count);
+    }
+
+    /**
+     * @param count number of orders that were refused because the intake was full
+     */
+    public void ordersRejected(int count) {
+        ordersRejected.add(count);
+    }
+
+    /**
+     * @param count number of orders that were refused because they would only rest in the book of an overloaded market
+     */
+    public void ordersShed(int count) {
+        ordersShed.add(count);
+    }
+
+    /**
+     * @param nanos time a matching task took
+     */
+    public void matched(long nanos) {
+        matchLatency.record(nanos);
+    }
+
+    /**
+     * @param nanos time spent waiting for the supply lock
+     */
+    public void supplyLockWaited(long nanos) {
+        supplyLockWait.record(nanos);
+        supplyLockWaitTotal.add(nanos);
+    }
+
+    /**
+     * @param nanos time spent waiting for the demand lock
+     */
+    public void demandLockWaited(long nanos) {
+        demandLockWait.record(nanos);
+        demandLockWaitTotal.add(nanos);
+    }
+
+    /**
+     * @param nanos time spent handing a history record to the runtime logger, including the wait of a blocking logger
+     */
+    public void historyLockWaited(long nanos) {
+        historyLockWait.record(nanos);
+        historyLockWaitTotal.add(nanos);
+    }
+
+    public LatencyHistogram getMatchLatency() {
+        return matchLatency;
+    }
+
+    public LatencyHistogram getSupplyLockWait() {
+        return supplyLockWait;
+    }
+
+    public LatencyHistogram getDemandLockWait() {
+        return demandLockWait;
+    }
+
+    public LatencyHistogram getHistoryLockWait() {
+        return historyLockWait;
+    }
+
+    public long getSuppliesIn() {
+        return suppliesIn.sum();
+    }
+
+    public long getDemandsIn() {
+        return demandsIn.sum();
+    }
+
+    public long getOrdersOut() {
+        return ordersOut.sum();
+    }
+
+    public long getFills() {
+        return fills.sum();
+    }
+
+    public long getFilledQuantity() {
+        return filledQuantity.sum();
+    }
+
+    public long getSupplyDepth() {
+        return supplyDepth.sum();
+    }
+
+    public long getDemandDepth() {
+        return demandDepth.sum();
+    }
+
+    public long getIntakeDepth() {
+        return intakeDepth.sum();
+    }
+
+    public long getOrdersRejected() {
+        return ordersRejected.sum();
+    }
+
+    public long getOrdersShed() {
+        return ordersShed.sum();
+    }
+
+    public double getMatchLatencyMeanMicros() {
+        return matchLatency.mean() / 1000;
+    }
+
+    public double getMatchLatencyP99Micros() {
+        return matchLatency.percentile(99) / 1000.0;
+    }
+
+    public double getSupplyLockWaitP99Micros() {
+        return supplyLockWait.percentile(99) / 1000.0;
+    }
+
+    public double getDemandLockWaitP99Micros() {
+        return demandLockWait.percentile(99) / 1000.0;
+    }
+
+    public double getHistoryLockWaitP99Micros() {
+        return historyLockWait.percentile(99) / 1000.0;
+    }
+
+    public long getSupplyLockWaitTotalMicros() {
+        return supplyLockWaitTotal.sum() / 1000;
+    }
+
+    public long getDemandLockWaitTotalMicros() {
+        return demandLockWaitTotal.sum() / 1000;
+    }
+
+    public long getHistoryLockWaitTotalMicros() {
+        return historyLockWaitTotal.sum() / 1000;
+    }
+
+    public int getPoolQueueDepth() {
+        ThreadPool current = this.threadPool;
+        return current != null ? current.queueDepth() : 0;
+    }
+
+    public long getPoolBusyMillis() {
+        ThreadPool current = this.threadPool;
+        return current != null ? current.busyNanos() / 1000000 : 0;
+    }
+
+    public void resetLatencies() {
+        matchLatency.reset();
+        supplyLockWait.reset();
+        demandLockWait.reset();
+        historyLockWait.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "MarketMetrics [in " + getSuppliesIn() + " supplies, " + getDemandsIn() + " demands, out " + getOrdersOut()
+                + ", " + getFills() + " fills, depth " + getSupplyDepth() + "/" + getDemandDepth()
+                + ", intake " + getIntakeDepth() + ", rejected " + getOrdersRejected() + ", shed " + getOrdersShed()
+                + ", pool queue " + getPoolQueueDepth() + "]\n"
+                + "match " + matchLatency.summary() + "\n"
+                + "SUPPLY_LOCK wait " + supplyLockWait.summary() + "\n"
+                + "DEMAND_LOCK wait " + demandLockWait.summary() + "\n"
+                + "HISTORY_LOCK wait " + historyLockWait.summary();
+    }
+}
@@ -0,0 +1,57 @@
+package stock.core.metrics;
+
+/**
+ * JMX view of the {@link MarketMetrics} of a stock market, latencies are in microseconds
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface MarketMetricsMXBean {
+
+    long getSuppliesIn();
+
+    long getDemandsIn();
+
+    long getOrdersOut();
+
+    long getFills();
+
+    long getFilledQuantity();
+
+    long getSupplyDepth();
+
+    long getDemandDepth();
+
+    long getIntakeDepth();
+
+    long getOrdersRejected();
+
+    long getOrdersShed();
+
+    double getMatchLatencyMeanMicros();
+
+    double getMatchLatencyP99Micros();
+
+    double getSupplyLockWaitP99Micros();
+
+    double getDemandLockWaitP99Micros();
+
+    double getHistoryLockWaitP99Micros();
+
+    long getSupplyLockWaitTotalMicros();
+
+    long getDemandLockWaitTotalMicros();
+
+    long getHistoryLockWaitTotalMicros();
+
+    int getPoolQueueDepth();
+
+    long getPoolBusyMillis();
+
+    /**
+     * Clears the histograms, the counters and the depths are kept
+     */
+    void resetLatencies();
+
+}
@@ -1,12 +1,15 @@
 package stock.core.pool;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Basic implementation of a {@link ThreadPool}
- * Has a fixed number of worker threads that schedule tasks added to a blocking queue
- * In a next version, the current implementation of BlockingQueue, namely LinkedBlockingQueue,
- * should be changed with a own implementation of a blocking queue
+ * Has a fixed number of worker threads that schedule tasks added to a {@link BoundedMpmcQueue}
+ * Neither execute nor the workers take a lock, a worker that finds the queue empty
+ * parks itself and is unparked by the next execute
  *
  * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
  * @version 0.0.4
@@ -14,16 +17,49 @@ import java.util.concurrent.LinkedBlockingQueue;
  */
 public class BasicThreadPool implements ThreadPool {
 
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+
+    /**
+     * Upper bound of a park, covers a wake up that raced with the worker going idle
+     */
+    private static final long PARK_NANOS = 1000000;
+
+    static final int BUSY_STRIDE = 8;
+
     private final int threadsCount;
     private final PoolWorker[] threads;
 
-    //TODO Change this with an own implementation of a blocking queue
-    private final LinkedBlockingQueue<Runnable> queue;
+    private final BoundedMpmcQueue<Runnable> queue;
+
+    /**
+     * Number of workers that are parked, waiting for a task
+     */
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+
+    /**
+     * Time spent running tasks by the worker of every number, each worker only adds to its own slot.
+     * The slots are {@link #BUSY_STRIDE} longs apart so two workers never write the same cache line
+     */
+    private final AtomicLongArray busyNanos;
+
+    /**
+     * False between a shutdown and the next restart, a caller waiting for room in the queue gives up then
+     */
+    private volatile boolean isRunning = true;
 
     public BasicThreadPool(int threadsCount) {
+        this(threadsCount, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param threadsCount  number of worker threads
+     * @param queueCapacity maximum number of tasks waiting for a worker
+     */
+    public BasicThreadPool(int threadsCount, int queueCapacity) {
         this.threadsCount = threadsCount;
-        this.queue = new LinkedBlockingQueue<Runnable>();
+        this.queue = new BoundedMpmcQueue<Runnable>(queueCapacity);
         this.threads = new PoolWorker[threadsCount];
+        this.busyNanos = new AtomicLongArray(threadsCount * BUSY_STRIDE);
 
         for (int i = 0; i < threadsCount; i++) {
             threads[i] = new PoolWorker(i);
@@ -32,22 +68,47 @@ public class BasicThreadPool implements ThreadPool {
     }
 
     /**
+     * Waits for room in the queue if it is full, a worker of this pool runs the task itself instead,
+     * since the room can only be made by the workers
+     * A task still fits in the queue of a shut down pool and runs after the restart, but nobody makes room
+     * in a full queue anymore, so the caller stops waiting
+     *
      * @param task to be executed on this Thread Pool
+     * @throws RejectedExecutionException if the queue is full and the pool is shut down
      */
     public void execute(Runnable task) {
-        synchronized (queue) {
-            queue.add(task);
-            queue.notify();
+        while (!queue.offer(task)) {
+            Thread current = Thread.currentThread();
+            if (current instanceof PoolWorker && ((PoolWorker) current).pool() == this) {
+                ((PoolWorker) current).runInline(task);
+                return;
+            }
+            if (!this.isRunning) {
+                throw new RejectedExecutionException(this + " is shut down and its queue is full");
+            }
+            Thread.yield();
+        }
+
+        if (idleWorkers.get() > 0) {
+            for (int i = 0; i < threadsCount; i++) {
+                PoolWorker worker = threads[i];
+                if (worker.isParked) {
+                    LockSupport.unpark(worker);
+                    return;
+                }
+            }
         }
     }
 
     /**
      * Restarts the thread pool
+     * Workers that were shut down are replaced by new threads
      */
     public void restart() {
+        this.isRunning = true;
         for (int i = 0; i < threadsCount; i++) {
-            if(!threads[i].isRunning) {
-                threads[i].setRunning(true);
+            if (!threads[i].isRunning) {
+                threads[i] = new PoolWorker(i);
                 threads[i].start();
             }
         }
@@ -57,15 +118,24 @@ public class BasicThreadPool implements ThreadPool {
      * Shuts down the thread pool
      */
     public void shutdown() {
+        this.isRunning = false;
         for (int i = 0; i < threadsCount; i++) {
             threads[i].setRunning(false);
+            LockSupport.unpark(threads[i]);
         }
+    }
 
-        synchronized (queue) {
-            queue.notifyAll();
-        }
+    public int queueDepth() {
+        return queue.size();
     }
 
+    public long busyNanos() {
+        long total = 0;
+        for (int i = 0; i < threadsCount; i++) {
+            total += busyNanos.get(i * BUSY_STRIDE);
+        }
+        return total;
+    }
 
     /**
      * Wrapper class for {@link Thread} that defines a worker for this pool
@@ -74,7 +144,9 @@ public class BasicThreadPool implements ThreadPool {
 
         private int number;
 
-        private boolean isRunning;
+        private volatile boolean isRunning;
+
+        private volatile boolean isParked;
 
         PoolWorker(int number) {
             this.number = number;
@@ -87,34 +159,62 @@ public class BasicThreadPool implements ThreadPool {
 
         public void run() {
             Runnable task;
+            int spins = 0;
 
-            while(this.isRunning) {
-                synchronized (queue) {
-                    while(queue.isEmpty() && isRunning) {
-                        try {
-                            queue.wait();
-                        } catch (InterruptedException e) {
-                            System.out.println("An error occurred while queue is waiting: " + e.getMessage());
-                        }
-                    }
+            while (this.isRunning) {
+                task = queue.poll();
 
-                    if(!isRunning) {
-                        return;
+                if (task == null) {
+                    if (++spins < 100) {
+                        Thread.yield();
+                    } else {
+                        park();
                     }
-
-                    task = queue.poll();
+                    continue;
                 }
+                spins = 0;
 
                 // If we don't catch RuntimeException,
                 // the pool could leak threads
+                long start = System.nanoTime();
                 try {
                     task.run();
                 } catch (RuntimeException e) {
                     System.out.println("Thread pool is interrupted due to an issue: " + e.getMessage());
                 }
+                busyNanos.getAndAdd(this.number * BUSY_STRIDE, System.nanoTime() - start);
             }
         }
 
+        /**
+         * Runs a task the worker could not queue, its time is counted in the task that executed it
+         *
+         * @param task executed from a task of this worker
+         */
+        private void runInline(Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.out.println("Thread pool is interrupted due to an issue: " + e.getMessage());
+            }
+        }
+
+        private BasicThreadPool pool() {
+            return BasicThreadPool.this;
+        }
+
+        private void park() {
+            this.isParked = true;
+            idleWorkers.incrementAndGet();
+
+            if (queue.isEmpty() && this.isRunning) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+
+            idleWorkers.decrementAndGet();
+            this.isParked = false;
+        }
+
         @Override
         public String toString() {
             return BasicThreadPool.this.toString() + " -> " + "PoolWorker #" + this.number;
@@ -0,0 +1,136 @@
+package stock.core.pool;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, array backed, multi producer / multi consumer queue that does not use locks
+ * Every slot has a sequence number that tells producers when the slot is free and
+ * consumers when the slot is filled, so producers and consumers only compete
+ * with a compare and set on the enqueue and dequeue positions.
+ * All the memory is allocated up front, offering an element allocates nothing
+ *
+ * @param <E> type of the elements
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class BoundedMpmcQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * @param capacity maximum number of elements, rounded up to a power of two
+     */
+    public BoundedMpmcQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the queue must be positive");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<E>(size);
+        this.sequences = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @param element to be added, must not be null
+     * @return false if the queue is full
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("The queue does not accept null elements");
+        }
+
+        long position = enqueuePosition.get();
+        int index;
+
+        for (;;) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+
+        buffer.lazySet(index, element);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * @return the oldest element or null if the queue is empty
+     */
+    public E poll() {
+        long position = dequeuePosition.get();
+        int index;
+
+        for (;;) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+
+        E element = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.lazySet(index, position + capacity);
+        return element;
+    }
+
+    /**
+     * @return approximate number of elements, exact when there are no concurrent operations
+     */
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        if (size < 0) {
+            return 0;
+        }
+        return size > capacity ? capacity : (int) size;
+    }
+
+    /**
+     * @return true if there seems to be no element in the queue
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return maximum number of elements
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
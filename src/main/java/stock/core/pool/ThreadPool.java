@@ -22,4 +22,14 @@ public interface ThreadPool {
      */
     void shutdown();
 
+    /**
+     * @return number of tasks waiting for a worker
+     */
+    int queueDepth();
+
+    /**
+     * @return time the workers spent running tasks since the pool was created, in nanoseconds
+     */
+    long busyNanos();
+
 }
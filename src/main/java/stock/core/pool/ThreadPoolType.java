@@ -0,0 +1,52 @@
+package stock.core.pool;
+
+/**
+ * The {@link ThreadPool} implementations that can be picked by name, e.g from a system property
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public enum ThreadPoolType {
+
+    /**
+     * {@link BasicThreadPool}, fixed workers with one shared queue
+     */
+    BASIC,
+
+    /**
+     * {@link WorkStealingThreadPool}, fixed workers with a deque per worker
+     */
+    WORK_STEALING,
+
+    /**
+     * {@link VirtualThreadPool}, a virtual thread per task
+     */
+    VIRTUAL;
+
+    /**
+     * @param threadsCount number of workers, ignored by {@link #VIRTUAL}
+     * @return a new thread pool of this type
+     */
+    public ThreadPool create(int threadsCount) {
+        switch (this) {
+            case WORK_STEALING:
+                return new WorkStealingThreadPool(threadsCount);
+            case VIRTUAL:
+                return new VirtualThreadPool();
+            default:
+                return new BasicThreadPool(threadsCount);
+        }
+    }
+
+    /**
+     * @param name case insensitive name of the type, e.g "work_stealing"
+     * @return the type with that name or {@link #BASIC} if the name is null
+     */
+    public static ThreadPoolType fromName(String name) {
+        if (name == null) {
+            return BASIC;
+        }
+        return ThreadPoolType.valueOf(name.trim().toUpperCase());
+    }
+}
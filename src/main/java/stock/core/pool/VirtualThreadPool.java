@@ -0,0 +1,134 @@
+package stock.core.pool;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ThreadPool} that runs every task on its own virtual thread
+ * Meant for deployments with a lot of blocked or waiting tasks, where a fixed number
+ * of platform threads would be the limit. Virtual threads are looked up at runtime,
+ * on a JVM without them the pool falls back to a cached pool of platform threads.
+ * Tasks executed while the pool is shut down wait for the next restart
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    private final Object EXECUTOR_LOCK = new Object();
+
+    private volatile ExecutorService executor;
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<Runnable>();
+
+    /**
+     * Tasks handed to the executor that did not start yet
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Time spent running tasks, striped because any number of virtual threads add to it
+     */
+    private final LongAdder busyNanos = new LongAdder();
+
+    public VirtualThreadPool() {
+        this.executor = newExecutor();
+    }
+
+    /**
+     * @param task to be executed on this Thread Pool
+     */
+    public void execute(final Runnable task) {
+        ExecutorService current = this.executor;
+
+        if (current == null) {
+            this.pending.add(task);
+            return;
+        }
+
+        this.queued.incrementAndGet();
+        try {
+            current.execute(new Runnable() {
+                public void run() {
+                    queued.decrementAndGet();
+                    long start = System.nanoTime();
+                    // If we don't catch RuntimeException,
+                    // the failure would only be visible in the default handler
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        System.out.println("Thread pool is interrupted due to an issue: " + e.getMessage());
+                    }
+                    busyNanos.add(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the pool was shut down in the meantime
+            this.queued.decrementAndGet();
+            this.pending.add(task);
+        }
+    }
+
+    /**
+     * Restarts the thread pool and executes the tasks that came in while it was shut down
+     */
+    public void restart() {
+        synchronized (EXECUTOR_LOCK) {
+            if (this.executor != null) {
+                return;
+            }
+            this.executor = newExecutor();
+        }
+
+        Runnable task;
+        while ((task = this.pending.poll()) != null) {
+            this.execute(task);
+        }
+    }
+
+    /**
+     * Shuts down the thread pool, tasks that are already running are left to finish
+     */
+    public void shutdown() {
+        synchronized (EXECUTOR_LOCK) {
+            if (this.executor == null) {
+                return;
+            }
+            this.executor.shutdown();
+            this.executor = null;
+        }
+    }
+
+    public int queueDepth() {
+        return queued.get() + pending.size();
+    }
+
+    public long busyNanos() {
+        return busyNanos.sum();
+    }
+
+    /**
+     * @return an executor with a new virtual thread per task, or a cached platform thread pool
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads are not available on this JVM, falling back to platform threads");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadPool " + this.hashCode();
+    }
+}
@@ -0,0 +1,244 @@
+package stock.core.pool;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Work stealing implementation of a {@link ThreadPool}
+ * Every worker owns a deque of tasks. A task that is executed from a worker of this pool
+ * is pushed on the deque of that worker and stays local, tasks that come from other threads
+ * go through a shared {@link BoundedMpmcQueue}. A worker takes the newest task of its own deque,
+ * then the shared queue, and when both are empty it steals the oldest task of another worker
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class WorkStealingThreadPool implements ThreadPool {
+
+    /**
+     * Upper bound of a park, covers a wake up that raced with the worker going idle
+     */
+    private static final long PARK_NANOS = 1000000;
+
+    private final int threadsCount;
+    private final StealingWorker[] threads;
+
+    /**
+     * Tasks submitted from threads that do not belong to this pool
+     */
+    private final BoundedMpmcQueue<Runnable> submissions;
+
+    /**
+     * Number of workers that are parked, waiting for a task
+     */
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+
+    /**
+     * Time spent running tasks by the worker of every number, each worker only adds to its own slot.
+     * The slots are {@link BasicThreadPool#BUSY_STRIDE} longs apart so two workers never write the same cache line
+     */
+    private final AtomicLongArray busyNanos;
+
+    public WorkStealingThreadPool(int threadsCount) {
+        this(threadsCount, BasicThreadPool.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param threadsCount        number of worker threads
+     * @param submissionsCapacity maximum number of tasks from outside the pool waiting for a worker
+     */
+    public WorkStealingThreadPool(int threadsCount, int submissionsCapacity) {
+        this.threadsCount = threadsCount;
+        this.submissions = new BoundedMpmcQueue<Runnable>(submissionsCapacity);
+        this.threads = new StealingWorker[threadsCount];
+        this.busyNanos = new AtomicLongArray(threadsCount * BasicThreadPool.BUSY_STRIDE);
+
+        // every worker must exist before any of them starts stealing
+        for (int i = 0; i < threadsCount; i++) {
+            threads[i] = new StealingWorker(i, new ConcurrentLinkedDeque<Runnable>());
+        }
+        for (int i = 0; i < threadsCount; i++) {
+            threads[i].start();
+        }
+    }
+
+    /**
+     * @param task to be executed on this Thread Pool
+     */
+    public void execute(Runnable task) {
+        Thread current = Thread.currentThread();
+
+        if (current instanceof StealingWorker && ((StealingWorker) current).pool() == this) {
+            ((StealingWorker) current).tasks.offerFirst(task);
+        } else {
+            while (!submissions.offer(task)) {
+                Thread.yield();
+            }
+        }
+
+        if (idleWorkers.get() > 0) {
+            for (int i = 0; i < threadsCount; i++) {
+                StealingWorker worker = threads[i];
+                if (worker.isParked) {
+                    LockSupport.unpark(worker);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Restarts the thread pool
+     * Workers that were shut down are replaced by new threads that keep their deques
+     */
+    public void restart() {
+        for (int i = 0; i < threadsCount; i++) {
+            if (!threads[i].isRunning) {
+                threads[i] = new StealingWorker(i, threads[i].tasks);
+                threads[i].start();
+            }
+        }
+    }
+
+    /**
+     * Shuts down the thread pool
+     */
+    public void shutdown() {
+        for (int i = 0; i < threadsCount; i++) {
+            threads[i].setRunning(false);
+            LockSupport.unpark(threads[i]);
+        }
+    }
+
+    public int queueDepth() {
+        int depth = submissions.size();
+        for (int i = 0; i < threadsCount; i++) {
+            depth += threads[i].tasks.size();
+        }
+        return depth;
+    }
+
+    public long busyNanos() {
+        long total = 0;
+        for (int i = 0; i < threadsCount; i++) {
+            total += busyNanos.get(i * BasicThreadPool.BUSY_STRIDE);
+        }
+        return total;
+    }
+
+    /**
+     * @param thief the worker that looks for a task
+     * @return the oldest task of another worker or null if every deque is empty
+     */
+    private Runnable steal(StealingWorker thief) {
+        for (int i = 1; i < threadsCount; i++) {
+            Runnable task = threads[(thief.number + i) % threadsCount].tasks.pollLast();
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if there is a task in the shared queue or in any deque
+     */
+    private boolean hasTasks() {
+        if (!submissions.isEmpty()) {
+            return true;
+        }
+        for (int i = 0; i < threadsCount; i++) {
+            if (!threads[i].tasks.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wrapper class for {@link Thread} that defines a worker with its own deque for this pool
+     */
+    private class StealingWorker extends Thread {
+
+        private final int number;
+
+        private final ConcurrentLinkedDeque<Runnable> tasks;
+
+        private volatile boolean isRunning;
+
+        private volatile boolean isParked;
+
+        StealingWorker(int number, ConcurrentLinkedDeque<Runnable> tasks) {
+            this.number = number;
+            this.tasks = tasks;
+            this.isRunning = true;
+        }
+
+        WorkStealingThreadPool pool() {
+            return WorkStealingThreadPool.this;
+        }
+
+        public void setRunning(boolean running) {
+            this.isRunning = running;
+        }
+
+        public void run() {
+            int spins = 0;
+
+            while (this.isRunning) {
+                Runnable task = tasks.pollFirst();
+                if (task == null) {
+                    task = submissions.poll();
+                }
+                if (task == null) {
+                    task = steal(this);
+                }
+
+                if (task == null) {
+                    if (++spins < 100) {
+                        Thread.yield();
+                    } else {
+                        park();
+                    }
+                    continue;
+                }
+                spins = 0;
+
+                // If we don't catch RuntimeException,
+                // the pool could leak threads
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.out.println("Thread pool is interrupted due to an issue: " + e.getMessage());
+                }
+                busyNanos.getAndAdd(this.number * BasicThreadPool.BUSY_STRIDE, System.nanoTime() - start);
+            }
+        }
+
+        private void park() {
+            this.isParked = true;
+            idleWorkers.incrementAndGet();
+
+            if (!hasTasks() && this.isRunning) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+
+            idleWorkers.decrementAndGet();
+            this.isParked = false;
+        }
+
+        @Override
+        public String toString() {
+            return WorkStealingThreadPool.this.toString() + " -> " + "StealingWorker #" + this.number;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WorkStealingThreadPool " + this.hashCode() + " [" + threadsCount + " Workers]";
+    }
+}
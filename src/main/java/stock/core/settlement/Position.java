@@ -0,0 +1,70 @@
+package stock.core.settlement;
+
+/**
+ * Balance of one participant in one symbol, read from a {@link SettlementSnapshot}
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class Position {
+
+    private final long participantId;
+    private final String symbol;
+    private final long quantity;
+    private final long cash;
+    private final long fills;
+
+    Position(long participantId, String symbol, long quantity, long cash, long fills) {
+        this.participantId = participantId;
+        this.symbol = symbol;
+        this.quantity = quantity;
+        this.cash = cash;
+        this.fills = fills;
+    }
+
+    public long getParticipantId() {
+        return participantId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return count bought minus count sold
+     */
+    public long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @return cash received minus cash paid, in ticks of the market
+     */
+    public long getCash() {
+        return cash;
+    }
+
+    /**
+     * @return number of fills the participant took part in
+     */
+    public long getFills() {
+        return fills;
+    }
+
+    /**
+     * @param quantity change of the position of another part of the ledger
+     * @param cash     change of the cash of another part of the ledger
+     * @param fills    fills of another part of the ledger
+     * @return the sum of both balances
+     */
+    Position plus(long quantity, long cash, long fills) {
+        return new Position(this.participantId, this.symbol, this.quantity + quantity, this.cash + cash, this.fills + fills);
+    }
+
+    @Override
+    public String toString() {
+        return "{\"participant\": " + participantId + ", \"symbol\": " + symbol + ", \"quantity\": " + quantity
+                + ", \"cash\": " + cash + ", \"fills\": " + fills + "}";
+    }
+}
@@ -0,0 +1,215 @@
+package stock.core.settlement;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cash and position of every buyer and seller of a stock market, changed on every fill
+ * The ledger is split in stripes and a thread always settles in the stripe of its id, so the workers
+ * and matchers of the markets never wait for each other. Every stripe keeps its own partial balances
+ * in plain arrays with one row per participant that traded the symbol on the stripe, so a stripe does not
+ * grow to the biggest participant id and a fill only allocates when the rows of a symbol are full.
+ * A {@link #snapshot()} holds every stripe at once and adds the partial balances up, so both legs
+ * of a fill that was settled under one {@link #lock()} are either in the snapshot or not at all
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class SettlementLedger {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+
+    private final int mask;
+
+    /**
+     * Ledger with four stripes per available processor
+     */
+    public SettlementLedger() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param stripes number of stripes, rounded up to a power of two
+     */
+    public SettlementLedger(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Holds the stripe of the current thread, so the legs of a fill that are settled until {@link Stripe#unlock()}
+     * are seen together by a snapshot. The stripe is reentrant, {@link #settle(long, String, int, long)}
+     * can be called while it is held
+     *
+     * @return the stripe to unlock once the fill is settled
+     */
+    public Stripe lock() {
+        Stripe stripe = this.stripe();
+        stripe.lock.lock();
+        return stripe;
+    }
+
+    /**
+     * Records one leg of a fill
+     *
+     * @param participantId dense id of the buyer or the seller
+     * @param symbol        id of the traded instrument
+     * @param quantity      change of the position, positive for a buyer and negative for a seller
+     * @param cash          change of the cash in ticks, negative for a buyer and positive for a seller
+     */
+    public void settle(long participantId, String symbol, int quantity, long cash) {
+        if (participantId < 0 || participantId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The participant id " + participantId + " can not be settled");
+        }
+        Stripe stripe = this.stripe();
+        stripe.lock.lock();
+        try {
+            stripe.accounts(symbol).add((int) participantId, quantity, cash);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Holds every stripe while the partial balances are added up, the fills of the markets
+     * wait for the snapshot, e.g taken once at the end of the day
+     *
+     * @return the balances of every participant that took part in a fill
+     */
+    public SettlementSnapshot snapshot() {
+        for (Stripe stripe : this.stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            SettlementSnapshot snapshot = new SettlementSnapshot();
+            for (Stripe stripe : this.stripes) {
+                for (Map.Entry<String, Accounts> symbol : stripe.accounts.entrySet()) {
+                    Accounts accounts = symbol.getValue();
+                    for (int row = 0; row < accounts.size; row++) {
+                        snapshot.add(accounts.ids[row], symbol.getKey(), accounts.quantity[row], accounts.cash[row], accounts.fills[row]);
+                    }
+                }
+            }
+            return snapshot;
+        } finally {
+            for (int i = this.stripes.length - 1; i >= 0; i--) {
+                this.stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    private Stripe stripe() {
+        return this.stripes[(int) Thread.currentThread().getId() & this.mask];
+    }
+
+    /**
+     * Partial balances settled by the threads whose id falls on this stripe
+     */
+    public static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Balances of every symbol, guarded by the lock
+         */
+        private final Map<String, Accounts> accounts = new HashMap<String, Accounts>();
+
+        private Stripe() {
+        }
+
+        public void unlock() {
+            this.lock.unlock();
+        }
+
+        private Accounts accounts(String symbol) {
+            Accounts current = this.accounts.get(symbol);
+            if (current == null) {
+                current = new Accounts();
+                this.accounts.put(symbol, current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Balances of one symbol, one row per participant in the order of their first fill.
+     * The row of a participant id is found through an open addressing table with linear probing,
+     * the rows are replaced by copies twice as big when they are full
+     */
+    private static final class Accounts {
+
+        /**
+         * Row of a participant plus one, 0 marks an empty entry, twice as big as the rows
+         */
+        private int[] table = new int[INITIAL_CAPACITY * 2];
+
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private long[] quantity = new long[INITIAL_CAPACITY];
+        private long[] cash = new long[INITIAL_CAPACITY];
+        private long[] fills = new long[INITIAL_CAPACITY];
+
+        private int size;
+
+        private void add(int id, int quantity, long cash) {
+            int row = this.row(id);
+            this.quantity[row] += quantity;
+            this.cash[row] += cash;
+            this.fills[row]++;
+        }
+
+        private int row(int id) {
+            int index = slot(id, this.table.length);
+            for (int entry = this.table[index]; entry != 0; entry = this.table[index]) {
+                if (this.ids[entry - 1] == id) {
+                    return entry - 1;
+                }
+                index = (index + 1) & (this.table.length - 1);
+            }
+
+            if (this.size == this.ids.length) {
+                this.grow();
+                index = this.free(id);
+            }
+            int row = this.size++;
+            this.ids[row] = id;
+            this.table[index] = row + 1;
+            return row;
+        }
+
+        private void grow() {
+            int capacity = this.ids.length * 2;
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            this.quantity = Arrays.copyOf(this.quantity, capacity);
+            this.cash = Arrays.copyOf(this.cash, capacity);
+            this.fills = Arrays.copyOf(this.fills, capacity);
+
+            this.table = new int[capacity * 2];
+            for (int row = 0; row < this.size; row++) {
+                this.table[this.free(this.ids[row])] = row + 1;
+            }
+        }
+
+        private int free(int id) {
+            int index = slot(id, this.table.length);
+            while (this.table[index] != 0) {
+                index = (index + 1) & (this.table.length - 1);
+            }
+            return index;
+        }
+
+        private static int slot(int id, int length) {
+            // spreads consecutive ids over the table
+            int hash = id * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & (length - 1);
+        }
+    }
+}
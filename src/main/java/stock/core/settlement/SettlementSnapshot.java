@@ -0,0 +1,85 @@
+package stock.core.settlement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent copy of the balances of a {@link SettlementLedger}, e.g the end of day positions
+ * It does not change anymore once it was taken, the fills settled afterwards are not in it
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class SettlementSnapshot {
+
+    /**
+     * Balances by symbol, then by participant id
+     */
+    private final Map<String, Map<Long, Position>> positions = new TreeMap<String, Map<Long, Position>>();
+
+    SettlementSnapshot() {
+    }
+
+    /**
+     * Adds the partial balance of a stripe of the ledger
+     */
+    void add(long participantId, String symbol, long quantity, long cash, long fills) {
+        Map<Long, Position> bySymbol = this.positions.get(symbol);
+        if (bySymbol == null) {
+            bySymbol = new TreeMap<Long, Position>();
+            this.positions.put(symbol, bySymbol);
+        }
+        Position current = bySymbol.get(participantId);
+        bySymbol.put(participantId, current == null
+                ? new Position(participantId, symbol, quantity, cash, fills) : current.plus(quantity, cash, fills));
+    }
+
+    /**
+     * @param participantId dense id of the buyer or the seller
+     * @param symbol        id of the traded instrument
+     * @return the balance, with a quantity and a cash of 0 if the participant never traded the symbol
+     */
+    public Position getPosition(long participantId, String symbol) {
+        Map<Long, Position> bySymbol = this.positions.get(symbol);
+        Position position = bySymbol != null ? bySymbol.get(participantId) : null;
+        return position != null ? position : new Position(participantId, symbol, 0, 0, 0);
+    }
+
+    /**
+     * @param participantId dense id of the buyer or the seller
+     * @return cash received minus cash paid over every symbol, in ticks of the market
+     */
+    public long getCash(long participantId) {
+        long cash = 0;
+        for (Map<Long, Position> bySymbol : this.positions.values()) {
+            Position position = bySymbol.get(participantId);
+            if (position != null) {
+                cash += position.getCash();
+            }
+        }
+        return cash;
+    }
+
+    /**
+     * @return every balance, by symbol then by participant id
+     */
+    public List<Position> getPositions() {
+        List<Position> all = new ArrayList<Position>();
+        for (Map<Long, Position> bySymbol : this.positions.values()) {
+            all.addAll(bySymbol.values());
+        }
+        return all;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Position position : this.getPositions()) {
+            out.append(position).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package stock.exceptions;
+
+/**
+ * The intake of the stock market is full and the order was not accepted,
+ * it did not reach the book and can be sent again later
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+
+public class StockMarketOverloadedException extends StockMarketException {
+    public StockMarketOverloadedException(String errorMessage) {
+        super(errorMessage);
+    }
+}
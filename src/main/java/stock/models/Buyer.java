@@ -1,5 +1,6 @@
 package stock.models;
 
+import stock.core.market.OrderTicket;
 import stock.core.market.StockMarket;
 
 /**
@@ -21,32 +22,50 @@ public class Buyer extends StockPerson {
     }
 
     /**
-     * @param cost future balance implementations
+     * @param instanceIdentifier not unique
+     * @param id                 the id the buyer had before, e.g when it is restored from a journal,
+     *                           a new id is given if it already belongs to another participant
+     * @param stockMarket        the given StockMarket
+     */
+    public Buyer(String instanceIdentifier, long id, StockMarket stockMarket) {
+        super(instanceIdentifier, id, stockMarket);
+    }
+
+    /**
+     * The buyer pays the cost and holds the count
+     *
+     * @param symbol   id of the traded instrument
+     * @param quantity bought count
+     * @param cost     in ticks
      */
     @Override
-    void notify(double cost) {
-        // System.out.println("stock.models.Buyer " + super.getIdentifier() + " bought an action with " + cost);
+    void notify(String symbol, int quantity, long cost) {
+        this.settle(symbol, quantity, -cost);
     }
 
     /**
-     * This method will start a thread that will iterate over the StockMarket supplies in order
-     * to buy a new supply. It has a counter for every iteration, let's say for e.g if the counter
-     * reaches the 2000 the iteration, there is no supply that can match his demand
-     * There is room for improvement. For a fact, is not the buyer job to remove consumed supplies or
-     * demands, the StockMarket Thread should do it.
+     * Submits the demand to the StockMarket without blocking. The StockMarket matches
+     * the demand with the existing supplies on its own executor and completes the
+     * returned ticket once the demand was accepted and once it was entirely consumed
      *
      * @param demand to be added
+     * @return ticket that tracks the demand
+     */
+    public OrderTicket addDemand(Demand demand) {
+        return this.stockMarket.submitDemand(demand);
+    }
+
+    /**
+     * Submits a demand taken from the pool of the StockMarket, it goes back to the pool once it was consumed
+     * and must not be used after the ticket was filled
+     *
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @return ticket that tracks the demand
      */
-    public void addDemand(final Demand demand) {
-        final Buyer self = this;
-        new Thread(new Runnable() {
-            public void run() {
-                synchronized (self.stockMarket) {
-                    self.stockMarket.addDemand(demand);
-                }
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+    public OrderTicket addPooledDemand(String symbol, double price, int count) {
+        return this.stockMarket.submitDemand(this.stockMarket.getOrderPool().demand(symbol, price, count, this));
     }
 
 }
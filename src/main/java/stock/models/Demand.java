@@ -20,11 +20,53 @@ public class Demand extends StockObject {
     }
 
     /**
-     * @param count how much to consume
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @param owner  Buyer
      */
-    public void consume(int count) {
+    public Demand(String symbol, double price, int count, Buyer owner) {
+        super(symbol, price, count, owner);
+    }
+
+    /**
+     * @param storage    that keeps the count
+     * @param index      slot of the demand in the storage
+     * @param sequence   of the slot when the demand was stored in it
+     * @param id         given by the stock market
+     * @param symbol     id of the traded instrument
+     * @param priceTicks price in ticks
+     * @param owner      Buyer
+     */
+    private Demand(OrderStorage storage, int index, long sequence, long id, String symbol, long priceTicks, Buyer owner) {
+        super(storage, index, sequence, id, symbol, priceTicks, owner);
+    }
+
+    /**
+     * Materializes a demand that rests in a storage which only keeps its columns
+     * The view is not the object the demand was added with, it reads and writes the count of the slot
+     *
+     * @param storage    that keeps the count
+     * @param index      slot of the demand in the storage
+     * @param sequence   of the slot when the demand was stored in it
+     * @param id         given by the stock market
+     * @param symbol     id of the traded instrument
+     * @param priceTicks price in ticks
+     * @param owner      Buyer
+     * @return a view of the demand
+     */
+    public static Demand view(OrderStorage storage, int index, long sequence, long id, String symbol, long priceTicks, Buyer owner) {
+        return new Demand(storage, index, sequence, id, symbol, priceTicks, owner);
+    }
+
+    /**
+     * @param count      how much to consume
+     * @param priceTicks price of the trade in ticks, the price of the order that was resting in the book
+     */
+    public void consume(int count, long priceTicks) {
+        this.checkNotReleased();
         this.setCount(this.getCount() - count);
-        this.getOwner().notify(count);
+        this.getOwner().notify(this.getSymbol(), count, count * priceTicks);
     }
 
 }
@@ -0,0 +1,105 @@
+package stock.models;
+
+import stock.core.pool.BoundedMpmcQueue;
+
+/**
+ * Recycles the supplies and demands of a stock market
+ * An order taken from the pool goes back to it once the stock market removed it from the book, or once its
+ * first matching ended if the book only keeps its columns, so in a steady state new orders allocate nothing. A released order fails every later use,
+ * and its generation changes, so a stale reference to it is detected instead of trading the reused order.
+ * The pool is bounded, orders released while it is full are left to the garbage collector
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class OrderPool {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final BoundedMpmcQueue<Supply> supplies;
+    private final BoundedMpmcQueue<Demand> demands;
+
+    public OrderPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of released supplies and of released demands that are kept
+     */
+    public OrderPool(int capacity) {
+        this.supplies = new BoundedMpmcQueue<Supply>(capacity);
+        this.demands = new BoundedMpmcQueue<Demand>(capacity);
+    }
+
+    /**
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @param owner  Seller
+     * @return a released supply that was reused or a new one
+     */
+    public Supply supply(String symbol, double price, int count, Seller owner) {
+        Supply supply = this.supplies.poll();
+        if (supply == null) {
+            supply = new Supply(symbol, price, count, owner);
+        }
+        supply.reuse(this, symbol, price, count, owner);
+        return supply;
+    }
+
+    /**
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @param owner  Buyer
+     * @return a released demand that was reused or a new one
+     */
+    public Demand demand(String symbol, double price, int count, Buyer owner) {
+        Demand demand = this.demands.poll();
+        if (demand == null) {
+            demand = new Demand(symbol, price, count, owner);
+        }
+        demand.reuse(this, symbol, price, count, owner);
+        return demand;
+    }
+
+    /**
+     * Gives an order that left the book back to the pool it was taken from
+     * Nothing happens for an order that was not taken from a pool
+     *
+     * @param order that was removed from the book and is not used by the stock market anymore
+     * @throws IllegalStateException if the order was already released
+     */
+    public static void recycle(StockObject order) {
+        OrderPool pool = order.getPool();
+        if (pool == null) {
+            return;
+        }
+        order.release();
+        if (order instanceof Supply) {
+            pool.supplies.offer((Supply) order);
+        } else {
+            pool.demands.offer((Demand) order);
+        }
+    }
+
+    /**
+     * @return number of supplies waiting to be reused
+     */
+    public int availableSupplies() {
+        return this.supplies.size();
+    }
+
+    /**
+     * @return number of demands waiting to be reused
+     */
+    public int availableDemands() {
+        return this.demands.size();
+    }
+
+    @Override
+    public String toString() {
+        return "OrderPool [" + supplies.size() + " supplies, " + demands.size() + " demands]";
+    }
+}
@@ -0,0 +1,29 @@
+package stock.models;
+
+/**
+ * Primitive storage that owns the count of the orders bound to it
+ * An order that is bound to a storage is only a view, its count is read from and written to
+ * the slot of the storage until the order is unbound again. A slot is reused once its order left,
+ * so every order that is stored in it gets a new sequence, a view of a former order reads a count of 0
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public interface OrderStorage {
+
+    /**
+     * @param index    slot of the order
+     * @param sequence of the slot when the order was stored in it
+     * @return the count of the order, 0 once it left the slot
+     */
+    int count(int index, long sequence);
+
+    /**
+     * @param index    slot of the order
+     * @param sequence of the slot when the order was stored in it
+     * @param count    the new count of the order, dropped once it left the slot
+     */
+    void count(int index, long sequence, int count);
+
+}
@@ -0,0 +1,161 @@
+package stock.models;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out dense numeric ids to the buyers and sellers of a stock market
+ * The id of a participant is its index in an array, so a participant is found in O(1) without a lock.
+ * Orders, the history and the journal only keep the numeric id. A hashed external id is only computed
+ * when it is asked for, for the callers that need an id that can not be guessed from the outside
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public class ParticipantRegistry {
+
+    /**
+     * Registry of the participants that do not belong to a market
+     */
+    public static final ParticipantRegistry DEFAULT = new ParticipantRegistry();
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Participant of every id, slot 0 is never used, replaced by a bigger copy when it is full
+     */
+    private volatile StockPerson[] participants = new StockPerson[INITIAL_CAPACITY];
+
+    /**
+     * Next id that is handed out, guarded by this
+     */
+    private long next = 1;
+
+    private final ConcurrentMap<Long, String> externalIds = new ConcurrentHashMap<Long, String>();
+    private final ConcurrentMap<String, Long> byExternalId = new ConcurrentHashMap<String, Long>();
+
+    /**
+     * @param person the participant
+     * @return the new id of the participant
+     */
+    public synchronized long register(StockPerson person) {
+        long id = this.next;
+        this.store(id, person);
+        return id;
+    }
+
+    /**
+     * Registers a participant under the id it had before, e.g when it is restored from a journal
+     *
+     * @param person the participant
+     * @param id     the id it had
+     * @return false if the id already belongs to another participant, nothing is registered then
+     */
+    public synchronized boolean register(StockPerson person, long id) {
+        if (id < 1) {
+            throw new IllegalArgumentException("The id of a participant must be positive");
+        }
+        if (id < this.participants.length && this.participants[(int) id] != null) {
+            return this.participants[(int) id] == person;
+        }
+        this.store(id, person);
+        return true;
+    }
+
+    /**
+     * @param id of the participant
+     * @return the participant or null if the id was not handed out
+     */
+    public StockPerson get(long id) {
+        StockPerson[] current = this.participants;
+        return id > 0 && id < current.length ? current[(int) id] : null;
+    }
+
+    /**
+     * @return the highest id that was handed out
+     */
+    public synchronized long lastId() {
+        return this.next - 1;
+    }
+
+    /**
+     * The external id is a SHA-256 of the name and the id of the participant, computed the first time it is asked for
+     *
+     * @param id of the participant
+     * @return the external id or null if the id was not handed out
+     */
+    public String externalId(long id) {
+        String externalId = this.externalIds.get(id);
+        if (externalId != null) {
+            return externalId;
+        }
+
+        StockPerson person = this.get(id);
+        if (person == null) {
+            return null;
+        }
+        externalId = Hashing.sha256()
+                .hashString(person.getName() + ":" + id, StandardCharsets.UTF_8)
+                .toString();
+        this.mapExternalId(id, externalId);
+        return this.externalIds.get(id);
+    }
+
+    /**
+     * Maps an id that was given outside of the market, e.g an account number, to a participant
+     *
+     * @param id         of the participant
+     * @param externalId the id it is known by outside of the market
+     * @return false if the participant or the external id are already mapped
+     */
+    public boolean mapExternalId(long id, String externalId) {
+        if (this.byExternalId.putIfAbsent(externalId, id) != null) {
+            return false;
+        }
+        if (this.externalIds.putIfAbsent(id, externalId) != null) {
+            this.byExternalId.remove(externalId, id);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param externalId an id given by {@link #externalId(long)} or {@link #mapExternalId(long, String)}
+     * @return the participant or null if the external id is not mapped
+     */
+    public StockPerson byExternalId(String externalId) {
+        Long id = this.byExternalId.get(externalId);
+        return id != null ? this.get(id) : null;
+    }
+
+    /**
+     * Caller holds the lock of this
+     */
+    private void store(long id, StockPerson person) {
+        if (id > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("No participant id is left");
+        }
+        StockPerson[] current = this.participants;
+        if (id >= current.length) {
+            long capacity = current.length;
+            while (capacity <= id) {
+                capacity <<= 1;
+            }
+            current = Arrays.copyOf(current, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+        }
+        current[(int) id] = person;
+        // the volatile write publishes the slot to the readers of get
+        this.participants = current;
+        this.next = Math.max(this.next, id + 1);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ParticipantRegistry [" + (this.next - 1) + " ids]";
+    }
+}
@@ -1,5 +1,6 @@
 package stock.models;
 
+import stock.core.market.OrderTicket;
 import stock.core.market.StockMarket;
 
 /**
@@ -21,30 +22,61 @@ public class Seller extends StockPerson {
     }
 
     /**
-     * This method starts a Thread and add a supply to the StockMarket
+     * @param instanceIdentifier not unique
+     * @param id                 the id the seller had before, e.g when it is restored from a journal,
+     *                           a new id is given if it already belongs to another participant
+     * @param stockMarket        the given StockMarket
+     */
+    public Seller(String instanceIdentifier, long id, StockMarket stockMarket) {
+        super(instanceIdentifier, id, stockMarket);
+    }
+
+    /**
+     * This method submits a new supply to the StockMarket without blocking
      *
      * @param price double
      * @param count int
+     * @return ticket that tracks the supply
      */
-    public void createSupply(double price, int count) {
-        final Seller self = this;
-        final Supply supply = new Supply(price, count, this);
-        new Thread(new Runnable() {
-            public void run() {
-                synchronized (self.stockMarket) {
-                    self.stockMarket.addSupply(supply);
-                }
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+    public OrderTicket createSupply(double price, int count) {
+        return this.stockMarket.submitSupply(new Supply(price, count, this));
     }
 
     /**
-     * @param cost future balance implementations
+     * This method submits a new supply of an instrument to the StockMarket without blocking
+     *
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @return ticket that tracks the supply
+     */
+    public OrderTicket createSupply(String symbol, double price, int count) {
+        return this.stockMarket.submitSupply(new Supply(symbol, price, count, this));
+    }
+
+    /**
+     * Submits a supply taken from the pool of the StockMarket, it goes back to the pool once it was consumed
+     * and must not be used after the ticket was filled
+     *
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @return ticket that tracks the supply
+     */
+    public OrderTicket createPooledSupply(String symbol, double price, int count) {
+        return this.stockMarket.submitSupply(this.stockMarket.getOrderPool().supply(symbol, price, count, this));
+    }
+
+    /**
+     * The seller receives the cost and gives the count away
+     *
+     * @param symbol   id of the traded instrument
+     * @param quantity sold count
+     * @param cost     in ticks
      */
     @Override
-    public void notify(double cost) {
-        // System.out.println("stock.models.Seller " + super.getIdentifier() + " sold an action with " + cost);
+    void notify(String symbol, int quantity, long cost) {
+        this.settle(symbol, -quantity, cost);
     }
 
 }
@@ -8,48 +8,225 @@ package stock.models;
  * @since 11.19.2019
  */
 
-abstract class StockObject {
-    private double price;
+public abstract class StockObject {
+
+    /**
+     * Instrument of the orders that are created without a symbol
+     */
+    public static final String DEFAULT_SYMBOL = "DEFAULT";
+
+    private long id;
+    private String symbol;
+    private long priceTicks;
+    private TickSize tickSize;
     private int count;
     private StockPerson owner;
 
+    /**
+     * Slot that owns the count while the order rests in a book that keeps its orders in arrays, null otherwise
+     * The storage, the index and the sequence are published together, a reader never sees the storage with an index of -1
+     */
+    private volatile Slot slot;
+
+    /**
+     * Pool the order goes back to once it was consumed, null if it was not taken from a pool
+     */
+    private OrderPool pool;
+
+    /**
+     * Incremented every time the order goes back to its pool, so a stale reference can be told apart from the reused order
+     */
+    private volatile int generation;
+    private volatile boolean released;
+
     /**
      * @param price int
      * @param count count
      * @param owner StockPerson
      */
     StockObject(double price, int count, StockPerson owner) {
-        this.setPrice(price);
+        this(DEFAULT_SYMBOL, price, count, owner);
+    }
+
+    /**
+     * The price is converted to ticks of the market of the owner
+     *
+     * @param symbol id of the traded instrument
+     * @param price  int
+     * @param count  count
+     * @param owner  StockPerson
+     * @throws IllegalArgumentException if the price is not a multiple of the tick size
+     */
+    StockObject(String symbol, double price, int count, StockPerson owner) {
+        this.init(symbol, price, count, owner);
+    }
+
+    /**
+     * View of an order that rests in the slot of a storage, the storage keeps its count
+     *
+     * @param storage    that keeps the count
+     * @param index      slot of the order in the storage
+     * @param sequence   of the slot when the order was stored in it
+     * @param id         given by the stock market
+     * @param symbol     id of the traded instrument
+     * @param priceTicks price in ticks
+     * @param owner      StockPerson
+     */
+    StockObject(OrderStorage storage, int index, long sequence, long id, String symbol, long priceTicks, StockPerson owner) {
+        this.id = id;
+        this.setSymbol(symbol);
+        this.tickSize = tickSizeOf(owner);
+        this.setPriceTicks(priceTicks);
+        this.setOwner(owner);
+        this.slot = new Slot(storage, index, sequence);
+    }
+
+    private void init(String symbol, double price, int count, StockPerson owner) {
+        this.setSymbol(symbol);
+        this.tickSize = tickSizeOf(owner);
+        this.setPriceTicks(this.tickSize.toTicks(price));
         this.setCount(count);
         this.setOwner(owner);
     }
 
     /**
-     * @return the price
+     * @return id given by the stock market when the order was accepted, 0 before
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @param id given by the stock market, an order keeps its first id
+     */
+    public void setId(long id) {
+        this.checkNotReleased();
+        if (this.id != 0) {
+            throw new IllegalStateException("The order already has the id " + this.id);
+        }
+        this.id = id;
+    }
+
+    /**
+     * @return id of the traded instrument
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @param symbol id of the traded instrument, the default one if null
+     */
+    private void setSymbol(String symbol) {
+        this.symbol = symbol == null ? DEFAULT_SYMBOL : symbol;
+    }
+
+    /**
+     * @return the decimal price, only meant to be printed, the matching uses {@link #getPriceTicks()}
      */
     public double getPrice() {
-        return price;
+        return tickSize.toPrice(priceTicks);
     }
 
     /**
-     * @param price double
+     * @return the price in ticks
      */
-    private void setPrice(double price) {
-        this.price = price;
+    public long getPriceTicks() {
+        return priceTicks;
+    }
+
+    /**
+     * @param priceTicks long
+     */
+    private void setPriceTicks(long priceTicks) {
+        this.priceTicks = priceTicks;
     }
 
     /**
      * @return count
      */
     public int getCount() {
-        return count;
+        Slot current = this.slot;
+        return current != null ? current.storage.count(current.index, current.sequence) : count;
     }
 
     /**
      * @param count int
      */
     void setCount(int count) {
-        this.count = count;
+        Slot current = this.slot;
+        if (current != null) {
+            current.storage.count(current.index, current.sequence, count);
+        } else {
+            this.count = count;
+        }
+    }
+
+    /**
+     * Changes a resting order, called by the stock market while it holds the book of the order
+     * The price may only change while the order is out of the book, its level is found by its price
+     *
+     * @param priceTicks new price in ticks
+     * @param count      new remaining count, 0 once the order is cancelled
+     */
+    public void amend(long priceTicks, int count) {
+        this.checkNotReleased();
+        this.setPriceTicks(priceTicks);
+        this.setCount(count);
+    }
+
+    /**
+     * Moves the count of the order into a slot of the storage
+     *
+     * @param storage  that keeps the count from now on
+     * @param index    slot of the order in the storage
+     * @param sequence the storage gave the slot for this order
+     * @throws IllegalStateException if the order is already bound to a storage
+     */
+    public void bind(OrderStorage storage, int index, long sequence) {
+        this.checkNotReleased();
+        Slot current = this.slot;
+        if (current != null) {
+            throw new IllegalStateException("The order is already stored at " + current.index);
+        }
+        storage.count(index, sequence, this.count);
+        this.slot = new Slot(storage, index, sequence);
+    }
+
+    /**
+     * Moves the count back from the storage into the order, 0 if the order already left its slot
+     */
+    public void unbind() {
+        Slot current = this.slot;
+        if (current == null) {
+            return;
+        }
+        this.count = current.storage.count(current.index, current.sequence);
+        this.slot = null;
+    }
+
+    /**
+     * @return the storage that owns the count or null if the order keeps it
+     */
+    public OrderStorage getStorage() {
+        Slot current = this.slot;
+        return current != null ? current.storage : null;
+    }
+
+    /**
+     * @return slot of the order in its storage, -1 if it is not bound
+     */
+    public int getStorageIndex() {
+        Slot current = this.slot;
+        return current != null ? current.index : -1;
+    }
+
+    /**
+     * @return sequence of the slot when the order was stored in it, 0 if it is not bound
+     */
+    public long getStorageSequence() {
+        Slot current = this.slot;
+        return current != null ? current.sequence : 0;
     }
 
     /**
@@ -66,9 +243,89 @@ abstract class StockObject {
         this.owner = owner;
     }
 
+    /**
+     * @return number of times the order went back to its pool
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return true if the order is in its pool and must not be used anymore
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * @return the pool the order was taken from, null if it was created directly
+     */
+    OrderPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Gives a pooled order a new life, as if it was just created
+     *
+     * @param pool   the pool the order was taken from
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @param owner  StockPerson
+     */
+    void reuse(OrderPool pool, String symbol, double price, int count, StockPerson owner) {
+        this.id = 0;
+        this.pool = pool;
+        this.init(symbol, price, count, owner);
+        this.released = false;
+    }
+
+    /**
+     * Marks the order as released, every later use of it fails until it is reused
+     */
+    void release() {
+        this.checkNotReleased();
+        this.unbind();
+        this.generation++;
+        this.released = true;
+    }
+
+    /**
+     * @throws IllegalStateException if the order went back to its pool
+     */
+    void checkNotReleased() {
+        if (this.released) {
+            throw new IllegalStateException("The order was released to its pool and can not be used anymore");
+        }
+    }
+
+    /**
+     * @param owner StockPerson
+     * @return the tick size of the market of the owner
+     */
+    private static TickSize tickSizeOf(StockPerson owner) {
+        return owner.stockMarket != null ? owner.stockMarket.getTickSize() : TickSize.DEFAULT;
+    }
+
+    /**
+     * Storage, index and sequence of a bound order
+     */
+    private static final class Slot {
+
+        private final OrderStorage storage;
+        private final int index;
+        private final long sequence;
+
+        private Slot(OrderStorage storage, int index, long sequence) {
+            this.storage = storage;
+            this.index = index;
+            this.sequence = sequence;
+        }
+    }
+
     @Override
     public String toString() {
-        return "{\"price\": " + price + ", \"count\": " + count + "\"owner\": " + owner.getName() + "}";
+        return "{\"symbol\": " + symbol + ", \"price\": " + getPrice() + ", \"count\": " + getCount() + "\"owner\": " + owner.getName() + "}";
     }
 
 
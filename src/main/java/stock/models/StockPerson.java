@@ -1,10 +1,7 @@
 package stock.models;
 
-import com.google.common.hash.Hashing;
 import stock.core.market.StockMarket;
-
-import java.nio.charset.Charset;
-import java.sql.Timestamp;
+import stock.core.settlement.SettlementLedger;
 
 /**
  * Abstract StockPerson Class Seller, Buyer
@@ -16,7 +13,13 @@ import java.sql.Timestamp;
 
 public abstract class StockPerson {
     final StockMarket stockMarket;
-    private String identifier;
+    private final ParticipantRegistry registry;
+
+    /**
+     * Ledger of the market the fills are settled in, null if the person does not belong to a market
+     */
+    private final SettlementLedger ledger;
+    private final long id;
     private String name;
 
     /**
@@ -24,18 +27,41 @@ public abstract class StockPerson {
      * @param stockMarket        StockMarketSingleton
      */
     StockPerson(String instanceIdentifier, StockMarket stockMarket) {
-        this.identifier = Hashing.sha256()
-                .hashString(instanceIdentifier + new Timestamp(System.currentTimeMillis()).getTime(), Charset.forName("UTF-8"))
-                .toString();
         this.name = instanceIdentifier;
         this.stockMarket = stockMarket;
+        this.registry = registryOf(stockMarket);
+        this.ledger = stockMarket != null ? stockMarket.getSettlementLedger() : null;
+        this.id = this.registry.register(this);
     }
 
     /**
-     * @return id {unique}
+     * @param instanceIdentifier not unique
+     * @param id                 the id the person had before, e.g when it is restored from a journal,
+     *                           a new id is given if it already belongs to another person
+     * @param stockMarket        StockMarketSingleton
+     */
+    StockPerson(String instanceIdentifier, long id, StockMarket stockMarket) {
+        this.name = instanceIdentifier;
+        this.stockMarket = stockMarket;
+        this.registry = registryOf(stockMarket);
+        this.ledger = stockMarket != null ? stockMarket.getSettlementLedger() : null;
+        this.id = this.registry.register(this, id) ? id : this.registry.register(this);
+    }
+
+    /**
+     * @return id {unique} in the {@link ParticipantRegistry} of the stock market
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * The hash is only computed the first time it is asked for
+     *
+     * @return external id {unique}, a SHA-256 of the name and the id
      */
     public String getIdentifier() {
-        return this.identifier;
+        return this.registry.externalId(this.id);
     }
 
     /**
@@ -46,9 +72,29 @@ public abstract class StockPerson {
     }
 
     /**
-     * @param cost double
+     * Called on every fill of an order of the person
+     *
+     * @param symbol   id of the traded instrument
+     * @param quantity exchanged count
+     * @param cost     price in ticks of the market times the count
      */
-    abstract void notify(double cost);
+    abstract void notify(String symbol, int quantity, long cost);
 
+    /**
+     * Records the leg of a fill in the ledger of the market, nothing is recorded for a person without a market
+     *
+     * @param symbol   id of the traded instrument
+     * @param quantity change of the position
+     * @param cash     change of the cash in ticks
+     */
+    void settle(String symbol, int quantity, long cash) {
+        if (this.ledger != null) {
+            this.ledger.settle(this.id, symbol, quantity, cash);
+        }
+    }
+
+    private static ParticipantRegistry registryOf(StockMarket stockMarket) {
+        return stockMarket != null ? stockMarket.getParticipantRegistry() : ParticipantRegistry.DEFAULT;
+    }
 
 }
@@ -15,17 +15,59 @@ public class Supply extends StockObject {
      * @param count int
      * @param owner Seller
      */
-    Supply(double price, int count, Seller owner) {
+    public Supply(double price, int count, Seller owner) {
         super(price, count, owner);
 
     }
 
     /**
-     * @param count how much to consume
+     * @param symbol id of the traded instrument
+     * @param price  double
+     * @param count  int
+     * @param owner  Seller
      */
-    public void consume(int count) {
+    public Supply(String symbol, double price, int count, Seller owner) {
+        super(symbol, price, count, owner);
+    }
+
+    /**
+     * @param storage    that keeps the count
+     * @param index      slot of the supply in the storage
+     * @param sequence   of the slot when the supply was stored in it
+     * @param id         given by the stock market
+     * @param symbol     id of the traded instrument
+     * @param priceTicks price in ticks
+     * @param owner      Seller
+     */
+    private Supply(OrderStorage storage, int index, long sequence, long id, String symbol, long priceTicks, Seller owner) {
+        super(storage, index, sequence, id, symbol, priceTicks, owner);
+    }
+
+    /**
+     * Materializes a supply that rests in a storage which only keeps its columns
+     * The view is not the object the supply was added with, it reads and writes the count of the slot
+     *
+     * @param storage    that keeps the count
+     * @param index      slot of the supply in the storage
+     * @param sequence   of the slot when the supply was stored in it
+     * @param id         given by the stock market
+     * @param symbol     id of the traded instrument
+     * @param priceTicks price in ticks
+     * @param owner      Seller
+     * @return a view of the supply
+     */
+    public static Supply view(OrderStorage storage, int index, long sequence, long id, String symbol, long priceTicks, Seller owner) {
+        return new Supply(storage, index, sequence, id, symbol, priceTicks, owner);
+    }
+
+    /**
+     * @param count      how much to consume
+     * @param priceTicks price of the trade in ticks, the price of the order that was resting in the book
+     */
+    public void consume(int count, long priceTicks) {
+        this.checkNotReleased();
         this.setCount(getCount() - count);
-        this.getOwner().notify(count * this.getPrice());
+        this.getOwner().notify(this.getSymbol(), count, count * priceTicks);
     }
 
 
@@ -0,0 +1,78 @@
+package stock.models;
+
+/**
+ * Smallest price increment of a stock market
+ * Prices are kept as a whole number of ticks, so the book compares and multiplies
+ * plain longs. The decimal price is only used at the edges, when an order is created or printed
+ *
+ * @author Sebastian Sandru, Daniel Incicau, Stefan Oproiu, Paul Iusztin
+ * @version 0.0.5
+ * @since 10.18.2026
+ */
+public final class TickSize {
+
+    /**
+     * One cent
+     */
+    public static final TickSize DEFAULT = new TickSize(0.01);
+
+    /**
+     * Tolerance of the rounding of a decimal price to the closest tick
+     */
+    private static final double EPSILON = 1e-6;
+
+    private final double size;
+
+    /**
+     * Ticks in one price unit if that is a whole number, e.g 100 for cents, 0 otherwise
+     */
+    private final long ticksPerUnit;
+
+    /**
+     * @param size the smallest price increment, e.g 0.01
+     */
+    public TickSize(double size) {
+        if (!(size > 0)) {
+            throw new IllegalArgumentException("The tick size must be positive");
+        }
+        this.size = size;
+
+        double perUnit = 1 / size;
+        this.ticksPerUnit = Math.abs(perUnit - Math.round(perUnit)) < EPSILON ? Math.round(perUnit) : 0;
+    }
+
+    /**
+     * @return the smallest price increment
+     */
+    public double size() {
+        return size;
+    }
+
+    /**
+     * @param price a decimal price
+     * @return the price in ticks
+     * @throws IllegalArgumentException if the price is not a whole number of ticks
+     */
+    public long toTicks(double price) {
+        double ticks = price / size;
+        long rounded = Math.round(ticks);
+        if (Math.abs(ticks - rounded) > EPSILON) {
+            throw new IllegalArgumentException("The price " + price + " is not a multiple of the tick size " + size);
+        }
+        return rounded;
+    }
+
+    /**
+     * @param ticks a price in ticks
+     * @return the decimal price, only meant to be printed
+     */
+    public double toPrice(long ticks) {
+        // dividing by a whole number gives the closest double, e.g 0.3 instead of 0.30000000000000004
+        return ticksPerUnit != 0 ? (double) ticks / ticksPerUnit : ticks * size;
+    }
+
+    @Override
+    public String toString() {
+        return "TickSize " + size;
+    }
+}